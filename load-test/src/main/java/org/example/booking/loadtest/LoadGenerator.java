@@ -0,0 +1,144 @@
+package org.example.booking.loadtest;
+
+import java.io.IOException;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: users arrive at a fixed rate whether or not earlier ones have been served,
+ * each running a scenario picked from the mix on its own virtual thread.
+ * <p>
+ * Run with {@code ./gradlew :load-test:run --args="--rate=100 --duration=PT2M"} against a running
+ * instance, e.g. one started by {@code ./gradlew bootTestRun}.
+ */
+public class LoadGenerator {
+
+    private final LoadTestOptions options;
+    private final Map<String, OperationStats> operations = new ConcurrentHashMap<>();
+    private final Map<Scenario, OperationStats> scenarios = new ConcurrentHashMap<>();
+
+    LoadGenerator(LoadTestOptions options) {
+        this.options = options;
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+            return;
+        }
+
+        LoadReport report = new LoadGenerator(options).run();
+        report.write(options.report());
+        System.out.println(report.summary());
+        System.out.println("Report written to " + options.report().toAbsolutePath());
+    }
+
+    LoadReport run() throws InterruptedException {
+        HttpClient httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        Semaphore inFlight = new Semaphore(options.maxInFlight());
+        List<Scenario> weightedScenarios = weightedScenarios();
+        SplittableRandom random = new SplittableRandom(options.seed());
+
+        System.out.printf("Warming up for %s, then measuring for %s at %.1f arrivals/s against %s%n",
+                options.warmup(), options.duration(), options.rate(), options.baseUrl());
+        Instant startedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        long measureFromNanos = startNanos + options.warmup().toNanos();
+        long endNanos = measureFromNanos + options.duration().toNanos();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate();
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long arrival = 0; ; arrival++) {
+                long intendedStartNanos = startNanos + Math.round(arrival * intervalNanos);
+                if (intendedStartNanos >= endNanos) {
+                    break;
+                }
+                parkUntil(intendedStartNanos);
+
+                Scenario scenario = weightedScenarios.get(random.nextInt(weightedScenarios.size()));
+                SplittableRandom sessionRandom = random.split();
+                boolean measured = intendedStartNanos >= measureFromNanos;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        scenarioStats(scenario).recordDropped();
+                    }
+                    continue;
+                }
+                executor.execute(() -> {
+                    try {
+                        runScenario(httpClient, scenario, sessionRandom, intendedStartNanos, measured);
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+            System.out.println("Arrivals done, waiting for in-flight requests...");
+        }
+        Duration measuredFor = Duration.ofNanos(System.nanoTime() - measureFromNanos);
+        httpClient.close();
+
+        return LoadReport.of(options, startedAt, measuredFor, results(scenarios), results(operations));
+    }
+
+    private void runScenario(HttpClient httpClient, Scenario scenario, SplittableRandom random,
+                             long intendedStartNanos, boolean measured) {
+        UserSession session = new UserSession(
+                httpClient, options, this::operationStats, random, intendedStartNanos, measured);
+        scenario.run(session);
+        if (measured) {
+            long completedNanos = System.nanoTime();
+            scenarioStats(scenario).record(intendedStartNanos, intendedStartNanos, completedNanos, session.lastStatus());
+        }
+    }
+
+    private OperationStats operationStats(String operation) {
+        return operations.computeIfAbsent(operation, ignored -> new OperationStats());
+    }
+
+    private OperationStats scenarioStats(Scenario scenario) {
+        return scenarios.computeIfAbsent(scenario, ignored -> new OperationStats());
+    }
+
+    private List<Scenario> weightedScenarios() {
+        List<Scenario> weighted = new ArrayList<>();
+        options.mix().forEach((scenario, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                weighted.add(scenario);
+            }
+        });
+        return weighted;
+    }
+
+    private static <K> Map<String, OperationStats.Result> results(Map<K, OperationStats> stats) {
+        Map<String, OperationStats.Result> results = new TreeMap<>();
+        stats.forEach((key, value) -> results.put(key instanceof Scenario scenario ? scenario.id() : key.toString(),
+                value.result()));
+        return results;
+    }
+
+    private static void parkUntil(long deadlineNanos) {
+        long remaining;
+        while ((remaining = deadlineNanos - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
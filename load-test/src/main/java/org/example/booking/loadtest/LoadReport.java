@@ -0,0 +1,118 @@
+package org.example.booking.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * Machine-readable result of a run. Latencies are in milliseconds; each histogram is also included in
+ * HdrHistogram's compressed, base64-encoded form, so runs can be merged or re-analysed later.
+ */
+class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 95, 99, 99.9, 99.99};
+    private static final String[] PERCENTILE_NAMES = {"p50", "p90", "p95", "p99", "p99.9", "p99.99"};
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    private final ObjectNode json;
+    private final String summary;
+
+    private LoadReport(ObjectNode json, String summary) {
+        this.json = json;
+        this.summary = summary;
+    }
+
+    static LoadReport of(LoadTestOptions options, Instant startedAt, Duration measuredFor,
+                         Map<String, OperationStats.Result> scenarios, Map<String, OperationStats.Result> operations) {
+        ObjectNode json = OBJECT_MAPPER.createObjectNode();
+        json.put("baseUrl", options.baseUrl().toString());
+        json.put("startedAt", startedAt.toString());
+        json.put("warmupSeconds", options.warmup().toMillis() / 1000.0);
+        json.put("measuredSeconds", measuredFor.toMillis() / 1000.0);
+        json.put("targetArrivalsPerSecond", options.rate());
+        json.put("seed", options.seed());
+        ObjectNode mix = json.putObject("mix");
+        options.mix().forEach((scenario, weight) -> mix.put(scenario.id(), weight));
+
+        StringBuilder summary = new StringBuilder(String.format("%-18s %9s %9s %8s %8s %10s %10s %10s %10s %10s%n",
+                "", "count", "per sec", "errors", "shed", "p50 ms", "p99 ms", "p99.9 ms", "max ms", "svc p99"));
+        ObjectNode scenariosJson = json.putObject("scenarios");
+        scenarios.forEach((name, result) -> {
+            scenariosJson.set(name, toJson(result, measuredFor));
+            summary.append(summaryLine(name, result, measuredFor));
+        });
+        ObjectNode operationsJson = json.putObject("operations");
+        operations.forEach((name, result) -> {
+            operationsJson.set(name, toJson(result, measuredFor));
+            summary.append(summaryLine(name, result, measuredFor));
+        });
+        return new LoadReport(json, summary.toString());
+    }
+
+    void write(Path path) throws IOException {
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        OBJECT_MAPPER.writeValue(path.toFile(), json);
+    }
+
+    ObjectNode json() {
+        return json;
+    }
+
+    String summary() {
+        return summary;
+    }
+
+    private static ObjectNode toJson(OperationStats.Result result, Duration measuredFor) {
+        ObjectNode json = OBJECT_MAPPER.createObjectNode();
+        json.put("count", result.count());
+        json.put("perSecond", perSecond(result.count(), measuredFor));
+        json.put("errors", result.errors());
+        json.put("shed", result.shed());
+        json.put("dropped", result.dropped());
+        ObjectNode statusCodes = json.putObject("statusCodes");
+        result.statusCodes().forEach((status, count) ->
+                statusCodes.put(status == OperationStats.FAILED ? "none" : status.toString(), count));
+        json.set("responseTimeMs", latencies(result.responseTime()));
+        json.set("serviceTimeMs", latencies(result.serviceTime()));
+        return json;
+    }
+
+    private static ObjectNode latencies(Histogram histogram) {
+        ObjectNode json = OBJECT_MAPPER.createObjectNode();
+        json.put("mean", histogram.getTotalCount() == 0 ? 0 : histogram.getMean() / 1000.0);
+        for (int i = 0; i < PERCENTILES.length; i++) {
+            json.put(PERCENTILE_NAMES[i], histogram.getValueAtPercentile(PERCENTILES[i]) / 1000.0);
+        }
+        json.put("max", histogram.getMaxValue() / 1000.0);
+        ByteBuffer buffer = ByteBuffer.allocate(histogram.getNeededByteBufferCapacity());
+        int length = histogram.encodeIntoCompressedByteBuffer(buffer);
+        json.put("histogram", Base64.getEncoder().encodeToString(Arrays.copyOf(buffer.array(), length)));
+        return json;
+    }
+
+    private static String summaryLine(String name, OperationStats.Result result, Duration measuredFor) {
+        Histogram responseTime = result.responseTime();
+        return String.format("%-18s %9d %9.1f %8d %8d %10.1f %10.1f %10.1f %10.1f %10.1f%n", name, result.count(),
+                perSecond(result.count(), measuredFor), result.errors() + result.dropped(), result.shed(),
+                responseTime.getValueAtPercentile(50) / 1000.0, responseTime.getValueAtPercentile(99) / 1000.0,
+                responseTime.getValueAtPercentile(99.9) / 1000.0, responseTime.getMaxValue() / 1000.0,
+                result.serviceTime().getValueAtPercentile(99) / 1000.0);
+    }
+
+    private static double perSecond(long count, Duration duration) {
+        return duration.isZero() ? 0 : count * 1000.0 / duration.toMillis();
+    }
+}
@@ -0,0 +1,97 @@
+package org.example.booking.loadtest;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Command line options, given as {@code --name=value}.
+ *
+ * @param rate        scenario starts per second, independent of how fast the service answers
+ * @param mix         relative weight of each scenario
+ * @param maxInFlight scenarios running at once; arrivals beyond it are counted as dropped
+ * @param maxUserId   bookings are made for random user ids between 1 and this
+ */
+record LoadTestOptions(URI baseUrl,
+                       double rate,
+                       Duration warmup,
+                       Duration duration,
+                       Map<Scenario, Integer> mix,
+                       long seed,
+                       int maxInFlight,
+                       long maxUserId,
+                       Duration requestTimeout,
+                       Path report) {
+
+    static final String USAGE = """
+            Options (all optional):
+              --base-url=http://localhost:8080
+              --rate=50                       scenario arrivals per second
+              --warmup=PT10S                  not recorded
+              --duration=PT60S                recorded
+              --mix=search=50,availability=20,book-and-pay=20,book-and-abandon=10
+              --seed=42
+              --max-in-flight=2000
+              --max-user-id=1
+              --request-timeout=PT10S
+              --report=build/reports/load-test/report.json""";
+
+    static LoadTestOptions parse(String... args) {
+        Map<String, String> values = new HashMap<>(Map.of(
+                "base-url", "http://localhost:8080",
+                "rate", "50",
+                "warmup", "PT10S",
+                "duration", "PT60S",
+                "mix", "search=50,availability=20,book-and-pay=20,book-and-abandon=10",
+                "seed", "42",
+                "max-in-flight", "2000",
+                "max-user-id", "1",
+                "request-timeout", "PT10S",
+                "report", "build/reports/load-test/report.json"));
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0 || !values.containsKey(arg.substring(2, separator))) {
+                throw new IllegalArgumentException("Unknown option " + arg + "\n" + USAGE);
+            }
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+
+        LoadTestOptions options = new LoadTestOptions(
+                URI.create(values.get("base-url")),
+                Double.parseDouble(values.get("rate")),
+                Duration.parse(values.get("warmup")),
+                Duration.parse(values.get("duration")),
+                parseMix(values.get("mix")),
+                Long.parseLong(values.get("seed")),
+                Integer.parseInt(values.get("max-in-flight")),
+                Long.parseLong(values.get("max-user-id")),
+                Duration.parse(values.get("request-timeout")),
+                Path.of(values.get("report")));
+        if (options.rate() <= 0 || options.maxInFlight() < 1 || options.maxUserId() < 1) {
+            throw new IllegalArgumentException("rate, max-in-flight and max-user-id must be positive");
+        }
+        return options;
+    }
+
+    private static Map<Scenario, Integer> parseMix(String mix) {
+        Map<Scenario, Integer> weights = new EnumMap<>(Scenario.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry " + entry);
+            }
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight < 0) {
+                throw new IllegalArgumentException("Negative weight for " + parts[0]);
+            }
+            weights.put(Scenario.fromId(parts[0].trim()), weight);
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() == 0) {
+            throw new IllegalArgumentException("The scenario mix is empty");
+        }
+        return weights;
+    }
+}
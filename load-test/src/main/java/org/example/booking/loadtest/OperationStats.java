@@ -0,0 +1,77 @@
+package org.example.booking.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latencies and outcomes of one operation, in microseconds.
+ * <p>
+ * Response time runs from when the request should have been sent according to the arrival schedule,
+ * service time from when it actually was. While the service stalls, requests queue up in the generator:
+ * service time then looks fine, response time shows what users waited (coordinated omission).
+ */
+class OperationStats {
+
+    static final int FAILED = 0;
+    static final int SHED = 429;
+
+    private final Recorder responseTime = new Recorder(3);
+    private final Recorder serviceTime = new Recorder(3);
+    private final Map<Integer, LongAdder> statusCodes = new ConcurrentHashMap<>();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * @param status HTTP status, or {@link #FAILED} if no response arrived
+     */
+    void record(long intendedStartNanos, long sentNanos, long completedNanos, int status) {
+        responseTime.recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, completedNanos - intendedStartNanos)));
+        serviceTime.recordValue(TimeUnit.NANOSECONDS.toMicros(Math.max(0, completedNanos - sentNanos)));
+        statusCodes.computeIfAbsent(status, ignored -> new LongAdder()).increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    /**
+     * Takes the latencies recorded so far; meant to be called once, at the end of the run.
+     */
+    Result result() {
+        Map<Integer, Long> statuses = new TreeMap<>();
+        statusCodes.forEach((status, count) -> statuses.put(status, count.sum()));
+        return new Result(responseTime.getIntervalHistogram(), serviceTime.getIntervalHistogram(),
+                statuses, dropped.sum());
+    }
+
+    record Result(Histogram responseTime, Histogram serviceTime, Map<Integer, Long> statusCodes, long dropped) {
+
+        long count() {
+            return responseTime.getTotalCount();
+        }
+
+        /**
+         * Responses other than 2xx, including requests that got no response at all, but not requests the
+         * service shed.
+         */
+        long errors() {
+            return statusCodes.entrySet().stream()
+                    .filter(entry -> entry.getKey() < 200 || entry.getKey() >= 300)
+                    .filter(entry -> entry.getKey() != SHED)
+                    .mapToLong(Map.Entry::getValue)
+                    .sum();
+        }
+
+        /**
+         * Requests the service turned away with 429 Too Many Requests.
+         */
+        long shed() {
+            return statusCodes.getOrDefault(SHED, 0L);
+        }
+    }
+}
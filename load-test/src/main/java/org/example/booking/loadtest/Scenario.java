@@ -0,0 +1,56 @@
+package org.example.booking.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * What an arriving user does. The booking scenarios follow the funnel: search, then book one of the
+ * units found, then either pay or leave the booking to expire.
+ */
+enum Scenario {
+
+    SEARCH("search") {
+        @Override
+        void run(UserSession session) {
+            session.search();
+        }
+    },
+    AVAILABILITY("availability") {
+        @Override
+        void run(UserSession session) {
+            session.availableUnits();
+        }
+    },
+    BOOK_AND_PAY("book-and-pay") {
+        @Override
+        void run(UserSession session) {
+            session.search()
+                    .flatMap(session::createBooking)
+                    .ifPresent(session::pay);
+        }
+    },
+    BOOK_AND_ABANDON("book-and-abandon") {
+        @Override
+        void run(UserSession session) {
+            session.search().flatMap(session::createBooking);
+        }
+    };
+
+    private final String id;
+
+    Scenario(String id) {
+        this.id = id;
+    }
+
+    String id() {
+        return id;
+    }
+
+    abstract void run(UserSession session);
+
+    static Scenario fromId(String id) {
+        return Arrays.stream(values())
+                .filter(scenario -> scenario.id.equals(id))
+                .findFirst()
+                .orElseThrow(() -> new IllegalArgumentException("Unknown scenario " + id));
+    }
+}
@@ -0,0 +1,151 @@
+package org.example.booking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * One arriving user: a stay to look for, and the requests made for it.
+ * <p>
+ * Each session sends its own X-Client-Id, so that the read-your-writes stickiness of one session does not
+ * apply to all of them, and books as one user, which its booking writes are rate limited by.
+ * <p>
+ * The first request is timed from the scheduled arrival. Later requests depend on the previous response,
+ * so they are timed from when they are sent.
+ */
+class UserSession {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final long UNSCHEDULED = Long.MIN_VALUE;
+    private static final String[] ACCOMMODATION_TYPES = {"HOME", "FLAT", "APARTMENTS"};
+
+    private final HttpClient httpClient;
+    private final LoadTestOptions options;
+    private final Function<String, OperationStats> stats;
+    private final SplittableRandom random;
+    private final boolean measured;
+    private final String clientId;
+    private final long userId;
+    private final LocalDate checkInDate;
+    private final LocalDate checkOutDate;
+
+    private long nextIntendedStartNanos;
+    private int lastStatus;
+
+    UserSession(HttpClient httpClient, LoadTestOptions options, Function<String, OperationStats> stats,
+                SplittableRandom random, long intendedStartNanos, boolean measured) {
+        this.httpClient = httpClient;
+        this.options = options;
+        this.stats = stats;
+        this.random = random;
+        this.measured = measured;
+        this.nextIntendedStartNanos = intendedStartNanos;
+        this.clientId = "load-test-" + Long.toHexString(random.nextLong());
+        this.userId = random.nextLong(1, options.maxUserId() + 1);
+        this.checkInDate = LocalDate.now().plusDays(random.nextInt(1, 181));
+        this.checkOutDate = checkInDate.plusDays(random.nextInt(1, 8));
+    }
+
+    /**
+     * @return id of a random unit on the first page, if any was found
+     */
+    Optional<Long> search() {
+        StringBuilder query = new StringBuilder("/api/v1/units/search?checkInDate=").append(checkInDate)
+                .append("&checkOutDate=").append(checkOutDate)
+                .append("&size=20");
+        if (random.nextInt(100) < 30) {
+            query.append("&accommodationType=").append(ACCOMMODATION_TYPES[random.nextInt(ACCOMMODATION_TYPES.length)]);
+        }
+        if (random.nextInt(100) < 20) {
+            query.append("&numberOfRooms=").append(random.nextInt(1, 5));
+        }
+        return send("search", get(query.toString()))
+                .map(body -> body.path("content"))
+                .filter(content -> !content.isEmpty())
+                .map(content -> content.get(random.nextInt(content.size())).path("id").asLong());
+    }
+
+    void availableUnits() {
+        send("available-units", get("/api/v1/statistics/available-units?checkInDate=" + checkInDate
+                + "&checkOutDate=" + checkOutDate));
+    }
+
+    /**
+     * @return id of the booking, if it was created
+     */
+    Optional<Long> createBooking(long unitId) {
+        String body = """
+                {"unitId":%d,"userId":%d,"checkInDate":"%s","checkOutDate":"%s"}"""
+                .formatted(unitId, userId, checkInDate, checkOutDate);
+        return send("create-booking", post("/api/v1/bookings", body))
+                .map(booking -> booking.path("id").asLong());
+    }
+
+    void pay(long bookingId) {
+        send("pay-booking", post("/api/v1/bookings/" + bookingId + "/pay", ""));
+    }
+
+    /**
+     * @return status of the last response, {@link OperationStats#FAILED} if there was none
+     */
+    int lastStatus() {
+        return lastStatus;
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return request(path).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return request(path)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create(options.baseUrl() + path))
+                .timeout(options.requestTimeout())
+                .header("Accept", "application/json")
+                .header("X-Client-Id", clientId);
+    }
+
+    /**
+     * @return the parsed body of a 2xx response
+     */
+    private Optional<JsonNode> send(String operation, HttpRequest.Builder request) {
+        long intendedStartNanos = nextIntendedStartNanos;
+        long sentNanos = System.nanoTime();
+        nextIntendedStartNanos = UNSCHEDULED;
+        int status = OperationStats.FAILED;
+        JsonNode body = null;
+        try {
+            HttpResponse<byte[]> response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            status = response.statusCode();
+            if (status / 100 == 2 && response.body().length > 0) {
+                body = OBJECT_MAPPER.readTree(response.body());
+            }
+        } catch (IOException e) {
+            // Timeouts and refused connections are recorded with FAILED status
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        long completedNanos = System.nanoTime();
+        lastStatus = status;
+        if (measured) {
+            stats.apply(operation).record(intendedStartNanos == UNSCHEDULED ? sentNanos : intendedStartNanos,
+                    sentNanos, completedNanos, status);
+        }
+        return Optional.ofNullable(body);
+    }
+}
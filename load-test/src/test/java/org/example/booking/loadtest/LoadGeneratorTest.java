@@ -0,0 +1,78 @@
+package org.example.booking.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadGeneratorTest {
+
+    private HttpServer server;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/api/v1/units/search", exchange -> respond(exchange, 200, "{\"content\":[{\"id\":7}]}"));
+        server.createContext("/api/v1/statistics/available-units", exchange -> respond(exchange, 200, "{\"availableUnits\":3}"));
+        server.createContext("/api/v1/bookings", exchange -> {
+            if (exchange.getRequestURI().getPath().endsWith("/pay")) {
+                respond(exchange, 200, "{\"status\":\"SUCCESSFUL\"}");
+            } else {
+                respond(exchange, 201, "{\"id\":11}");
+            }
+        });
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void whenRun_shouldStartScenariosAtTheConfiguredRateAndReportEachStep() throws InterruptedException {
+        // Given
+        LoadTestOptions options = LoadTestOptions.parse(
+                "--base-url=http://localhost:" + server.getAddress().getPort(),
+                "--rate=100", "--warmup=PT0.2S", "--duration=PT1S",
+                "--mix=search=1,book-and-pay=1,book-and-abandon=1",
+                "--report=" + Path.of("unused.json"));
+
+        // When
+        LoadReport report = new LoadGenerator(options).run();
+
+        // Then
+        JsonNode json = report.json();
+        long arrivals = 0;
+        for (JsonNode scenario : json.path("scenarios")) {
+            arrivals += scenario.path("count").asLong();
+            assertEquals(0, scenario.path("errors").asLong());
+        }
+        assertTrue(arrivals >= 95 && arrivals <= 101, "arrivals: " + arrivals);
+        JsonNode operations = json.path("operations");
+        assertEquals(arrivals, operations.path("search").path("count").asLong());
+        assertEquals(json.path("scenarios").path("book-and-pay").path("count").asLong(),
+                operations.path("pay-booking").path("count").asLong());
+        assertTrue(operations.path("create-booking").path("responseTimeMs").path("histogram").asText().length() > 0);
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+}
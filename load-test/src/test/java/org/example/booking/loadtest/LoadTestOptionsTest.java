@@ -0,0 +1,42 @@
+package org.example.booking.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LoadTestOptionsTest {
+
+    @Test
+    void whenParse_withoutArguments_shouldUseDefaults() {
+        // When
+        LoadTestOptions options = LoadTestOptions.parse();
+
+        // Then
+        assertEquals("http://localhost:8080", options.baseUrl().toString());
+        assertEquals(50, options.rate());
+        assertEquals(Duration.ofSeconds(60), options.duration());
+        assertEquals(4, options.mix().size());
+    }
+
+    @Test
+    void whenParse_withMix_shouldOnlyRunListedScenarios() {
+        // When
+        LoadTestOptions options = LoadTestOptions.parse("--mix=search=3,book-and-pay=1", "--rate=12.5");
+
+        // Then
+        assertEquals(Map.of(Scenario.SEARCH, 3, Scenario.BOOK_AND_PAY, 1), options.mix());
+        assertEquals(12.5, options.rate());
+    }
+
+    @Test
+    void whenParse_withUnknownOptionOrScenario_shouldThrow() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--threads=10"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=browse=1"));
+        assertThrows(IllegalArgumentException.class, () -> LoadTestOptions.parse("--mix=search=0"));
+    }
+}
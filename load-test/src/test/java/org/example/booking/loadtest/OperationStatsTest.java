@@ -0,0 +1,65 @@
+package org.example.booking.loadtest;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OperationStatsTest {
+
+    @Test
+    void whenRequestWasSentLate_shouldCountQueueingInResponseTimeOnly() {
+        // Given
+        OperationStats stats = new OperationStats();
+        long intended = 0;
+        long sent = TimeUnit.MILLISECONDS.toNanos(900);
+        long completed = TimeUnit.MILLISECONDS.toNanos(1000);
+
+        // When
+        stats.record(intended, sent, completed, 200);
+        OperationStats.Result result = stats.result();
+
+        // Then
+        assertEquals(1000, result.responseTime().getMaxValue() / 1000, 1);
+        assertEquals(100, result.serviceTime().getMaxValue() / 1000, 1);
+    }
+
+    @Test
+    void whenResult_shouldCountNon2xxAndMissingResponsesAsErrors() {
+        // Given
+        OperationStats stats = new OperationStats();
+        stats.record(0, 0, 1000, 201);
+        stats.record(0, 0, 1000, 409);
+        stats.record(0, 0, 1000, OperationStats.FAILED);
+        stats.recordDropped();
+
+        // When
+        OperationStats.Result result = stats.result();
+
+        // Then
+        assertEquals(3, result.count());
+        assertEquals(2, result.errors());
+        assertEquals(1, result.dropped());
+        assertEquals(Map.of(0, 1L, 201, 1L, 409, 1L), result.statusCodes());
+    }
+
+    @Test
+    void whenResult_withTooManyRequests_shouldCountThemAsShedNotAsErrors() {
+        // Given
+        OperationStats stats = new OperationStats();
+        stats.record(0, 0, 1000, 201);
+        stats.record(0, 0, 1000, 429);
+        stats.record(0, 0, 1000, 429);
+        stats.record(0, 0, 1000, 500);
+
+        // When
+        OperationStats.Result result = stats.result();
+
+        // Then
+        assertEquals(4, result.count());
+        assertEquals(1, result.errors());
+        assertEquals(2, result.shed());
+    }
+}
@@ -0,0 +1,59 @@
+package org.example.booking.dto;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.example.booking.model.AccommodationType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JSON serialization of a unit search page, as written by the search endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PagedResponseSerializationBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private PagedResponse<UnitDto> page;
+
+    @Setup
+    public void setUp() {
+        // Same settings as the ObjectMapper auto-configured by Spring Boot
+        writer = Jackson2ObjectMapperBuilder.json()
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build()
+                .writer();
+
+        AccommodationType[] types = AccommodationType.values();
+        List<UnitDto> units = new ArrayList<>(pageSize);
+        for (int i = 0; i < pageSize; i++) {
+            units.add(new UnitDto((long) i + 1, 1 + i % 4, types[i % types.length], i % 20,
+                    BigDecimal.valueOf(5000 + i * 137L, 2), "Randomly generated unit",
+                    Instant.parse("2026-01-01T10:00:00Z").plusSeconds(i * 3600L)));
+        }
+        page = new PagedResponse<>(units, 0, true, pageSize);
+    }
+
+    @Benchmark
+    public byte[] writeValueAsBytes() throws JsonProcessingException {
+        return writer.writeValueAsBytes(page);
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.booking.service;
+
+import org.example.booking.config.AppConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Price with markup, computed for every unit in a search page and for every booking.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MarkupServiceBenchmark {
+
+    private MarkupService markupService;
+    private BigDecimal baseCost;
+
+    @Setup
+    public void setUp() {
+        AppConfig appConfig = new AppConfig();
+        appConfig.setMarkupPercent(15);
+        markupService = new MarkupService(appConfig);
+        baseCost = new BigDecimal("123.45");
+    }
+
+    @Benchmark
+    public BigDecimal calculateTotalUnitCost() {
+        return markupService.calculateTotalUnitCost(baseCost);
+    }
+}
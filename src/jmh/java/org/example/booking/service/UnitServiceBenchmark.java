@@ -0,0 +1,50 @@
+package org.example.booking.service;
+
+import org.example.booking.config.AppConfig;
+import org.example.booking.dto.UnitDto;
+import org.example.booking.model.AccommodationType;
+import org.example.booking.model.Unit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping of a single unit, including the markup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UnitServiceBenchmark {
+
+    private UnitService unitService;
+    private Unit unit;
+
+    @Setup
+    public void setUp() {
+        AppConfig appConfig = new AppConfig();
+        appConfig.setMarkupPercent(15);
+        unitService = new UnitService(null, null, new MarkupService(appConfig), null, null, null, null, null);
+        unit = Unit.builder()
+                .id(42L)
+                .numberOfRooms(2)
+                .accommodationType(AccommodationType.FLAT)
+                .floor(3)
+                .baseCost(new BigDecimal("120.00"))
+                .description("Cozy flat in the city center")
+                .createdAt(Instant.parse("2026-01-01T10:00:00Z"))
+                .build();
+    }
+
+    @Benchmark
+    public UnitDto toDto() {
+        return unitService.toDto(unit);
+    }
+}
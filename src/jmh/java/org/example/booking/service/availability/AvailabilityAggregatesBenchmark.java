@@ -0,0 +1,44 @@
+package org.example.booking.service.availability;
+
+import org.example.booking.service.availability.AvailabilityAggregates.CoveringKey;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis key building for a stay, done for every availability check and search.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AvailabilityAggregatesBenchmark {
+
+    @Param({"1", "7", "30", "60"})
+    private int nights;
+
+    @Param({"0", "12"})
+    private long generation;
+
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+
+    @Setup
+    public void setUp() {
+        checkInDate = LocalDate.of(2026, 7, 1);
+        checkOutDate = checkInDate.plusDays(nights);
+    }
+
+    @Benchmark
+    public List<CoveringKey> coveringKeys() {
+        return AvailabilityAggregates.coveringKeys(generation, checkInDate, checkOutDate);
+    }
+}
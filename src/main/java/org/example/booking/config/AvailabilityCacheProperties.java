@@ -0,0 +1,96 @@
+package org.example.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.availability-cache")
+public class AvailabilityCacheProperties {
+
+    /**
+     * Number of bookings read from the cursor and written to Redis as one pipeline during a rebuild.
+     */
+    private int rebuildChunkSize = 5000;
+
+    /**
+     * How long each node caches the generation pointer before reading it from Redis again.
+     */
+    private Duration generationRefreshInterval = Duration.ofMillis(500);
+
+    /**
+     * Wait after marking a new generation as building, and after promoting it, before relying on every
+     * node having seen the change. Must exceed the refresh interval plus the longest booking write.
+     */
+    private Duration rebuildSettleDelay = Duration.ofSeconds(3);
+
+    /**
+     * Upper bound for the cluster-wide rebuild lock, in case the node running the rebuild dies.
+     */
+    private Duration rebuildLockAtMostFor = Duration.ofMinutes(30);
+
+    private boolean reconcileEnabled = true;
+
+    /**
+     * Number of days from today that the reconciler compares with the database.
+     */
+    private int reconcileHorizonDays = 365;
+
+    /**
+     * Number of days compared per database query and Redis pipeline.
+     */
+    private int reconcileWindowDays = 14;
+
+    /**
+     * Pause between two windows, which keeps the reconciler's load on PostgreSQL and Redis low.
+     */
+    private Duration reconcilePause = Duration.ofMillis(200);
+
+    /**
+     * A difference is only repaired if it is still there after this period, which lets in-flight
+     * booking transactions commit or roll back.
+     */
+    private Duration reconcileGracePeriod = Duration.ofSeconds(5);
+
+    private boolean statsEnabled = true;
+
+    /**
+     * Date keys measured per SCAN step and script call when sampling the cache footprint.
+     */
+    private int statsBatchSize = 200;
+
+    /**
+     * Pause between two sampling batches.
+     */
+    private Duration statsPause = Duration.ofMillis(50);
+
+    /**
+     * How long a date key is kept after its night is over. Every write sets the key to expire then, and the
+     * compaction job unlinks past-date keys that have no expiry, e.g. ones written by an older version.
+     */
+    private Duration pastDateRetention = Duration.ofDays(1);
+
+    private boolean compactionEnabled = true;
+
+    /**
+     * Keys unlinked per UNLINK call during compaction.
+     */
+    private int compactionBatchSize = 500;
+
+    /**
+     * Pause between two compaction batches.
+     */
+    private Duration compactionPause = Duration.ofMillis(50);
+
+    private boolean snapshotEnabled = false;
+
+    private Path snapshotPath = Path.of("data", "availability.snapshot");
+
+    /**
+     * On boot, bookings changed up to this long before the snapshot watermark are replayed as well,
+     * covering transactions that were still open when the snapshot was taken.
+     */
+    private Duration snapshotReplayMargin = Duration.ofMinutes(1);
+}
@@ -0,0 +1,23 @@
+package org.example.booking.config;
+
+import lombok.AllArgsConstructor;
+import org.example.booking.controller.support.AdmissionControlInterceptor;
+import org.example.booking.service.admission.AdmissionControlService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@AllArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<AdmissionControlService> admissionControlService;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        admissionControlService.ifAvailable(service -> registry
+                .addInterceptor(new AdmissionControlInterceptor(service))
+                .addPathPatterns("/api/v1/bookings", "/api/v1/bookings/**"));
+    }
+}
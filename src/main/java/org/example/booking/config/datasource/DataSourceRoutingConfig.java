@@ -0,0 +1,165 @@
+package org.example.booking.config.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Replaces the auto-configured data source when read replicas or workload pools are enabled.
+ * <p>
+ * Connections are resolved outside-in: read-only transactions go to a replica, everything else to the
+ * primary, where the pool is chosen by the {@link Workload} of the caller. The default pool is still
+ * configured through the regular {@code spring.datasource.*} properties.
+ */
+@Configuration
+@EnableConfigurationProperties(DataSourceRoutingProperties.class)
+@ConditionalOnExpression("${booking.datasource.replica-routing-enabled:false} or ${booking.datasource.workload-pools-enabled:false}")
+public class DataSourceRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                              DataSourceProperties dataSourceProperties) {
+        JdbcConnectionDetails primaryConnectionDetails = resolveConnectionDetails(connectionDetails, dataSourceProperties);
+        return DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(primaryConnectionDetails.getDriverClassName())
+                .url(primaryConnectionDetails.getJdbcUrl())
+                .username(primaryConnectionDetails.getUsername())
+                .password(primaryConnectionDetails.getPassword())
+                .build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.datasource", name = "workload-pools-enabled", havingValue = "true")
+    public WorkloadRoutingDataSource workloadRoutingDataSource(HikariDataSource primaryDataSource,
+                                                              DataSourceRoutingProperties properties,
+                                                              ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                                              DataSourceProperties dataSourceProperties,
+                                                              MeterRegistry meterRegistry) {
+        JdbcConnectionDetails primaryConnectionDetails = resolveConnectionDetails(connectionDetails, dataSourceProperties);
+        Map<WorkloadType, DataSource> pools = new EnumMap<>(WorkloadType.class);
+        for (WorkloadType workload : WorkloadType.values()) {
+            DataSourceRoutingProperties.Pool pool = properties.getPools()
+                    .getOrDefault(workload, new DataSourceRoutingProperties.Pool());
+            HikariDataSource dataSource = createPool(
+                    workload.name().toLowerCase(Locale.ROOT).replace('_', '-'),
+                    primaryConnectionDetails.getJdbcUrl(),
+                    primaryConnectionDetails.getUsername(),
+                    primaryConnectionDetails.getPassword(),
+                    pool.getMaximumPoolSize(),
+                    meterRegistry);
+            dataSource.setConnectionTimeout(pool.getConnectionTimeout().toMillis());
+            pools.put(workload, dataSource);
+        }
+        return new WorkloadRoutingDataSource(primaryDataSource, pools);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.datasource", name = "replica-routing-enabled", havingValue = "true")
+    public ReadYourWritesTracker readYourWritesTracker(DataSourceRoutingProperties properties) {
+        return new ReadYourWritesTracker(properties.getReadYourWritesWindow(), Clock.systemUTC());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.datasource", name = "replica-routing-enabled", havingValue = "true")
+    public ReplicaRoutingDataSource replicaRoutingDataSource(HikariDataSource primaryDataSource,
+                                                             ObjectProvider<WorkloadRoutingDataSource> workloadRoutingDataSource,
+                                                             ReadYourWritesTracker readYourWritesTracker,
+                                                             DataSourceRoutingProperties properties,
+                                                             ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                                             DataSourceProperties dataSourceProperties,
+                                                             MeterRegistry meterRegistry) {
+        JdbcConnectionDetails primaryConnectionDetails = resolveConnectionDetails(connectionDetails, dataSourceProperties);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<DataSourceRoutingProperties.Replica> replicaProperties = properties.getReplicas();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            DataSourceRoutingProperties.Replica replica = replicaProperties.get(i);
+            HikariDataSource dataSource = createPool(
+                    "replica-" + i,
+                    replica.getUrl(),
+                    replica.getUsername() != null ? replica.getUsername() : primaryConnectionDetails.getUsername(),
+                    replica.getPassword() != null ? replica.getPassword() : primaryConnectionDetails.getPassword(),
+                    replica.getMaximumPoolSize(),
+                    meterRegistry);
+            dataSource.setReadOnly(true);
+            replicas.put(dataSource.getPoolName(), dataSource);
+        }
+        DataSource primary = Objects.requireNonNullElse(workloadRoutingDataSource.getIfAvailable(), primaryDataSource);
+        return new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "booking.datasource", name = "replica-routing-enabled", havingValue = "true")
+    public ReplicaLagMonitor replicaLagMonitor(ReplicaRoutingDataSource replicaRoutingDataSource,
+                                               ReadYourWritesTracker readYourWritesTracker,
+                                               DataSourceRoutingProperties properties) {
+        return new ReplicaLagMonitor(replicaRoutingDataSource, readYourWritesTracker, properties.getMaxReplicaLag());
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource,
+                                 ObjectProvider<WorkloadRoutingDataSource> workloadRoutingDataSource,
+                                 ObjectProvider<ReplicaRoutingDataSource> replicaRoutingDataSource) {
+        DataSource primary = Objects.requireNonNullElse(workloadRoutingDataSource.getIfAvailable(), primaryDataSource);
+        DataSource target = Objects.requireNonNullElse(replicaRoutingDataSource.getIfAvailable(), primary);
+        return new LazyConnectionDataSourceProxy(target);
+    }
+
+    /**
+     * Prefers connection details contributed by a service connection (e.g. Testcontainers) over the properties.
+     */
+    private JdbcConnectionDetails resolveConnectionDetails(ObjectProvider<JdbcConnectionDetails> connectionDetails,
+                                                           DataSourceProperties dataSourceProperties) {
+        return connectionDetails.getIfAvailable(() -> new JdbcConnectionDetails() {
+            @Override
+            public String getUsername() {
+                return dataSourceProperties.determineUsername();
+            }
+
+            @Override
+            public String getPassword() {
+                return dataSourceProperties.determinePassword();
+            }
+
+            @Override
+            public String getJdbcUrl() {
+                return dataSourceProperties.determineUrl();
+            }
+        });
+    }
+
+    private HikariDataSource createPool(String poolName, String url, String username, String password,
+                                        int maximumPoolSize, MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(poolName);
+        dataSource.setJdbcUrl(url);
+        dataSource.setUsername(username);
+        dataSource.setPassword(password);
+        dataSource.setMaximumPoolSize(maximumPoolSize);
+        dataSource.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return dataSource;
+    }
+}
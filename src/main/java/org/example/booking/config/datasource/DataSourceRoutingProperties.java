@@ -0,0 +1,55 @@
+package org.example.booking.config.datasource;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "booking.datasource")
+public class DataSourceRoutingProperties {
+
+    /**
+     * Route read-only transactions to the configured replicas.
+     */
+    private boolean replicaRoutingEnabled;
+
+    /**
+     * How long a client keeps reading from the primary after its own write.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(5);
+
+    /**
+     * Replicas lagging further behind than this are taken out of rotation.
+     */
+    private Duration maxReplicaLag = Duration.ofSeconds(10);
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    /**
+     * Give every {@link WorkloadType} its own connection pool on the primary.
+     */
+    private boolean workloadPoolsEnabled;
+
+    private Map<WorkloadType, Pool> pools = new EnumMap<>(WorkloadType.class);
+
+    @Data
+    public static class Replica {
+
+        private String url;
+        private String username;
+        private String password;
+        private int maximumPoolSize = 10;
+    }
+
+    @Data
+    public static class Pool {
+
+        private int maximumPoolSize = 10;
+        private Duration connectionTimeout = Duration.ofSeconds(30);
+    }
+}
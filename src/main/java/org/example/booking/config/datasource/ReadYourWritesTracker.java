@@ -0,0 +1,45 @@
+package org.example.booking.config.datasource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently, so their reads can stay on the primary until replicas catch up.
+ * <p>
+ * The state is local to the node; a client whose next request lands on another node is not sticky there.
+ */
+public class ReadYourWritesTracker {
+
+    private final Duration window;
+    private final Clock clock;
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    public void recordWrite(String clientId) {
+        lastWrites.put(clientId, clock.instant());
+    }
+
+    public boolean isSticky(String clientId) {
+        Instant lastWrite = lastWrites.get(clientId);
+        if (lastWrite == null) {
+            return false;
+        }
+        if (lastWrite.plus(window).isAfter(clock.instant())) {
+            return true;
+        }
+        lastWrites.remove(clientId, lastWrite);
+        return false;
+    }
+
+    public void evictExpired() {
+        Instant threshold = clock.instant().minus(window);
+        lastWrites.values().removeIf(lastWrite -> lastWrite.isBefore(threshold));
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.booking.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Periodically measures replication lag on every replica and takes lagging or unreachable
+ * replicas out of rotation until they catch up.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String REPLICATION_LAG_QUERY = """
+            SELECT CASE
+                       WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0
+                       ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) * 1000, 0)
+                   END
+            """;
+
+    private final ReplicaRoutingDataSource routingDataSource;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Duration maxReplicaLag;
+
+    public ReplicaLagMonitor(ReplicaRoutingDataSource routingDataSource,
+                             ReadYourWritesTracker readYourWritesTracker,
+                             Duration maxReplicaLag) {
+        this.routingDataSource = routingDataSource;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.maxReplicaLag = maxReplicaLag;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.datasource.replica-lag-check-interval:5s}")
+    public void checkReplicationLag() {
+        routingDataSource.getReplicas().forEach((key, dataSource) -> routingDataSource.markLagging(key, isLagging(key, dataSource)));
+        readYourWritesTracker.evictExpired();
+    }
+
+    private boolean isLagging(String key, DataSource dataSource) {
+        try {
+            Number lagMillis = new JdbcTemplate(dataSource).queryForObject(REPLICATION_LAG_QUERY, Number.class);
+            log.debug("Replica {} lag is {} ms", key, lagMillis);
+            return lagMillis == null || lagMillis.longValue() > maxReplicaLag.toMillis();
+        } catch (Exception e) {
+            log.warn("Failed to check replication lag of replica {}: {}", key, e.getMessage());
+            return true;
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.booking.config.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.service.support.ClientContext;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sends read-only transactions to a healthy replica and everything else to the primary.
+ * <p>
+ * Must sit behind a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: the
+ * read-only flag of the transaction is only known once the transaction has begun, not when the
+ * transaction manager asks for a connection.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    public static final String PRIMARY = "primary";
+
+    private final Map<String, DataSource> replicas;
+    private final List<String> replicaKeys;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final Set<String> laggingReplicas = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicas = Map.copyOf(replicas);
+        this.replicaKeys = List.copyOf(replicas.keySet());
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    public Map<String, DataSource> getReplicas() {
+        return replicas;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        String clientId = ClientContext.getClientId();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                readYourWritesTracker.recordWrite(clientId);
+            }
+            return PRIMARY;
+        }
+        if (readYourWritesTracker.isSticky(clientId)) {
+            return PRIMARY;
+        }
+        return nextHealthyReplica();
+    }
+
+    public void markLagging(String replicaKey, boolean lagging) {
+        boolean changed = lagging ? laggingReplicas.add(replicaKey) : laggingReplicas.remove(replicaKey);
+        if (changed) {
+            log.warn("Replica {} {} rotation", replicaKey, lagging ? "taken out of" : "returned to");
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource replica : replicas.values()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private String nextHealthyReplica() {
+        int size = replicaKeys.size();
+        int start = Math.floorMod(nextReplica.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            String candidate = replicaKeys.get((start + i) % size);
+            if (!laggingReplicas.contains(candidate)) {
+                return candidate;
+            }
+        }
+        return PRIMARY;
+    }
+}
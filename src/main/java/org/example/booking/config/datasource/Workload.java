@@ -0,0 +1,19 @@
+package org.example.booking.config.datasource;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Selects the connection pool used by the annotated method, or by all methods of the annotated class.
+ * Work that is not annotated runs on the default {@code spring.datasource.hikari} pool.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.METHOD, ElementType.TYPE})
+public @interface Workload {
+
+    WorkloadType value();
+}
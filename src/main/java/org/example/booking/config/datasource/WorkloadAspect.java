@@ -0,0 +1,40 @@
+package org.example.booking.config.datasource;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+/**
+ * Binds the {@link Workload} of the called method to the thread. Runs before the transaction interceptor,
+ * so the workload is known when the transaction's connection is taken from a pool.
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class WorkloadAspect {
+
+    @Around("@annotation(org.example.booking.config.datasource.Workload) " +
+            "|| @within(org.example.booking.config.datasource.Workload)")
+    public Object bindWorkload(ProceedingJoinPoint joinPoint) throws Throwable {
+        WorkloadType previous = WorkloadContext.set(resolveWorkload(joinPoint));
+        try {
+            return joinPoint.proceed();
+        } finally {
+            WorkloadContext.restore(previous);
+        }
+    }
+
+    private WorkloadType resolveWorkload(ProceedingJoinPoint joinPoint) {
+        MethodSignature signature = (MethodSignature) joinPoint.getSignature();
+        Workload workload = AnnotatedElementUtils.findMergedAnnotation(signature.getMethod(), Workload.class);
+        if (workload == null) {
+            workload = AnnotatedElementUtils.findMergedAnnotation(joinPoint.getTarget().getClass(), Workload.class);
+        }
+        return workload != null ? workload.value() : null;
+    }
+}
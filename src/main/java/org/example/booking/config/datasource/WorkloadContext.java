@@ -0,0 +1,30 @@
+package org.example.booking.config.datasource;
+
+/**
+ * Workload of the code currently running on this thread, set by {@link WorkloadAspect}.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadType get() {
+        return CURRENT.get();
+    }
+
+    static WorkloadType set(WorkloadType workload) {
+        WorkloadType previous = CURRENT.get();
+        CURRENT.set(workload);
+        return previous;
+    }
+
+    static void restore(WorkloadType previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
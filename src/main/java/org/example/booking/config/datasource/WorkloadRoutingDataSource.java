@@ -0,0 +1,38 @@
+package org.example.booking.config.datasource;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Bulkhead between workload classes: each {@link WorkloadType} borrows connections from its own pool,
+ * so a storm in one class cannot exhaust the connections of another.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource implements DisposableBean {
+
+    private final Map<WorkloadType, DataSource> pools;
+
+    public WorkloadRoutingDataSource(DataSource defaultPool, Map<WorkloadType, DataSource> pools) {
+        this.pools = Map.copyOf(pools);
+        setTargetDataSources(new HashMap<>(pools));
+        setDefaultTargetDataSource(defaultPool);
+        setLenientFallback(true);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.get();
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        for (DataSource pool : pools.values()) {
+            if (pool instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
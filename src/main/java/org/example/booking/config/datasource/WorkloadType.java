@@ -0,0 +1,11 @@
+package org.example.booking.config.datasource;
+
+/**
+ * Workload classes that get their own connection pool when workload pools are enabled.
+ */
+public enum WorkloadType {
+
+    BOOKING_WRITE,
+    SEARCH_READ,
+    BACKGROUND
+}
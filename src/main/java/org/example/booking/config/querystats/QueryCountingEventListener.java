@@ -0,0 +1,32 @@
+package org.example.booking.config.querystats;
+
+import org.hibernate.event.spi.AutoFlushEvent;
+import org.hibernate.event.spi.AutoFlushEventListener;
+import org.hibernate.event.spi.FlushEvent;
+import org.hibernate.event.spi.FlushEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Counts entity loads and flushes. Appended after Hibernate's own listeners, so an automatic flush
+ * before a query is only counted when it actually had something to write.
+ */
+class QueryCountingEventListener implements PostLoadEventListener, FlushEventListener, AutoFlushEventListener {
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        QueryStatistics.entityLoaded();
+    }
+
+    @Override
+    public void onFlush(FlushEvent event) {
+        QueryStatistics.flushed();
+    }
+
+    @Override
+    public void onAutoFlush(AutoFlushEvent event) {
+        if (event.isFlushRequired()) {
+            QueryStatistics.flushed();
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.booking.config.querystats;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts every statement Hibernate prepares. Plain JDBC, e.g. {@code JdbcTemplate} or COPY, is not seen.
+ */
+class QueryCountingStatementInspector implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        QueryStatistics.statementPrepared();
+        return sql;
+    }
+}
@@ -0,0 +1,61 @@
+package org.example.booking.config.querystats;
+
+/**
+ * SQL statements, entity loads and flushes counted for the request currently running on this thread,
+ * bound by {@link QueryStatisticsFilter}. Work on other threads, e.g. startup tasks, is not counted.
+ */
+public final class QueryStatistics {
+
+    private static final ThreadLocal<QueryStatistics> CURRENT = new ThreadLocal<>();
+
+    private int statements;
+    private int entityLoads;
+    private int flushes;
+
+    public static QueryStatistics get() {
+        return CURRENT.get();
+    }
+
+    static QueryStatistics start() {
+        QueryStatistics statistics = new QueryStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    static void clear() {
+        CURRENT.remove();
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public int getEntityLoads() {
+        return entityLoads;
+    }
+
+    public int getFlushes() {
+        return flushes;
+    }
+
+    static void statementPrepared() {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    static void entityLoaded() {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    static void flushed() {
+        QueryStatistics statistics = CURRENT.get();
+        if (statistics != null) {
+            statistics.flushes++;
+        }
+    }
+}
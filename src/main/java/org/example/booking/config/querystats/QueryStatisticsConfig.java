@@ -0,0 +1,54 @@
+package org.example.booking.config.querystats;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Per-request query statistics, see {@link QueryStatisticsFilter}. Statements are counted by a Hibernate
+ * {@code StatementInspector}, entity loads and flushes by event listeners.
+ */
+@Configuration
+@EnableConfigurationProperties(QueryStatisticsProperties.class)
+@ConditionalOnProperty(prefix = "booking.query-stats", name = "enabled", havingValue = "true")
+public class QueryStatisticsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountingStatementInspector() {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.STATEMENT_INSPECTOR, new QueryCountingStatementInspector());
+    }
+
+    @Bean
+    public SmartInitializingSingleton queryCountingEventListenerRegistration(EntityManagerFactory entityManagerFactory) {
+        return () -> {
+            EventListenerRegistry eventListenerRegistry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                    .getServiceRegistry()
+                    .requireService(EventListenerRegistry.class);
+            QueryCountingEventListener listener = new QueryCountingEventListener();
+            eventListenerRegistry.appendListeners(EventType.POST_LOAD, listener);
+            eventListenerRegistry.appendListeners(EventType.FLUSH, listener);
+            eventListenerRegistry.appendListeners(EventType.AUTO_FLUSH, listener);
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<QueryStatisticsFilter> queryStatisticsFilter(QueryStatisticsProperties properties,
+                                                                               MeterRegistry meterRegistry) {
+        FilterRegistrationBean<QueryStatisticsFilter> registration =
+                new FilterRegistrationBean<>(new QueryStatisticsFilter(properties, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,137 @@
+package org.example.booking.config.querystats;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Counts the SQL statements, entity loads and flushes of each request and records them per endpoint, so
+ * an endpoint that starts loading associations one by one (N+1) shows up as a jump in its statement count.
+ * <p>
+ * With response headers enabled, the counts are also written to the response just before it is committed,
+ * i.e. once the controller has returned.
+ */
+@Slf4j
+public class QueryStatisticsFilter extends OncePerRequestFilter {
+
+    public static final String STATEMENTS_HEADER = "X-Query-Count";
+    public static final String ENTITY_LOADS_HEADER = "X-Entity-Load-Count";
+    public static final String FLUSHES_HEADER = "X-Flush-Count";
+
+    private final QueryStatisticsProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryStatisticsFilter(QueryStatisticsProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryStatistics statistics = QueryStatistics.start();
+        CountingHeadersResponse countingResponse = properties.isResponseHeaders()
+                ? new CountingHeadersResponse(response, statistics)
+                : null;
+        try {
+            filterChain.doFilter(request, countingResponse != null ? countingResponse : response);
+        } finally {
+            QueryStatistics.clear();
+            if (countingResponse != null) {
+                countingResponse.writeHeaders();
+            }
+            record(request, statistics);
+        }
+    }
+
+    private void record(HttpServletRequest request, QueryStatistics statistics) {
+        String method = request.getMethod();
+        String uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof String pattern
+                ? pattern
+                : "UNKNOWN";
+        summary("booking.http.sql.statements", "SQL statements prepared by Hibernate per request", method, uri)
+                .record(statistics.getStatements());
+        summary("booking.http.entity.loads", "Entities loaded per request", method, uri)
+                .record(statistics.getEntityLoads());
+        summary("booking.http.flushes", "Persistence context flushes per request", method, uri)
+                .record(statistics.getFlushes());
+
+        if (properties.getWarnStatements() > 0 && statistics.getStatements() > properties.getWarnStatements()) {
+            log.warn("{} {} ran {} SQL statements ({} entity loads, {} flushes), possible N+1 query",
+                    method, uri, statistics.getStatements(), statistics.getEntityLoads(), statistics.getFlushes());
+        }
+    }
+
+    private DistributionSummary summary(String name, String description, String method, String uri) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(meterRegistry);
+    }
+
+    private static final class CountingHeadersResponse extends HttpServletResponseWrapper {
+
+        private final QueryStatistics statistics;
+
+        private CountingHeadersResponse(HttpServletResponse response, QueryStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            writeHeaders();
+            return super.getOutputStream();
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            writeHeaders();
+            return super.getWriter();
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            writeHeaders();
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            writeHeaders();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            writeHeaders();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            writeHeaders();
+            super.sendRedirect(location);
+        }
+
+        private void writeHeaders() {
+            if (!isCommitted()) {
+                setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+                setHeader(ENTITY_LOADS_HEADER, String.valueOf(statistics.getEntityLoads()));
+                setHeader(FLUSHES_HEADER, String.valueOf(statistics.getFlushes()));
+            }
+        }
+    }
+}
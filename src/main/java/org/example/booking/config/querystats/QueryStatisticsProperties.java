@@ -0,0 +1,24 @@
+package org.example.booking.config.querystats;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "booking.query-stats")
+public class QueryStatisticsProperties {
+
+    /**
+     * Count SQL statements, entity loads and flushes per HTTP request and publish them as metrics.
+     */
+    private boolean enabled;
+
+    /**
+     * Also return the counts as response headers. Meant for non-production environments and tests.
+     */
+    private boolean responseHeaders;
+
+    /**
+     * Requests running more SQL statements than this are logged as a likely N+1; 0 disables the warning.
+     */
+    private int warnStatements = 20;
+}
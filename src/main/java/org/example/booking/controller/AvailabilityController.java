@@ -0,0 +1,51 @@
+package org.example.booking.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.AllArgsConstructor;
+import org.example.booking.dto.AvailabilityCheckRequest;
+import org.example.booking.dto.AvailabilityCheckResponse;
+import org.example.booking.dto.AvailabilityMatrixRequest;
+import org.example.booking.dto.AvailabilityMatrixResponse;
+import org.example.booking.service.UnitAvailabilityService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@AllArgsConstructor
+@RequestMapping("/api/v1/availability")
+@Tag(name = "Availability", description = "APIs for checking unit availability in bulk")
+public class AvailabilityController {
+
+    private final UnitAvailabilityService unitAvailabilityService;
+
+    @PostMapping("/check")
+    @Operation(summary = "Check the availability of many units at once",
+            description = "Takes either unitIds with one checkInDate and checkOutDate, or a list of stays, " +
+                    "up to 1000 per request, and answers them with one Redis pipeline.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Availability checked"),
+                    @ApiResponse(responseCode = "400", description = "Invalid dates, both or neither form given, or too many units")
+            })
+    public ResponseEntity<AvailabilityCheckResponse> checkAvailability(@Valid @RequestBody AvailabilityCheckRequest request) {
+        return ResponseEntity.ok(unitAvailabilityService.checkAvailability(request));
+    }
+
+    @PostMapping("/matrix")
+    @Operation(summary = "Get the availability of many units by night",
+            description = "Returns one row of packed bits per unit, one bit per night from fromDate up to, " +
+                    "not including, toDate, set when the unit is available. Up to 1000 units and 366 nights; " +
+                    "the rows can be gzipped before they are Base64 encoded.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Matrix calculated"),
+                    @ApiResponse(responseCode = "400", description = "Invalid or too long date window, or no or too many units")
+            })
+    public ResponseEntity<AvailabilityMatrixResponse> getAvailabilityMatrix(@Valid @RequestBody AvailabilityMatrixRequest request) {
+        return ResponseEntity.ok(unitAvailabilityService.getAvailabilityMatrix(request));
+    }
+}
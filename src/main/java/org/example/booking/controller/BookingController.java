@@ -1,6 +1,7 @@
 package org.example.booking.controller;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
@@ -10,6 +11,8 @@ import org.example.booking.dto.BookingDto;
 import org.example.booking.dto.PaymentDto;
 import org.example.booking.service.BookingService;
 import org.example.booking.service.PaymentService;
+import org.example.booking.service.admission.AdmissionControlService;
+import org.example.booking.service.idempotency.IdempotencyService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -17,6 +20,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -28,19 +32,28 @@ public class BookingController {
 
     private final BookingService bookingService;
     private final PaymentService paymentService;
+    private final IdempotencyService idempotencyService;
+    private final AdmissionControlService admissionControlService;
 
     @PostMapping
     @Operation(summary = "Create a new booking",
-            description = "Creates a booking in PENDING state. It must be paid within 15 minutes.",
+            description = "Creates a booking in PENDING state. It must be paid within 15 minutes. " +
+                    "Retries with the same Idempotency-Key get the original response.",
             responses = {
                     @ApiResponse(responseCode = "201", description = "Booking created"),
                     @ApiResponse(responseCode = "400", description = "Invalid data or dates"),
                     @ApiResponse(responseCode = "404", description = "Unit or User not found"),
                     @ApiResponse(responseCode = "409", description = "Unit is not available for these dates")
             })
-    public ResponseEntity<BookingDto> createBooking(@Valid @RequestBody BookingCreateRequest createRequest) {
-        BookingDto booking = bookingService.createBooking(createRequest);
-        return new ResponseEntity<>(booking, HttpStatus.CREATED);
+    public ResponseEntity<BookingDto> createBooking(
+            @Parameter(description = "Client generated key that makes retries safe")
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @Valid @RequestBody BookingCreateRequest createRequest) {
+        admissionControlService.checkRate(createRequest.getUserId());
+        return idempotencyService.execute(idempotencyKey, "create-booking", createRequest, BookingDto.class, () -> {
+            BookingDto booking = bookingService.createBooking(createRequest);
+            return new ResponseEntity<>(booking, HttpStatus.CREATED);
+        });
     }
 
     @GetMapping("/{bookingId}")
@@ -61,20 +74,35 @@ public class BookingController {
                     @ApiResponse(responseCode = "404", description = "Booking not found")
             })
     public ResponseEntity<BookingDto> cancelBooking(@PathVariable Long bookingId) {
+        checkRateOfOwner(bookingId);
         BookingDto cancelledBooking = bookingService.cancelBooking(bookingId);
         return ResponseEntity.ok(cancelledBooking);
     }
 
     @PostMapping("/{bookingId}/pay")
     @Operation(summary = "Emulate payment for a booking",
-            description = "Moves a PENDING booking to CONFIRMED state.",
+            description = "Moves a PENDING booking to CONFIRMED state. " +
+                    "Retries with the same Idempotency-Key get the original response.",
             responses = {
                     @ApiResponse(responseCode = "200", description = "Payment successful, booking confirmed"),
                     @ApiResponse(responseCode = "404", description = "Booking not found"),
                     @ApiResponse(responseCode = "409", description = "Booking is not pending or has expired")
             })
-    public ResponseEntity<PaymentDto> payForBooking(@PathVariable Long bookingId) {
-        PaymentDto payment = paymentService.processPayment(bookingId);
-        return ResponseEntity.ok(payment);
+    public ResponseEntity<PaymentDto> payForBooking(
+            @Parameter(description = "Client generated key that makes retries safe")
+            @RequestHeader(name = IdempotencyService.IDEMPOTENCY_KEY_HEADER, required = false) String idempotencyKey,
+            @PathVariable Long bookingId) {
+        checkRateOfOwner(bookingId);
+        return idempotencyService.execute(idempotencyKey, "pay-booking", bookingId, PaymentDto.class, () -> {
+            PaymentDto payment = paymentService.processPayment(bookingId);
+            return ResponseEntity.ok(payment);
+        });
+    }
+
+    /**
+     * Writes to a booking are charged to its owner. Unknown bookings are left to the service to reject.
+     */
+    private void checkRateOfOwner(Long bookingId) {
+        bookingService.findBookingOwnerId(bookingId).ifPresent(admissionControlService::checkRate);
     }
 }
@@ -7,6 +7,8 @@ import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.example.booking.dto.AvailableUnitsRequest;
 import org.example.booking.dto.AvailableUnitsResponse;
+import org.example.booking.dto.AvailableUnitsSeriesRequest;
+import org.example.booking.dto.AvailableUnitsSeriesResponse;
 import org.example.booking.service.UnitAvailabilityService;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
@@ -34,4 +36,17 @@ public class StatisticsController {
         return ResponseEntity.ok(unitAvailabilityService.getAvailableUnitsCount(
                 request.getCheckInDate(), request.getCheckOutDate()));
     }
+
+    @GetMapping("/available-units/series")
+    @Operation(summary = "Get available unit counts per night for a date window",
+            description = "Returns one count per night from fromDate up to, not including, toDate; at most 366 nights.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Availability calculated"),
+                    @ApiResponse(responseCode = "400", description = "Invalid or too long date window, or missing parameters")
+            })
+    public ResponseEntity<AvailableUnitsSeriesResponse> getAvailableUnitsSeries(
+            @Valid @ParameterObject AvailableUnitsSeriesRequest request) {
+        return ResponseEntity.ok(unitAvailabilityService.getAvailableUnitsSeries(
+                request.getFromDate(), request.getToDate()));
+    }
 }
@@ -6,14 +6,18 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.AllArgsConstructor;
 import org.example.booking.dto.PagedResponse;
+import org.example.booking.dto.UnitCalendarRequest;
+import org.example.booking.dto.UnitCalendarResponse;
 import org.example.booking.dto.UnitCreateRequest;
 import org.example.booking.dto.UnitDto;
 import org.example.booking.dto.UnitSearchRequest;
+import org.example.booking.service.UnitAvailabilityService;
 import org.example.booking.service.UnitService;
 import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -22,6 +26,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @AllArgsConstructor
@@ -30,6 +35,7 @@ import org.springframework.web.bind.annotation.RestController;
 public class UnitController {
 
     private final UnitService unitService;
+    private final UnitAvailabilityService unitAvailabilityService;
 
     @PostMapping
     @Operation(summary = "Add a new accommodation unit",
@@ -52,6 +58,32 @@ public class UnitController {
         return ResponseEntity.ok(unitService.getUnitById(id));
     }
 
+    @GetMapping("/{id}/calendar")
+    @Operation(summary = "Get the availability calendar of a unit",
+            description = "Returns the nights from 'from' up to, not including, 'to' as ranges of consecutive " +
+                    "available or booked nights; at most 366 nights. The ETag changes whenever a night of the " +
+                    "unit is booked or released, so clients can revalidate with If-None-Match.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Calendar calculated"),
+                    @ApiResponse(responseCode = "304", description = "Calendar unchanged since the given ETag"),
+                    @ApiResponse(responseCode = "400", description = "Invalid or too long date window, or missing parameters")
+            })
+    public ResponseEntity<UnitCalendarResponse> getUnitCalendar(
+            @PathVariable Long id,
+            @Valid @ParameterObject UnitCalendarRequest request,
+            WebRequest webRequest) {
+        // Before the ETag check, so that an invalid window is never answered with 304
+        UnitAvailabilityService.validateWindow(request.getFrom(), request.getTo());
+        String eTag = "\"" + unitAvailabilityService.getUnitCalendarVersion(id) + "\"";
+        if (webRequest.checkNotModified(eTag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(CacheControl.noCache())
+                .body(unitAvailabilityService.getUnitCalendar(id, request.getFrom(), request.getTo()));
+    }
+
     @GetMapping("/search")
     @Operation(summary = "Search for available units",
             description = "Finds units based on criteria and availability. " +
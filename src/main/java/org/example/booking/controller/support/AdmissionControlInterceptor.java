@@ -0,0 +1,41 @@
+package org.example.booking.controller.support;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.AllArgsConstructor;
+import org.example.booking.service.admission.AdmissionControlService;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies the concurrency limit of {@link AdmissionControlService} to write requests, before they reach a
+ * controller. The rate limit needs the user of the request, so the controller applies it.
+ */
+@AllArgsConstructor
+public class AdmissionControlInterceptor implements HandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionControlInterceptor.class.getName() + ".permit";
+
+    private final AdmissionControlService admissionControlService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, admissionControlService.acquire());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof AdmissionControlService.Permit permit) {
+            if (response.getStatus() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                permit.cancel();
+            } else {
+                permit.release(ex != null || response.getStatus() >= 500);
+            }
+        }
+    }
+}
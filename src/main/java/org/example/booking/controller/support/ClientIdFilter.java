@@ -0,0 +1,46 @@
+package org.example.booking.controller.support;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.booking.service.support.ClientContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Binds the calling client to the request thread. Clients identify themselves with the {@code X-Client-Id}
+ * header; requests without it are attributed to their remote address.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ClientIdFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_ID_HEADER = "X-Client-Id";
+
+    private static final int MAX_CLIENT_ID_LENGTH = 128;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ClientContext.setClientId(resolveClientId(request));
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ClientContext.clear();
+        }
+    }
+
+    private String resolveClientId(HttpServletRequest request) {
+        String clientId = request.getHeader(CLIENT_ID_HEADER);
+        if (StringUtils.hasText(clientId) && clientId.length() <= MAX_CLIENT_ID_LENGTH) {
+            return clientId.trim();
+        }
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,38 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Units to check, either as unit IDs sharing one date range or as individual stays")
+public class AvailabilityCheckRequest {
+
+    @Size(max = 1000)
+    @Schema(description = "Unit IDs to check for checkInDate to checkOutDate", example = "[1, 2, 3]")
+    private List<@NotNull Long> unitIds;
+
+    @FutureOrPresent
+    @Schema(description = "Check-in date for all unitIds", example = "2025-01-01")
+    private LocalDate checkInDate;
+
+    @Future
+    @Schema(description = "Check-out date for all unitIds", example = "2025-01-05")
+    private LocalDate checkOutDate;
+
+    @Valid
+    @Size(max = 1000)
+    @Schema(description = "Stays to check, each with its own unit and dates; used instead of unitIds")
+    private List<@NotNull UnitStayDto> stays;
+}
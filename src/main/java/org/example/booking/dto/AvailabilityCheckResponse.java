@@ -0,0 +1,21 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Availability of the checked units")
+public class AvailabilityCheckResponse {
+
+    @Schema(description = "Whether each unit or stay is available, in request order", example = "[true, false, true]")
+    private List<Boolean> available;
+
+    @Schema(description = "Number of available units or stays", example = "2")
+    private int availableCount;
+}
@@ -0,0 +1,35 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Units and date window of an availability matrix")
+public class AvailabilityMatrixRequest {
+
+    @NotEmpty
+    @Size(max = 1000)
+    @Schema(description = "Unit IDs, one matrix row each, in this order", example = "[1, 2, 3]")
+    private List<@NotNull Long> unitIds;
+
+    @NotNull
+    @Schema(description = "First night of the window", example = "2025-01-01")
+    private LocalDate fromDate;
+
+    @NotNull
+    @Schema(description = "Day after the last night of the window", example = "2025-03-01")
+    private LocalDate toDate;
+
+    @Schema(description = "Whether to gzip the packed rows before encoding them", example = "false")
+    private boolean compressed;
+}
@@ -0,0 +1,35 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Availability of units by night, as packed bit rows")
+public class AvailabilityMatrixResponse {
+
+    @Schema(description = "Unit ID of each row, in row order", example = "[1, 2, 3]")
+    private List<Long> unitIds;
+
+    @Schema(description = "First night of the window, the first bit of every row", example = "2025-01-01")
+    private LocalDate fromDate;
+
+    @Schema(description = "Day after the last night of the window", example = "2025-03-01")
+    private LocalDate toDate;
+
+    @Schema(description = "Bytes per row: one bit per night, rounded up to whole bytes", example = "8")
+    private int rowBytes;
+
+    @Schema(description = "Compression applied to the rows before Base64: identity or gzip", example = "identity")
+    private String encoding;
+
+    @Schema(description = "Base64 of the concatenated rows. Within a row, night i is bit 7 - i % 8 of byte i / 8, "
+            + "set when the unit is available")
+    private String rows;
+}
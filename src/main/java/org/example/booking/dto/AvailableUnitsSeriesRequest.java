@@ -0,0 +1,31 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Date window for a per-night availability series")
+public class AvailableUnitsSeriesRequest {
+
+    @NotNull
+    @FutureOrPresent
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "First night of the window", example = "2025-01-01")
+    private LocalDate fromDate;
+
+    @NotNull
+    @Future
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    @Schema(description = "Day after the last night of the window", example = "2026-01-01")
+    private LocalDate toDate;
+}
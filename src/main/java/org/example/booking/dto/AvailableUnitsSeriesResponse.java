@@ -0,0 +1,21 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Available units per night of a date window")
+public class AvailableUnitsSeriesResponse {
+
+    @Schema(description = "Total number of units", example = "100")
+    private int totalUnitsCount;
+
+    @Schema(description = "One entry per night, in date order")
+    private List<DailyAvailableUnitsDto> nights;
+}
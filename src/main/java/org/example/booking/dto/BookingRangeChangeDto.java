@@ -0,0 +1,17 @@
+package org.example.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import org.example.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+public class BookingRangeChangeDto {
+
+    private Long unitId;
+    private LocalDate checkInDate;
+    private LocalDate checkOutDate;
+    private BookingStatus status;
+}
@@ -0,0 +1,24 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Consecutive nights of a unit that are all available or all booked")
+public class CalendarRangeDto {
+
+    @Schema(description = "First night of the range", example = "2025-01-01")
+    private LocalDate from;
+
+    @Schema(description = "Day after the last night of the range", example = "2025-01-05")
+    private LocalDate to;
+
+    @Schema(description = "Whether the unit can be booked for these nights", example = "true")
+    private boolean available;
+}
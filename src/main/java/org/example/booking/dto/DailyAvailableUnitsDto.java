@@ -0,0 +1,21 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Available units for one night")
+public class DailyAvailableUnitsDto {
+
+    @Schema(description = "Night, identified by its check-in date", example = "2025-01-01")
+    private LocalDate date;
+
+    @Schema(description = "Number of units not booked for this night", example = "95")
+    private int availableUnitsCount;
+}
@@ -0,0 +1,28 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "Availability of a unit over a date window, as run-length ranges")
+public class UnitCalendarResponse {
+
+    @Schema(description = "Unit ID", example = "1")
+    private Long unitId;
+
+    @Schema(description = "First night of the window", example = "2025-01-01")
+    private LocalDate from;
+
+    @Schema(description = "Day after the last night of the window", example = "2025-02-01")
+    private LocalDate to;
+
+    @Schema(description = "Ranges covering the window in date order, alternating between available and booked")
+    private List<CalendarRangeDto> ranges;
+}
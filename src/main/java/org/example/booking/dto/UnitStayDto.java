@@ -0,0 +1,32 @@
+package org.example.booking.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Future;
+import jakarta.validation.constraints.FutureOrPresent;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Schema(description = "A stay in one unit")
+public class UnitStayDto {
+
+    @NotNull
+    @Schema(description = "ID of the unit", example = "1")
+    private Long unitId;
+
+    @NotNull
+    @FutureOrPresent
+    @Schema(description = "Check-in date", example = "2025-01-01")
+    private LocalDate checkInDate;
+
+    @NotNull
+    @Future
+    @Schema(description = "Check-out date", example = "2025-01-05")
+    private LocalDate checkOutDate;
+}
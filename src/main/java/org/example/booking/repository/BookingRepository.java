@@ -1,22 +1,63 @@
 package org.example.booking.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.booking.dto.BookingDateRangeDto;
+import org.example.booking.dto.BookingRangeChangeDto;
 import org.example.booking.model.Booking;
 import org.example.booking.model.BookingStatus;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
 
+    /**
+     * Forward-only cursor over active booking ranges. Must be consumed inside a transaction and closed;
+     * the fetch size keeps the PostgreSQL driver from materializing the whole result set.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
     @Query("""
             SELECT new org.example.booking.dto.BookingDateRangeDto(b.unit.id, b.checkInDate, b.checkOutDate) \
             FROM Booking b \
             WHERE b.status IN ?#{T(org.example.booking.model.BookingStatus).BOOKED_STATUSES}
             """)
-    List<BookingDateRangeDto> findActiveBookingRanges();
+    Stream<BookingDateRangeDto> streamActiveBookingRanges();
+
+    @Query("""
+            SELECT new org.example.booking.dto.BookingDateRangeDto(b.unit.id, b.checkInDate, b.checkOutDate) \
+            FROM Booking b \
+            WHERE b.status IN :#{T(org.example.booking.model.BookingStatus).BOOKED_STATUSES} \
+            AND b.checkInDate < :to AND b.checkOutDate > :from
+            """)
+    List<BookingDateRangeDto> findActiveBookingRangesBetween(LocalDate from, LocalDate to);
+
+    @Query("""
+            SELECT new org.example.booking.dto.BookingDateRangeDto(b.unit.id, b.checkInDate, b.checkOutDate) \
+            FROM Booking b \
+            WHERE b.status IN :#{T(org.example.booking.model.BookingStatus).BOOKED_STATUSES} \
+            AND b.unit.id = :unitId AND b.checkInDate < :to AND b.checkOutDate > :from
+            """)
+    List<BookingDateRangeDto> findActiveBookingRangesOfUnitBetween(Long unitId, LocalDate from, LocalDate to);
+
+    /**
+     * Bookings created or changed after {@code since}, in any status; served by idx_bookings_last_modified.
+     */
+    @Query("""
+            SELECT new org.example.booking.dto.BookingRangeChangeDto(b.unit.id, b.checkInDate, b.checkOutDate, b.status) \
+            FROM Booking b \
+            WHERE COALESCE(b.updatedAt, b.createdAt) > :since
+            """)
+    List<BookingRangeChangeDto> findBookingRangesChangedSince(Instant since);
+
+    @Query("SELECT b.user.id FROM Booking b WHERE b.id = :bookingId")
+    Optional<Long> findUserIdById(Long bookingId);
 
     List<Booking> findAllByStatusAndExpiresAtBefore(BookingStatus status, Instant now);
 }
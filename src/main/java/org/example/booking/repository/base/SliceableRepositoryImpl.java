@@ -8,6 +8,7 @@ import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.data.jpa.repository.support.JpaEntityInformation;
 import org.springframework.data.jpa.repository.support.SimpleJpaRepository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
@@ -18,6 +19,7 @@ public class SliceableRepositoryImpl<T, ID> extends SimpleJpaRepository<T, ID> i
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Slice<T> findAllSliced(Specification<T> specification, Pageable pageable) {
         TypedQuery<T> query = getQuery(specification, pageable);
         query.setFirstResult((int) pageable.getOffset());
@@ -3,10 +3,13 @@ package org.example.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
 import org.example.booking.model.Booking;
 import org.example.booking.model.BookingStatus;
 import org.example.booking.model.UnitEventType;
 import org.example.booking.repository.BookingRepository;
+import org.example.booking.service.support.BookingObservations;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,21 +23,26 @@ import java.util.List;
 public class BookingCleanupJob {
 
     private static final String CRON_EVERY_MINUTE = "0 * * * * *";
+    private static final String EXPIRE_BOOKINGS = "expire-bookings";
 
     private final BookingRepository bookingRepository;
     private final UnitEventService unitEventService;
     private final UnitAvailabilityService unitAvailabilityService;
+    private final BookingObservations bookingObservations;
 
     @Transactional
     @Scheduled(cron = CRON_EVERY_MINUTE)
     @SchedulerLock(name = "cancel-expired-bookings-lock")
+    @Workload(WorkloadType.BACKGROUND)
     public void expirePendingBookings() {
+        bookingObservations.operation(EXPIRE_BOOKINGS, this::doExpirePendingBookings);
+    }
+
+    private void doExpirePendingBookings() {
         log.debug("Running scheduled task to cancel expired bookings...");
 
-        List<Booking> expiredBookings = bookingRepository.findAllByStatusAndExpiresAtBefore(
-                BookingStatus.PENDING,
-                Instant.now()
-        );
+        List<Booking> expiredBookings = bookingObservations.step(EXPIRE_BOOKINGS, "expired-lookup",
+                () -> bookingRepository.findAllByStatusAndExpiresAtBefore(BookingStatus.PENDING, Instant.now()));
 
         if (expiredBookings.isEmpty()) {
             log.debug("No expired bookings found.");
@@ -47,9 +55,10 @@ public class BookingCleanupJob {
             booking.setStatus(BookingStatus.EXPIRED);
             booking.setExpiresAt(null);
 
-            unitEventService.logEvent(booking.getUnit(), booking, UnitEventType.BOOKING_EXPIRED, "Booking expired due to non-payment");
-            bookingRepository.save(booking);
-            unitAvailabilityService.removeBookedDates(booking);
+            bookingObservations.step(EXPIRE_BOOKINGS, "event-log", () -> unitEventService.logEvent(
+                    booking.getUnit(), booking, UnitEventType.BOOKING_EXPIRED, "Booking expired due to non-payment"));
+            bookingObservations.step(EXPIRE_BOOKINGS, "update", () -> bookingRepository.save(booking));
+            bookingObservations.step(EXPIRE_BOOKINGS, "booked-dates", () -> unitAvailabilityService.removeBookedDates(booking));
         }
 
         log.info("Cancelled {} expired bookings.", expiredBookings.size());
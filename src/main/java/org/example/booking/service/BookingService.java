@@ -3,6 +3,8 @@ package org.example.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.booking.config.AppConfig;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
 import org.example.booking.dto.BookingCreateRequest;
 import org.example.booking.dto.BookingDto;
 import org.example.booking.exception.BookingException;
@@ -16,18 +18,23 @@ import org.example.booking.model.User;
 import org.example.booking.repository.BookingRepository;
 import org.example.booking.repository.UnitRepository;
 import org.example.booking.repository.UserRepository;
+import org.example.booking.service.support.BookingObservations;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.Optional;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final String CREATE_BOOKING = "create-booking";
+    private static final String CANCEL_BOOKING = "cancel-booking";
+
     private final AppConfig appConfig;
     private final UnitRepository unitRepository;
     private final UserRepository userRepository;
@@ -35,26 +42,43 @@ public class BookingService {
     private final MarkupService markupService;
     private final UnitEventService unitEventService;
     private final UnitAvailabilityService unitAvailabilityService;
+    private final BookingObservations bookingObservations;
 
     @Transactional(readOnly = true)
+    @Workload(WorkloadType.SEARCH_READ)
     public BookingDto getBookingById(Long bookingId) {
         return toDto(findBookingById(bookingId));
     }
 
+    /**
+     * Empty if the booking does not exist, or has not reached the replica yet.
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.SEARCH_READ)
+    public Optional<Long> findBookingOwnerId(Long bookingId) {
+        return bookingRepository.findUserIdById(bookingId);
+    }
+
     @Transactional
+    @Workload(WorkloadType.BOOKING_WRITE)
     public BookingDto createBooking(BookingCreateRequest request) {
+        return bookingObservations.operation(CREATE_BOOKING, () -> doCreateBooking(request));
+    }
+
+    private BookingDto doCreateBooking(BookingCreateRequest request) {
         log.info("Attempting to create booking for unit: {}", request.getUnitId());
 
         validateBookingRequest(request);
 
         // Find and lock the unit to prevent concurrent bookings
-        Unit unit = unitRepository.findByIdWithLock(request.getUnitId())
+        Unit unit = bookingObservations.step(CREATE_BOOKING, "unit-lock", () -> unitRepository.findByIdWithLock(request.getUnitId()))
                 .orElseThrow(() -> new ResourceNotFoundException("Unit not found with id: " + request.getUnitId()));
 
-        User user = userRepository.findById(request.getUserId())
+        User user = bookingObservations.step(CREATE_BOOKING, "user-lookup", () -> userRepository.findById(request.getUserId()))
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + request.getUserId()));
 
-        boolean unitAvailable = unitAvailabilityService.isUnitAvailable(unit.getId(), request.getCheckInDate(), request.getCheckOutDate());
+        boolean unitAvailable = bookingObservations.step(CREATE_BOOKING, "availability-check",
+                () -> unitAvailabilityService.isUnitAvailable(unit.getId(), request.getCheckInDate(), request.getCheckOutDate()));
 
         if (!unitAvailable) {
             log.warn("Booking conflict for unit {}: Dates {} to {} are not available",
@@ -75,19 +99,25 @@ public class BookingService {
                 .expiresAt(expiresAt)
                 .build();
 
-        Booking savedBooking = bookingRepository.save(booking);
-        unitAvailabilityService.addBookedDates(savedBooking);
-        unitEventService.logEvent(unit, savedBooking, UnitEventType.BOOKING_CREATED, "Booking created in PENDING state");
+        Booking savedBooking = bookingObservations.step(CREATE_BOOKING, "insert", () -> bookingRepository.save(booking));
+        bookingObservations.step(CREATE_BOOKING, "booked-dates", () -> unitAvailabilityService.addBookedDates(savedBooking));
+        bookingObservations.step(CREATE_BOOKING, "event-log", () -> unitEventService.logEvent(
+                unit, savedBooking, UnitEventType.BOOKING_CREATED, "Booking created in PENDING state"));
 
         log.info("Booking {} created for unit {}", savedBooking.getId(), unit.getId());
         return toDto(savedBooking);
     }
 
     @Transactional
+    @Workload(WorkloadType.BOOKING_WRITE)
     public BookingDto cancelBooking(Long bookingId) {
+        return bookingObservations.operation(CANCEL_BOOKING, () -> doCancelBooking(bookingId));
+    }
+
+    private BookingDto doCancelBooking(Long bookingId) {
         log.debug("Attempting to cancel booking: {}", bookingId);
 
-        Booking booking = findBookingById(bookingId);
+        Booking booking = bookingObservations.step(CANCEL_BOOKING, "booking-lookup", () -> findBookingById(bookingId));
         if (booking.getStatus() == BookingStatus.CANCELLED || booking.getStatus() == BookingStatus.EXPIRED) {
             log.info("Booking {} is already in terminal state {}", bookingId, booking.getStatus());
             return toDto(booking);
@@ -96,9 +126,10 @@ public class BookingService {
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setExpiresAt(null);
 
-        Booking savedBooking = bookingRepository.save(booking);
-        unitAvailabilityService.removeBookedDates(savedBooking);
-        unitEventService.logEvent(booking.getUnit(), savedBooking, UnitEventType.BOOKING_CANCELLED, "Booking cancelled by user");
+        Booking savedBooking = bookingObservations.step(CANCEL_BOOKING, "update", () -> bookingRepository.save(booking));
+        bookingObservations.step(CANCEL_BOOKING, "booked-dates", () -> unitAvailabilityService.removeBookedDates(savedBooking));
+        bookingObservations.step(CANCEL_BOOKING, "event-log", () -> unitEventService.logEvent(
+                booking.getUnit(), savedBooking, UnitEventType.BOOKING_CANCELLED, "Booking cancelled by user"));
 
         log.info("Booking {} cancelled successfully", savedBooking.getId());
         return toDto(savedBooking);
@@ -2,6 +2,8 @@ package org.example.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
 import org.example.booking.dto.PaymentDto;
 import org.example.booking.exception.BookingException;
 import org.example.booking.model.Booking;
@@ -10,6 +12,7 @@ import org.example.booking.model.Payment;
 import org.example.booking.model.PaymentStatus;
 import org.example.booking.model.UnitEventType;
 import org.example.booking.repository.PaymentRepository;
+import org.example.booking.service.support.BookingObservations;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -20,15 +23,23 @@ import java.time.Instant;
 @RequiredArgsConstructor
 public class PaymentService {
 
+    private static final String PROCESS_PAYMENT = "process-payment";
+
     private final PaymentRepository paymentRepository;
     private final BookingService bookingService;
     private final UnitEventService unitEventService;
+    private final BookingObservations bookingObservations;
 
     @Transactional
+    @Workload(WorkloadType.BOOKING_WRITE)
     public PaymentDto processPayment(Long bookingId) {
+        return bookingObservations.operation(PROCESS_PAYMENT, () -> doProcessPayment(bookingId));
+    }
+
+    private PaymentDto doProcessPayment(Long bookingId) {
         log.info("Attempting to process payment for booking: {}", bookingId);
 
-        Booking booking = bookingService.findBookingById(bookingId);
+        Booking booking = bookingObservations.step(PROCESS_PAYMENT, "booking-lookup", () -> bookingService.findBookingById(bookingId));
 
         if (booking.getStatus() != BookingStatus.PENDING) {
             log.warn("Payment failed: Booking {} is not in PENDING state (is {})", bookingId, booking.getStatus());
@@ -49,8 +60,9 @@ public class PaymentService {
                 .amount(booking.getTotalCost())
                 .build();
 
-        Payment savedPayment = paymentRepository.save(payment);
-        unitEventService.logEvent(booking.getUnit(), booking, UnitEventType.BOOKING_CONFIRMED, "Booking payment successful");
+        Payment savedPayment = bookingObservations.step(PROCESS_PAYMENT, "insert", () -> paymentRepository.save(payment));
+        bookingObservations.step(PROCESS_PAYMENT, "event-log", () -> unitEventService.logEvent(
+                booking.getUnit(), booking, UnitEventType.BOOKING_CONFIRMED, "Booking payment successful"));
 
         log.info("Payment successful for booking {}. Status set to CONFIRMED.", bookingId);
         return toDto(savedPayment);
@@ -1,84 +1,265 @@
 package org.example.booking.service;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.example.booking.config.AppConfig;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
+import org.example.booking.dto.AvailabilityCheckRequest;
+import org.example.booking.dto.AvailabilityCheckResponse;
+import org.example.booking.dto.AvailabilityMatrixRequest;
+import org.example.booking.dto.AvailabilityMatrixResponse;
 import org.example.booking.dto.AvailableUnitsResponse;
+import org.example.booking.dto.AvailableUnitsSeriesResponse;
 import org.example.booking.dto.BookingDateRangeDto;
+import org.example.booking.dto.BookingRangeChangeDto;
+import org.example.booking.dto.CalendarRangeDto;
+import org.example.booking.dto.DailyAvailableUnitsDto;
+import org.example.booking.dto.UnitCalendarResponse;
+import org.example.booking.dto.UnitStayDto;
 import org.example.booking.exception.InvalidRequestException;
 import org.example.booking.model.Booking;
+import org.example.booking.model.BookingStatus;
 import org.example.booking.repository.BookingRepository;
 import org.example.booking.repository.UnitRepository;
-import org.springframework.data.redis.core.Cursor;
+import org.example.booking.service.availability.AvailabilityAggregates;
+import org.example.booking.service.availability.AvailabilityAggregates.CoveringKey;
+import org.example.booking.service.availability.AvailabilityAggregates.Resolution;
+import org.example.booking.service.availability.AvailabilityCacheGenerations;
+import org.example.booking.service.availability.AvailabilityMatrix;
+import org.example.booking.service.availability.AvailabilitySnapshot;
+import org.example.booking.service.support.BookingObservations;
+import org.example.booking.service.support.RequestCoalescer;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.connection.RedisConnection;
 import org.springframework.data.redis.core.RedisCallback;
-import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.example.booking.service.availability.AvailabilityAggregates.coveringKeys;
+import static org.example.booking.service.availability.AvailabilityAggregates.executePipelined;
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.layoutKey;
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.UNIT_VERSIONS_KEY;
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.totalUnitsCountKey;
 
 @Slf4j
 @Service
 @AllArgsConstructor
+@EnableConfigurationProperties(AvailabilityCacheProperties.class)
 public class UnitAvailabilityService {
 
-    private static final String TOTAL_UNITS_COUNT_KEY = "booking-service:total-units-count";
-    private static final String BOOKED_UNITS_KEY_PREFIX = "booking-service:booked-unit-ids-by-date:";
+    public static final String PIPELINE_METRIC = "booking.availability.pipeline.commands";
+
+    /**
+     * Longest window an availability series can be requested for: a year, including a leap day.
+     */
+    public static final int MAX_SERIES_NIGHTS = 366;
 
-    private final AppConfig appConfig;
+    private static final String AVAILABILITY = "availability";
+    private static final String AVAILABLE_UNITS_COUNT = "available-units-count";
+    private static final String AVAILABLE_UNITS_SERIES = "available-units-series";
+    private static final String AVAILABILITY_CHECK = "availability-check";
+    private static final String UNIT_CALENDAR = "unit-calendar";
+    private static final String AVAILABILITY_MATRIX = "availability-matrix";
+
+    private final AvailabilityCacheProperties availabilityCacheProperties;
+    private final AvailabilityCacheGenerations availabilityCacheGenerations;
     private final UnitRepository unitRepository;
     private final BookingRepository bookingRepository;
     private final StringRedisTemplate stringRedisTemplate;
+    private final RequestCoalescer requestCoalescer;
+    private final MeterRegistry meterRegistry;
+    private final BookingObservations bookingObservations;
 
     public void incrementTotalUnitsCount() {
-        stringRedisTemplate.opsForValue().increment(TOTAL_UNITS_COUNT_KEY);
+        availabilityCacheGenerations.writeTargets()
+                .forEach(generation -> stringRedisTemplate.opsForValue().increment(totalUnitsCountKey(generation)));
     }
 
+    /**
+     * Adds the unit to every night of the booking, in the date sets and in the week and month aggregates,
+     * with one script call per night and write generation, and bumps the calendar version of the unit.
+     */
     public void addBookedDates(Booking booking) {
-        String unitIdStr = String.valueOf(booking.getUnit().getId());
-        List<String> dateKeys = getDateKeys(booking.getCheckInDate(), booking.getCheckOutDate());
-        stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
-            dateKeys.forEach(key -> connection.setCommands().sAdd(key.getBytes(), unitIdStr.getBytes()));
+        List<String> unitIds = List.of(String.valueOf(booking.getUnit().getId()));
+        List<Long> generations = availabilityCacheGenerations.writeTargets();
+        List<LocalDate> dates = booking.getCheckInDate().datesUntil(booking.getCheckOutDate()).toList();
+        Duration retention = availabilityCacheProperties.getPastDateRetention();
+        recordPipelineSize("add-booked-dates", generations.size() * dates.size() + 1);
+        bookingObservations.step(AVAILABILITY, "sadd-pipeline", () -> executePipelined(stringRedisTemplate, (RedisCallback<?>) connection -> {
+            generations.forEach(generation -> dates.forEach(date ->
+                    AvailabilityAggregates.add(connection, generation, date, unitIds, retention)));
+            incrementUnitVersions(connection, unitIds);
             return null;
-        });
+        }));
     }
 
     public void removeBookedDates(Booking booking) {
-        String unitIdStr = String.valueOf(booking.getUnit().getId());
-        List<String> dateKeys = getDateKeys(booking.getCheckInDate(), booking.getCheckOutDate());
-        stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
-            dateKeys.forEach(key -> connection.setCommands().sRem(key.getBytes(), unitIdStr.getBytes()));
+        List<String> unitIds = List.of(String.valueOf(booking.getUnit().getId()));
+        List<Long> generations = availabilityCacheGenerations.writeTargets();
+        List<LocalDate> dates = booking.getCheckInDate().datesUntil(booking.getCheckOutDate()).toList();
+        recordPipelineSize("remove-booked-dates", generations.size() * dates.size() + 1);
+        bookingObservations.step(AVAILABILITY, "srem-pipeline", () -> executePipelined(stringRedisTemplate, (RedisCallback<?>) connection -> {
+            generations.forEach(generation -> dates.forEach(date ->
+                    AvailabilityAggregates.remove(connection, generation, date, unitIds)));
+            incrementUnitVersions(connection, unitIds);
             return null;
-        });
+        }));
     }
 
+    /**
+     * Checks the covering keys of the stay in one pipeline: SISMEMBER on date sets and ZSCORE on the week and
+     * month aggregates, so a long stay costs about as much as a short one.
+     */
     public boolean isUnitAvailable(Long unitId, LocalDate checkInDate, LocalDate checkOutDate) {
-        String unitIdStr = String.valueOf(unitId);
-        List<String> dateKeys = getDateKeys(checkInDate, checkOutDate);
+        byte[] unitIdBytes = String.valueOf(unitId).getBytes();
+        List<CoveringKey> keys = coveringKeys(availabilityCacheGenerations.current(), checkInDate, checkOutDate);
+        recordPipelineSize("is-unit-available", keys.size());
 
-        List<Object> results = stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
-            dateKeys.forEach(key -> connection.setCommands().sIsMember(key.getBytes(), unitIdStr.getBytes()));
-            return null;
-        });
-        boolean isUnavailable = results.stream().anyMatch(result -> (result instanceof Boolean && (Boolean) result));
+        List<Object> results = bookingObservations.step(AVAILABILITY, "sismember-pipeline",
+                () -> stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
+                    for (CoveringKey key : keys) {
+                        if (key.resolution() == Resolution.DAY) {
+                            connection.setCommands().sIsMember(key.key().getBytes(), unitIdBytes);
+                        } else {
+                            connection.zSetCommands().zScore(key.key().getBytes(), unitIdBytes);
+                        }
+                    }
+                    return null;
+                }));
+        boolean isUnavailable = results.stream()
+                .anyMatch(result -> (result instanceof Boolean && (Boolean) result) || result instanceof Double);
         return !isUnavailable;
     }
 
+    /**
+     * Checks many units at once. Stays are grouped by date range, and each covering key of a range is
+     * queried for all units of its group with a single SMISMEMBER or ZMSCORE, so one pipeline of a few
+     * commands answers hundreds of units. Unit IDs are not checked against the database.
+     *
+     * @return whether each unit or stay is available, in request order
+     */
+    public AvailabilityCheckResponse checkAvailability(AvailabilityCheckRequest request) {
+        List<UnitStayDto> stays = toStays(request);
+        stays.forEach(stay -> validateSearchCriteria(stay.getCheckInDate(), stay.getCheckOutDate()));
+        boolean[] booked = bookingObservations.operation(AVAILABILITY_CHECK, () -> findBookedStays(stays));
+
+        List<Boolean> available = new ArrayList<>(stays.size());
+        int availableCount = 0;
+        for (boolean isBooked : booked) {
+            available.add(!isBooked);
+            availableCount += isBooked ? 0 : 1;
+        }
+        return new AvailabilityCheckResponse(available, availableCount);
+    }
+
+    private static List<UnitStayDto> toStays(AvailabilityCheckRequest request) {
+        boolean hasUnitIds = request.getUnitIds() != null && !request.getUnitIds().isEmpty();
+        boolean hasStays = request.getStays() != null && !request.getStays().isEmpty();
+        if (hasUnitIds == hasStays) {
+            throw new InvalidRequestException("Either unitIds or stays must be given");
+        }
+        if (hasStays) {
+            return request.getStays();
+        }
+        if (request.getCheckInDate() == null || request.getCheckOutDate() == null) {
+            throw new InvalidRequestException("checkInDate and checkOutDate are required with unitIds");
+        }
+        return request.getUnitIds().stream()
+                .map(unitId -> new UnitStayDto(unitId, request.getCheckInDate(), request.getCheckOutDate()))
+                .toList();
+    }
+
+    private boolean[] findBookedStays(List<UnitStayDto> stays) {
+        long generation = availabilityCacheGenerations.current();
+        Map<StayRange, List<Integer>> stayIndexesByRange = new LinkedHashMap<>();
+        for (int i = 0; i < stays.size(); i++) {
+            UnitStayDto stay = stays.get(i);
+            stayIndexesByRange.computeIfAbsent(new StayRange(stay.getCheckInDate(), stay.getCheckOutDate()),
+                    range -> new ArrayList<>()).add(i);
+        }
+
+        List<CoveringKey> keys = new ArrayList<>();
+        List<List<Integer>> stayIndexesPerKey = new ArrayList<>();
+        stayIndexesByRange.forEach((range, stayIndexes) -> {
+            for (CoveringKey key : coveringKeys(generation, range.checkInDate(), range.checkOutDate())) {
+                keys.add(key);
+                stayIndexesPerKey.add(stayIndexes);
+            }
+        });
+        recordPipelineSize(AVAILABILITY_CHECK, keys.size());
+
+        List<Object> results = bookingObservations.step(AVAILABILITY_CHECK, "smismember-pipeline",
+                () -> stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
+                    for (int k = 0; k < keys.size(); k++) {
+                        byte[][] unitIds = stayIndexesPerKey.get(k).stream()
+                                .map(i -> String.valueOf(stays.get(i).getUnitId()).getBytes())
+                                .toArray(byte[][]::new);
+                        if (keys.get(k).resolution() == Resolution.DAY) {
+                            connection.setCommands().sMIsMember(keys.get(k).key().getBytes(), unitIds);
+                        } else {
+                            connection.zSetCommands().zMScore(keys.get(k).key().getBytes(), unitIds);
+                        }
+                    }
+                    return null;
+                }));
+
+        boolean[] booked = new boolean[stays.size()];
+        for (int k = 0; k < keys.size(); k++) {
+            if (results.get(k) instanceof List<?> memberships) {
+                List<Integer> stayIndexes = stayIndexesPerKey.get(k);
+                for (int j = 0; j < memberships.size(); j++) {
+                    Object membership = memberships.get(j);
+                    if (Boolean.TRUE.equals(membership) || membership instanceof Double) {
+                        booked[stayIndexes.get(j)] = true;
+                    }
+                }
+            }
+        }
+        return booked;
+    }
+
     public AvailableUnitsResponse getAvailableUnitsCount(LocalDate checkInDate, LocalDate checkOutDate) {
         validateSearchCriteria(checkInDate, checkOutDate);
+        return bookingObservations.operation(AVAILABLE_UNITS_COUNT, () -> requestCoalescer.execute(
+                AVAILABLE_UNITS_COUNT, checkInDate + ".." + checkOutDate, () -> countAvailableUnits(checkInDate, checkOutDate)));
+    }
 
-        String allUnitsCountStr = stringRedisTemplate.opsForValue().get(TOTAL_UNITS_COUNT_KEY);
+    private AvailableUnitsResponse countAvailableUnits(LocalDate checkInDate, LocalDate checkOutDate) {
+        long generation = availabilityCacheGenerations.current();
+        String allUnitsCountStr = stringRedisTemplate.opsForValue().get(totalUnitsCountKey(generation));
         if (allUnitsCountStr == null) {
             return new AvailableUnitsResponse(0);
         }
 
         int allUnitsCount = Integer.parseInt(allUnitsCountStr);
-        List<String> dateKeys = getDateKeys(checkInDate, checkOutDate);
-        Set<String> unavailableUnitIds = stringRedisTemplate.opsForSet().union(dateKeys);
+        if (checkOutDate.equals(checkInDate.plusDays(1))) {
+            Long bookedUnitsCount = bookingObservations.step(AVAILABLE_UNITS_COUNT, "scard",
+                    () -> stringRedisTemplate.opsForSet().size(Resolution.DAY.key(generation, checkInDate)));
+            return new AvailableUnitsResponse(allUnitsCount - (bookedUnitsCount == null ? 0 : bookedUnitsCount.intValue()));
+        }
+        Set<String> unavailableUnitIds = unionOfBookedUnits(coveringKeys(generation, checkInDate, checkOutDate));
         if (unavailableUnitIds == null || unavailableUnitIds.isEmpty()) {
             return new AvailableUnitsResponse(allUnitsCount);
         }
@@ -86,52 +267,329 @@ public class UnitAvailabilityService {
         return new AvailableUnitsResponse(allUnitsCount - unavailableUnitIds.size());
     }
 
-    @Transactional(readOnly = true)
-    public void initializeUnitAvailabilityCache() {
-        if (stringRedisTemplate.hasKey(TOTAL_UNITS_COUNT_KEY) && !appConfig.isRefreshCacheOnStartup()) {
-            log.info("Unit availability cache is already initialized.");
-            return;
+    /**
+     * Available units for every night of {@code [fromDate, toDate)}, read as the total units count and one
+     * SCARD per date in a single pipeline. Redis keeps the size of each date set up to date as units are added
+     * and removed, so every night costs O(1) however many units are booked.
+     */
+    public AvailableUnitsSeriesResponse getAvailableUnitsSeries(LocalDate fromDate, LocalDate toDate) {
+        validateWindow(fromDate, toDate);
+        return bookingObservations.operation(AVAILABLE_UNITS_SERIES, () -> requestCoalescer.execute(
+                AVAILABLE_UNITS_SERIES, fromDate + ".." + toDate, () -> availableUnitsSeries(fromDate, toDate)));
+    }
+
+    private AvailableUnitsSeriesResponse availableUnitsSeries(LocalDate fromDate, LocalDate toDate) {
+        long generation = availabilityCacheGenerations.current();
+        List<LocalDate> dates = fromDate.datesUntil(toDate).toList();
+        recordPipelineSize(AVAILABLE_UNITS_SERIES, dates.size() + 1);
+        List<Object> results = bookingObservations.step(AVAILABLE_UNITS_SERIES, "scard-pipeline",
+                () -> stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
+                    connection.stringCommands().get(totalUnitsCountKey(generation).getBytes());
+                    dates.forEach(date -> connection.setCommands().sCard(Resolution.DAY.key(generation, date).getBytes()));
+                    return null;
+                }));
+
+        int allUnitsCount = results.getFirst() instanceof String count ? Integer.parseInt(count) : 0;
+        List<DailyAvailableUnitsDto> nights = new ArrayList<>(dates.size());
+        for (int i = 0; i < dates.size(); i++) {
+            long bookedUnitsCount = results.get(i + 1) instanceof Long count ? count : 0;
+            nights.add(new DailyAvailableUnitsDto(dates.get(i), (int) Math.max(0, allUnitsCount - bookedUnitsCount)));
         }
+        return new AvailableUnitsSeriesResponse(allUnitsCount, nights);
+    }
 
-        log.info("Starting unit availability cache initialization...");
+    /**
+     * Version of the calendar of a unit, made of the generation that serves reads and the change counter of
+     * the unit, so it changes whenever a night of the unit is booked or released or the cache is rebuilt.
+     */
+    public String getUnitCalendarVersion(Long unitId) {
+        long generation = availabilityCacheGenerations.current();
+        Object unitVersion = bookingObservations.step(UNIT_CALENDAR, "hget",
+                () -> stringRedisTemplate.opsForHash().get(UNIT_VERSIONS_KEY, String.valueOf(unitId)));
+        return generation + "." + (unitVersion == null ? "0" : unitVersion);
+    }
+
+    /**
+     * Availability of a unit for every night of {@code [from, to)}, read with one SISMEMBER per date in a single
+     * pipeline and folded into ranges of consecutive nights with the same availability. Unit IDs are not
+     * checked against the database.
+     */
+    public UnitCalendarResponse getUnitCalendar(Long unitId, LocalDate from, LocalDate to) {
+        validateWindow(from, to);
+        return bookingObservations.operation(UNIT_CALENDAR, () -> unitCalendar(unitId, from, to));
+    }
 
-        stringRedisTemplate.delete(TOTAL_UNITS_COUNT_KEY);
-        deleteExistingBookedUnits();
-        log.info("Cleared old cache keys.");
+    private UnitCalendarResponse unitCalendar(Long unitId, LocalDate from, LocalDate to) {
+        long generation = availabilityCacheGenerations.current();
+        byte[] unitIdBytes = String.valueOf(unitId).getBytes();
+        List<LocalDate> dates = from.datesUntil(to).toList();
+        recordPipelineSize(UNIT_CALENDAR, dates.size());
+        List<Object> results = bookingObservations.step(UNIT_CALENDAR, "sismember-pipeline",
+                () -> stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
+                    dates.forEach(date -> connection.setCommands().sIsMember(Resolution.DAY.key(generation, date).getBytes(), unitIdBytes));
+                    return null;
+                }));
 
-        List<BookingDateRangeDto> bookings = bookingRepository.findActiveBookingRanges();
-        stringRedisTemplate.executePipelined((RedisCallback<?>) (connection) -> {
-            for (BookingDateRangeDto booking : bookings) {
-                String value = String.valueOf(booking.getUnitId());
-                List<String> dateKeys = getDateKeys(booking.getCheckInDate(), booking.getCheckOutDate());
-                dateKeys.forEach(key -> connection.setCommands().sAdd(key.getBytes(), value.getBytes()));
+        List<CalendarRangeDto> ranges = new ArrayList<>();
+        for (int i = 0; i < dates.size(); i++) {
+            boolean available = !Boolean.TRUE.equals(results.get(i));
+            CalendarRangeDto last = ranges.isEmpty() ? null : ranges.getLast();
+            if (last != null && last.isAvailable() == available) {
+                last.setTo(dates.get(i).plusDays(1));
+            } else {
+                ranges.add(new CalendarRangeDto(dates.get(i), dates.get(i).plusDays(1), available));
             }
-            return null;
-        });
+        }
+        return new UnitCalendarResponse(unitId, from, to, ranges);
+    }
+
+    /**
+     * Availability of many units over a date window as packed bit rows. Every night is read for all units with
+     * one SMISMEMBER in a single pipeline, and the resulting columns are transposed into one row per unit,
+     * see {@link AvailabilityMatrix}. Unit IDs are not checked against the database.
+     */
+    public AvailabilityMatrixResponse getAvailabilityMatrix(AvailabilityMatrixRequest request) {
+        validateWindow(request.getFromDate(), request.getToDate());
+        return bookingObservations.operation(AVAILABILITY_MATRIX, () -> availabilityMatrix(request));
+    }
+
+    private AvailabilityMatrixResponse availabilityMatrix(AvailabilityMatrixRequest request) {
+        long generation = availabilityCacheGenerations.current();
+        List<LocalDate> dates = request.getFromDate().datesUntil(request.getToDate()).toList();
+        byte[][] unitIds = request.getUnitIds().stream()
+                .map(unitId -> String.valueOf(unitId).getBytes())
+                .toArray(byte[][]::new);
+        recordPipelineSize(AVAILABILITY_MATRIX, dates.size());
+        List<Object> columns = bookingObservations.step(AVAILABILITY_MATRIX, "smismember-pipeline",
+                () -> stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
+                    dates.forEach(date -> connection.setCommands().sMIsMember(Resolution.DAY.key(generation, date).getBytes(), unitIds));
+                    return null;
+                }));
+
+        byte[] rows = AvailabilityMatrix.transpose(columns, unitIds.length);
+        if (request.isCompressed()) {
+            rows = AvailabilityMatrix.gzip(rows);
+        }
+        return new AvailabilityMatrixResponse(request.getUnitIds(), request.getFromDate(), request.getToDate(),
+                AvailabilityMatrix.rowBytes(dates.size()),
+                request.isCompressed() ? AvailabilityMatrix.GZIP : AvailabilityMatrix.IDENTITY,
+                Base64.getEncoder().encodeToString(rows));
+    }
+
+    /**
+     * Units booked on any night of the covering keys. Ranges short enough to need date sets only are answered
+     * with SUNION; otherwise ZUNION reads the aggregates and the date sets together, scoring set members as 1.
+     */
+    private Set<String> unionOfBookedUnits(List<CoveringKey> keys) {
+        List<String> names = keys.stream().map(CoveringKey::key).toList();
+        if (keys.stream().allMatch(key -> key.resolution() == Resolution.DAY)) {
+            return bookingObservations.step(AVAILABLE_UNITS_COUNT, "sunion",
+                    () -> stringRedisTemplate.opsForSet().union(names));
+        }
+        return bookingObservations.step(AVAILABLE_UNITS_COUNT, "zunion",
+                () -> stringRedisTemplate.opsForZSet().union(names.getFirst(), names.subList(1, names.size())));
+    }
+
+    /**
+     * A generation counts as initialized once it has been loaded completely with the current key layout.
+     */
+    public boolean isInitialized() {
+        long generation = availabilityCacheGenerations.current();
+        List<String> values = stringRedisTemplate.opsForValue().multiGet(
+                List.of(totalUnitsCountKey(generation), layoutKey(generation)));
+        return values != null && values.get(0) != null && AvailabilityAggregates.LAYOUT_VERSION.equals(values.get(1));
+    }
+
+    /**
+     * Fills {@code generation} from PostgreSQL. Active bookings are streamed through a database cursor and
+     * written in chunks; the generation is expected to be empty and is not visible to readers yet.
+     *
+     * @return the number of bookings loaded
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BACKGROUND)
+    public long loadGeneration(long generation) {
+        long startNanos = System.nanoTime();
+        long processedBookings = 0;
+        int chunkSize = Math.max(1, availabilityCacheProperties.getRebuildChunkSize());
+        List<BookingDateRangeDto> chunk = new ArrayList<>(chunkSize);
 
         long allUnitIds = unitRepository.count();
-        stringRedisTemplate.opsForValue().set(TOTAL_UNITS_COUNT_KEY, String.valueOf(allUnitIds));
+        stringRedisTemplate.opsForValue().set(totalUnitsCountKey(generation), String.valueOf(allUnitIds));
 
-        log.info("Unit availability cache initialization completed. Processed {} active bookings.", bookings.size());
+        try (Stream<BookingDateRangeDto> bookings = bookingRepository.streamActiveBookingRanges()) {
+            Iterator<BookingDateRangeDto> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == chunkSize) {
+                    processedBookings += writeRebuildChunk(generation, chunk);
+                    log.debug("Unit availability cache rebuild progress: {} bookings", processedBookings);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                processedBookings += writeRebuildChunk(generation, chunk);
+            }
+        }
+        stringRedisTemplate.opsForValue().set(layoutKey(generation), AvailabilityAggregates.LAYOUT_VERSION);
+
+        Timer.builder("booking.availability.rebuild.duration")
+                .description("Duration of full unit availability cache rebuilds")
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        return processedBookings;
     }
 
-    private void deleteExistingBookedUnits() {
-        Set<String> keysToDelete = new HashSet<>();
-        try (Cursor<String> cursor = stringRedisTemplate.scan(
-                ScanOptions.scanOptions().match(BOOKED_UNITS_KEY_PREFIX + "*").count(1000).build())) {
-            while (cursor.hasNext()) {
-                keysToDelete.add(cursor.next());
+    /**
+     * Fills {@code generation} from a snapshot, then replays the bookings changed since its watermark:
+     * released dates first, so that a date cancelled and rebooked after the snapshot ends up booked.
+     *
+     * @return the number of bookings replayed from the database
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BACKGROUND)
+    public long loadGenerationFromSnapshot(long generation, AvailabilitySnapshot snapshot, Duration replayMargin) {
+        long startNanos = System.nanoTime();
+        int chunkSize = Math.max(1, availabilityCacheProperties.getRebuildChunkSize());
+
+        long allUnitIds = unitRepository.count();
+        stringRedisTemplate.opsForValue().set(totalUnitsCountKey(generation), String.valueOf(allUnitIds));
+
+        Map<LocalDate, Set<String>> unitIdsByDate = new HashMap<>();
+        int[] pendingMembers = {0};
+        snapshot.forEachDate((date, unitIds) -> {
+            Set<String> members = unitIdsByDate.computeIfAbsent(date, key -> new HashSet<>());
+            unitIds.forEach(unitId -> members.add(String.valueOf(unitId)));
+            pendingMembers[0] += unitIds.size();
+            if (pendingMembers[0] >= chunkSize) {
+                writeBookedUnits(generation, unitIdsByDate);
+                unitIdsByDate.clear();
+                pendingMembers[0] = 0;
             }
+        });
+        if (!unitIdsByDate.isEmpty()) {
+            writeBookedUnits(generation, unitIdsByDate);
         }
-        if (!keysToDelete.isEmpty()) {
-            stringRedisTemplate.unlink(keysToDelete);
+
+        List<BookingRangeChangeDto> changes =
+                bookingRepository.findBookingRangesChangedSince(snapshot.watermark().minus(replayMargin));
+        replayChanges(generation, changes);
+        stringRedisTemplate.opsForValue().set(layoutKey(generation), AvailabilityAggregates.LAYOUT_VERSION);
+
+        Timer.builder("booking.availability.rebuild.duration")
+                .description("Duration of full unit availability cache rebuilds")
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter("booking.availability.snapshot.replayed").increment(changes.size());
+        return changes.size();
+    }
+
+    /**
+     * Replays the bookings changed since {@code since} into {@code generation} before it is promoted. A booking
+     * cancelled or expired while the load was running may have been released before its dates were loaded,
+     * in which case the dual-written SREM found nothing and the load then added the stale row.
+     *
+     * @return the number of changed bookings replayed
+     */
+    @Transactional(readOnly = true)
+    @Workload(WorkloadType.BACKGROUND)
+    public long replayBookingChangesSince(long generation, Instant since) {
+        List<BookingRangeChangeDto> changes = bookingRepository.findBookingRangesChangedSince(since);
+        replayChanges(generation, changes);
+        return changes.size();
+    }
+
+    /**
+     * Released dates first, so that a date cancelled and rebooked in the meantime ends up booked.
+     */
+    private void replayChanges(long generation, List<BookingRangeChangeDto> changes) {
+        if (changes.isEmpty()) {
+            return;
         }
+        Duration retention = availabilityCacheProperties.getPastDateRetention();
+        executePipelined(stringRedisTemplate, (RedisCallback<?>) connection -> {
+            changes.stream()
+                    .filter(change -> !BookingStatus.BOOKED_STATUSES.contains(change.getStatus()))
+                    .forEach(change -> change.getCheckInDate().datesUntil(change.getCheckOutDate()).forEach(date ->
+                            AvailabilityAggregates.remove(connection, generation, date, List.of(String.valueOf(change.getUnitId())))));
+            changes.stream()
+                    .filter(change -> BookingStatus.BOOKED_STATUSES.contains(change.getStatus()))
+                    .forEach(change -> change.getCheckInDate().datesUntil(change.getCheckOutDate()).forEach(date ->
+                            AvailabilityAggregates.add(connection, generation, date, List.of(String.valueOf(change.getUnitId())), retention)));
+            return null;
+        });
     }
 
-    private List<String> getDateKeys(LocalDate checkInDate, LocalDate checkOutDate) {
-        return checkInDate.datesUntil(checkOutDate)
-                .map(date -> BOOKED_UNITS_KEY_PREFIX + date)
-                .toList();
+    private int writeRebuildChunk(long generation, List<BookingDateRangeDto> chunk) {
+        Map<LocalDate, Set<String>> unitIdsByDate = new HashMap<>();
+        for (BookingDateRangeDto booking : chunk) {
+            String unitId = String.valueOf(booking.getUnitId());
+            booking.getCheckInDate().datesUntil(booking.getCheckOutDate())
+                    .forEach(date -> unitIdsByDate.computeIfAbsent(date, d -> new HashSet<>()).add(unitId));
+        }
+        writeBookedUnits(generation, unitIdsByDate);
+
+        int size = chunk.size();
+        chunk.clear();
+        meterRegistry.counter("booking.availability.rebuild.bookings").increment(size);
+        return size;
+    }
+
+    /**
+     * Writes one chunk as a single pipeline with one multi-member script call per date, so the pipeline
+     * size is bounded by the distinct nights in the chunk rather than by the total number of nights.
+     */
+    private void writeBookedUnits(long generation, Map<LocalDate, Set<String>> unitIdsByDate) {
+        Duration retention = availabilityCacheProperties.getPastDateRetention();
+        executePipelined(stringRedisTemplate, (RedisCallback<?>) connection -> {
+            unitIdsByDate.forEach((date, unitIds) -> AvailabilityAggregates.add(connection, generation, date, unitIds, retention));
+            return null;
+        });
+
+        meterRegistry.counter("booking.availability.rebuild.chunks").increment();
+        meterRegistry.summary("booking.availability.rebuild.pipeline.commands").record(unitIdsByDate.size());
+    }
+
+    /**
+     * Removes a unit from the given dates of {@code generation} unless PostgreSQL still has an active booking
+     * for them. Runs under the unit row lock, which createBooking holds until its booking is committed, so a
+     * booking that is being created concurrently is never removed.
+     *
+     * @return the dates that were removed
+     */
+    @Transactional
+    @Workload(WorkloadType.BACKGROUND)
+    public Set<LocalDate> removeStaleBookedDates(long generation, Long unitId, Set<LocalDate> dates) {
+        unitRepository.findByIdWithLock(unitId);
+
+        Set<LocalDate> staleDates = new HashSet<>(dates);
+        bookingRepository.findActiveBookingRangesOfUnitBetween(unitId, Collections.min(dates), Collections.max(dates).plusDays(1))
+                .forEach(booking -> booking.getCheckInDate().datesUntil(booking.getCheckOutDate()).forEach(staleDates::remove));
+        if (staleDates.isEmpty()) {
+            return staleDates;
+        }
+
+        List<String> unitIds = List.of(String.valueOf(unitId));
+        executePipelined(stringRedisTemplate, (RedisCallback<?>) connection -> {
+            staleDates.forEach(date -> AvailabilityAggregates.remove(connection, generation, date, unitIds));
+            incrementUnitVersions(connection, unitIds);
+            return null;
+        });
+        return staleDates;
+    }
+
+    /**
+     * Queues bumping the calendar version of each unit, see {@link #getUnitCalendarVersion}.
+     */
+    public static void incrementUnitVersions(RedisConnection connection, Collection<String> unitIds) {
+        unitIds.forEach(unitId -> connection.hashCommands().hIncrBy(UNIT_VERSIONS_KEY.getBytes(), unitId.getBytes(), 1));
+    }
+
+    private void recordPipelineSize(String operation, int commands) {
+        DistributionSummary.builder(PIPELINE_METRIC)
+                .description("Commands per Redis pipeline of the per-request availability operations")
+                .tag("operation", operation)
+                .register(meterRegistry)
+                .record(commands);
     }
 
     private void validateSearchCriteria(LocalDate checkInDate, LocalDate checkOutDate) {
@@ -140,4 +598,19 @@ public class UnitAvailabilityService {
             throw new InvalidRequestException("checkOutDate must be after checkInDate");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * @throws InvalidRequestException if the window is empty or longer than {@value #MAX_SERIES_NIGHTS} nights
+     */
+    public static void validateWindow(LocalDate fromDate, LocalDate toDate) {
+        if (!toDate.isAfter(fromDate)) {
+            throw new InvalidRequestException("The window must end after its first night");
+        }
+        if (fromDate.plusDays(MAX_SERIES_NIGHTS).isBefore(toDate)) {
+            throw new InvalidRequestException("The window must not exceed " + MAX_SERIES_NIGHTS + " nights");
+        }
+    }
+
+    private record StayRange(LocalDate checkInDate, LocalDate checkOutDate) {
+    }
+}
@@ -2,6 +2,9 @@ package org.example.booking.service;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.booking.config.datasource.ReadYourWritesTracker;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
 import org.example.booking.dto.UnitCreateRequest;
 import org.example.booking.dto.UnitDto;
 import org.example.booking.dto.UnitSearchRequest;
@@ -11,11 +14,18 @@ import org.example.booking.model.Unit;
 import org.example.booking.model.UnitEventType;
 import org.example.booking.repository.UnitRepository;
 import org.example.booking.repository.UnitSpecification;
+import org.example.booking.service.support.BookingObservations;
+import org.example.booking.service.support.ClientContext;
+import org.example.booking.service.support.RequestCoalescer;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.function.Supplier;
+
 @Slf4j
 @Service
 @AllArgsConstructor
@@ -26,6 +36,9 @@ public class UnitService {
     private final MarkupService markupService;
     private final UnitEventService unitEventService;
     private final UnitAvailabilityService unitAvailabilityService;
+    private final RequestCoalescer requestCoalescer;
+    private final BookingObservations bookingObservations;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
 
     @Transactional
     public UnitDto createUnit(UnitCreateRequest createRequest) {
@@ -46,18 +59,38 @@ public class UnitService {
     }
 
     @Transactional(readOnly = true)
+    @Workload(WorkloadType.SEARCH_READ)
     public UnitDto getUnitById(Long id) {
         return unitRepository.findById(id)
                 .map(this::toDto)
                 .orElseThrow(() -> new ResourceNotFoundException("Unit not found with id: " + id));
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Not transactional on purpose: identical concurrent searches are coalesced, and only the leader
+     * should hold a connection. The query itself runs in the repository's read-only transaction.
+     * <p>
+     * A client that wrote recently reads from the primary, so it must neither share a replica read of
+     * another client nor a primary read that may have started before its own write committed.
+     */
+    @Workload(WorkloadType.SEARCH_READ)
     public Slice<UnitDto> findAvailableUnits(UnitSearchRequest criteria, Pageable pageable) {
         log.debug("Searching for units with criteria: {} and pageable: {}", criteria, pageable);
         validateSearchCriteria(criteria);
-        var spec = unitSpecification.findByCriteria(criteria);
-        return unitRepository.findAllSliced(spec, pageable).map(this::toDto);
+        Supplier<Slice<UnitDto>> search = () -> {
+            var spec = unitSpecification.findByCriteria(criteria);
+            return unitRepository.findAllSliced(spec, pageable).map(this::toDto);
+        };
+        if (isStickyClient()) {
+            return bookingObservations.operation("unit-search", search);
+        }
+        return bookingObservations.operation("unit-search", () ->
+                requestCoalescer.execute("unit-search", searchKey(criteria, pageable), search));
+    }
+
+    private boolean isStickyClient() {
+        ReadYourWritesTracker tracker = readYourWritesTracker.getIfAvailable();
+        return tracker != null && tracker.isSticky(ClientContext.getClientId());
     }
 
     private void validateSearchCriteria(UnitSearchRequest criteria) {
@@ -73,7 +106,25 @@ public class UnitService {
         }
     }
 
-    private UnitDto toDto(Unit unit) {
+    private String searchKey(UnitSearchRequest criteria, Pageable pageable) {
+        return String.join("|",
+                String.valueOf(criteria.getNumberOfRooms()),
+                String.valueOf(criteria.getAccommodationType()),
+                String.valueOf(criteria.getFloor()),
+                normalize(criteria.getMinCost()),
+                normalize(criteria.getMaxCost()),
+                String.valueOf(criteria.getCheckInDate()),
+                String.valueOf(criteria.getCheckOutDate()),
+                String.valueOf(pageable.getPageNumber()),
+                String.valueOf(pageable.getPageSize()),
+                pageable.getSort().toString());
+    }
+
+    private String normalize(BigDecimal value) {
+        return value == null ? "null" : value.stripTrailingZeros().toPlainString();
+    }
+
+    UnitDto toDto(Unit unit) {
         return new UnitDto(
                 unit.getId(),
                 unit.getNumberOfRooms(),
@@ -0,0 +1,45 @@
+package org.example.booking.service.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.admission")
+public class AdmissionControlProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Concurrency limit the limiter starts from, before it has observed any latency.
+     */
+    private int initialLimit = 20;
+    private int minLimit = 2;
+    private int maxLimit = 200;
+
+    /**
+     * Requests slower than this count as congestion and shrink the limit.
+     */
+    private Duration latencyThreshold = Duration.ofMillis(500);
+
+    /**
+     * Factor the limit is multiplied by on congestion.
+     */
+    private double backoffRatio = 0.9;
+
+    /**
+     * Retry-After advertised when the concurrency limit is reached.
+     */
+    private Duration concurrencyRetryAfter = Duration.ofSeconds(1);
+
+    /**
+     * Burst size of the per-user token bucket.
+     */
+    private int bucketCapacity = 20;
+
+    /**
+     * Tokens added to a user's bucket per second.
+     */
+    private double bucketRefillPerSecond = 5;
+}
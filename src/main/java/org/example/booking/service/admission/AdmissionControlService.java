@@ -0,0 +1,139 @@
+package org.example.booking.service.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.exception.TooManyRequestsException;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+
+/**
+ * Admission control for booking writes. A request is admitted only if the adaptive concurrency limit is not
+ * reached and the user still has tokens in its bucket; otherwise it is shed before it writes to the database.
+ * The concurrency limit is checked first, so requests shed for overload do not use up the user's tokens.
+ * <p>
+ * The bucket is keyed by the user the write acts for, not by the X-Client-Id header or the remote address:
+ * the header can be rotated at will, and behind a load balancer the address is the same for everyone.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(AdmissionControlProperties.class)
+public class AdmissionControlService {
+
+    private static final String METRIC_PREFIX = "booking.admission.";
+
+    private final AdmissionControlProperties properties;
+    private final AimdConcurrencyLimiter limiter;
+    private final RedisTokenBucket tokenBucket;
+    private final Counter admitted;
+    private final Counter shedByRate;
+    private final Counter shedByConcurrency;
+
+    public AdmissionControlService(AdmissionControlProperties properties,
+                                   StringRedisTemplate stringRedisTemplate,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limiter = new AimdConcurrencyLimiter(
+                properties.getInitialLimit(),
+                properties.getMinLimit(),
+                properties.getMaxLimit(),
+                properties.getLatencyThreshold().toNanos(),
+                properties.getBackoffRatio());
+        this.tokenBucket = new RedisTokenBucket(
+                stringRedisTemplate, properties.getBucketCapacity(), properties.getBucketRefillPerSecond());
+
+        Gauge.builder(METRIC_PREFIX + "limit", limiter, AimdConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for booking writes")
+                .register(meterRegistry);
+        Gauge.builder(METRIC_PREFIX + "in-flight", limiter, AimdConcurrencyLimiter::getInFlight)
+                .description("Booking writes currently admitted")
+                .register(meterRegistry);
+        this.admitted = Counter.builder(METRIC_PREFIX + "admitted").register(meterRegistry);
+        this.shedByRate = Counter.builder(METRIC_PREFIX + "shed").tag("reason", "rate").register(meterRegistry);
+        this.shedByConcurrency = Counter.builder(METRIC_PREFIX + "shed").tag("reason", "concurrency").register(meterRegistry);
+    }
+
+    /**
+     * Applies the concurrency limit. The user is not known yet at this point; see {@link #checkRate(Long)}.
+     *
+     * @return a permit that must be released once the request completes
+     * @throws TooManyRequestsException if the request is shed
+     */
+    public Permit acquire() {
+        if (!properties.isEnabled()) {
+            return Permit.NOOP;
+        }
+
+        if (!limiter.tryAcquire()) {
+            shedByConcurrency.increment();
+            log.debug("Shedding write: concurrency limit {} reached", limiter.getLimit());
+            throw new TooManyRequestsException("Service is overloaded, retry later.", properties.getConcurrencyRetryAfter());
+        }
+
+        long start = System.nanoTime();
+        return new Permit() {
+            @Override
+            public void release(boolean failed) {
+                limiter.release(System.nanoTime() - start, failed);
+            }
+
+            @Override
+            public void cancel() {
+                limiter.cancel();
+            }
+        };
+    }
+
+    /**
+     * Takes a token from the bucket of the user a write acts for, once the request holds a {@link Permit}.
+     *
+     * @throws TooManyRequestsException if the user has no tokens left
+     */
+    public void checkRate(Long userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        Duration retryAfter = takeToken(userId);
+        if (retryAfter != null) {
+            shedByRate.increment();
+            log.debug("Shedding write of user {}: rate limit exceeded", userId);
+            throw new TooManyRequestsException("Too many requests, retry later.", retryAfter);
+        }
+        admitted.increment();
+    }
+
+    private Duration takeToken(Long userId) {
+        try {
+            return tokenBucket.tryTake(userId);
+        } catch (Exception e) {
+            // Fail open: the rate limit is a protection, not a reason to reject bookings while Redis hiccups.
+            log.warn("Token bucket unavailable, admitting request: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public interface Permit {
+
+        Permit NOOP = new Permit() {
+            @Override
+            public void release(boolean failed) {
+            }
+
+            @Override
+            public void cancel() {
+            }
+        };
+
+        void release(boolean failed);
+
+        /**
+         * Returns the permit without a latency sample, for requests shed by the rate limit.
+         */
+        void cancel();
+    }
+}
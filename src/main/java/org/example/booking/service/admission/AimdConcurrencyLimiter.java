@@ -0,0 +1,88 @@
+package org.example.booking.service.admission;
+
+/**
+ * Additive-increase/multiplicative-decrease concurrency limit driven by observed latency.
+ * <p>
+ * The limit is adjusted once per window of completions, as many as the limit. It grows by one after a
+ * window of fast requests that used at least half of it at some point, and shrinks by {@code backoffRatio}
+ * on the first slow or failed request. The requests in flight at that moment were admitted under the old
+ * limit, so their completions form the next window and do not back off again: when the database slows
+ * down and everything in flight finishes slow together, the limit shrinks step by step instead of falling
+ * to the minimum at once. It settles just below the concurrency at which the database starts queueing.
+ */
+public class AimdConcurrencyLimiter {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long latencyThresholdNanos;
+    private final double backoffRatio;
+
+    private double limit;
+    private int inFlight;
+    private int windowRemaining;
+    private boolean windowBackedOff;
+    private boolean windowSaturated;
+
+    public AimdConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                  long latencyThresholdNanos, double backoffRatio) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.backoffRatio = backoffRatio;
+        this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+        startWindow((int) limit, false);
+    }
+
+    public synchronized boolean tryAcquire() {
+        if (inFlight >= (int) limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    public synchronized void release(long latencyNanos, boolean failed) {
+        boolean applicationLimited = inFlight * 2 < (int) limit;
+        inFlight--;
+        boolean slow = failed || latencyNanos > latencyThresholdNanos;
+        if (slow && !windowBackedOff) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            if (inFlight > 0) {
+                startWindow(inFlight, true);
+            } else {
+                startWindow((int) limit, false);
+            }
+            return;
+        }
+        if (!slow && !applicationLimited) {
+            windowSaturated = true;
+        }
+        if (--windowRemaining <= 0) {
+            if (!windowBackedOff && windowSaturated) {
+                limit = Math.min(maxLimit, limit + 1);
+            }
+            startWindow((int) limit, false);
+        }
+    }
+
+    /**
+     * Gives back a permit of a request that was not executed, without counting it as a completion.
+     */
+    public synchronized void cancel() {
+        inFlight--;
+    }
+
+    private void startWindow(int completions, boolean backedOff) {
+        windowRemaining = Math.max(1, completions);
+        windowBackedOff = backedOff;
+        windowSaturated = false;
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public synchronized int getInFlight() {
+        return inFlight;
+    }
+}
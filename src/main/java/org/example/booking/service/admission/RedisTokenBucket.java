@@ -0,0 +1,62 @@
+package org.example.booking.service.admission;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Token bucket per user, kept in Redis so that the rate applies across all nodes.
+ * The refill and the take happen atomically in a Lua script using the Redis server clock.
+ */
+public class RedisTokenBucket {
+
+    private static final String KEY_PREFIX = "booking-service:admission:bucket:";
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> TAKE_SCRIPT = new DefaultRedisScript<>("""
+            local capacity = tonumber(ARGV[1])
+            local refill_per_ms = tonumber(ARGV[2]) / 1000
+            local time = redis.call('TIME')
+            local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+            local bucket = redis.call('HMGET', KEYS[1], 'tokens', 'ts')
+            local tokens = tonumber(bucket[1]) or capacity
+            local ts = tonumber(bucket[2]) or now
+            tokens = math.min(capacity, tokens + (now - ts) * refill_per_ms)
+            local allowed = 0
+            local retry_after = 0
+            if tokens >= 1 then
+                tokens = tokens - 1
+                allowed = 1
+            else
+                retry_after = math.ceil((1 - tokens) / refill_per_ms)
+            end
+            redis.call('HSET', KEYS[1], 'tokens', tostring(tokens), 'ts', now)
+            redis.call('PEXPIRE', KEYS[1], math.ceil(capacity / refill_per_ms) + 1000)
+            return {allowed, retry_after}
+            """, List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final int capacity;
+    private final double refillPerSecond;
+
+    public RedisTokenBucket(StringRedisTemplate stringRedisTemplate, int capacity, double refillPerSecond) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.capacity = capacity;
+        this.refillPerSecond = refillPerSecond;
+    }
+
+    /**
+     * @return {@code null} if a token was taken, otherwise how long until the next token is available
+     */
+    public Duration tryTake(Long userId) {
+        List<?> result = stringRedisTemplate.execute(TAKE_SCRIPT, List.of(KEY_PREFIX + userId),
+                String.valueOf(capacity), String.valueOf(refillPerSecond));
+        if (result == null || ((Number) result.get(0)).longValue() == 1) {
+            return null;
+        }
+        return Duration.ofMillis(((Number) result.get(1)).longValue());
+    }
+}
@@ -0,0 +1,212 @@
+package org.example.booking.service.availability;
+
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.bookedNightsKeyPrefix;
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.bookedUnitsKeyPrefix;
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.dateKeyExpiresAt;
+
+/**
+ * Multi-resolution layout of the booked nights. Next to the set of unit ids per date there is a sorted set
+ * per ISO week and per calendar month, scoring each unit with its booked nights in that period; units
+ * without booked nights are removed. A date range is answered from the fewest covering keys, see
+ * {@link #coveringKeys}, so a long stay costs a handful of keys instead of one per night.
+ * <p>
+ * Both scripts only touch the aggregates when the date set actually changes, which keeps them exact when
+ * a night is written twice, e.g. by a booking and by the rebuild that is loading it at the same time.
+ * <p>
+ * The scripts are sent by their SHA1 with EVALSHA. A pipeline cannot fall back to EVAL command by command
+ * the way {@link org.springframework.data.redis.core.script.DefaultRedisScript} does, so pipelines that call
+ * the scripts go through {@link #executePipelined}, which loads the scripts and runs the pipeline again when
+ * Redis does not know them. Running it twice is safe for the same reason writing a night twice is.
+ */
+public final class AvailabilityAggregates {
+
+    public static final String LAYOUT_VERSION = "2";
+
+    private static final RedisScript<Long> ADD_SCRIPT = RedisScript.of("""
+            local added = 0
+            for i = 4, #ARGV do
+                if redis.call('SADD', KEYS[1], ARGV[i]) == 1 then
+                    redis.call('ZINCRBY', KEYS[2], 1, ARGV[i])
+                    redis.call('ZINCRBY', KEYS[3], 1, ARGV[i])
+                    added = added + 1
+                end
+            end
+            for k = 1, 3 do
+                redis.call('EXPIREAT', KEYS[k], ARGV[k])
+            end
+            return added
+            """, Long.class);
+
+    private static final RedisScript<Long> REMOVE_SCRIPT = RedisScript.of("""
+            local removed = 0
+            for i = 1, #ARGV do
+                if redis.call('SREM', KEYS[1], ARGV[i]) == 1 then
+                    for k = 2, 3 do
+                        if tonumber(redis.call('ZINCRBY', KEYS[k], -1, ARGV[i])) <= 0 then
+                            redis.call('ZREM', KEYS[k], ARGV[i])
+                        end
+                    end
+                    removed = removed + 1
+                end
+            end
+            return removed
+            """, Long.class);
+
+    private AvailabilityAggregates() {
+    }
+
+    public enum Resolution {
+        DAY, WEEK, MONTH;
+
+        /**
+         * First date of the period that contains {@code date}.
+         */
+        public LocalDate start(LocalDate date) {
+            return switch (this) {
+                case DAY -> date;
+                case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                case MONTH -> date.withDayOfMonth(1);
+            };
+        }
+
+        /**
+         * First date after the period starting at {@code start}.
+         */
+        public LocalDate next(LocalDate start) {
+            return switch (this) {
+                case DAY -> start.plusDays(1);
+                case WEEK -> start.plusWeeks(1);
+                case MONTH -> start.plusMonths(1);
+            };
+        }
+
+        public String keyPrefix(long generation) {
+            return switch (this) {
+                case DAY -> bookedUnitsKeyPrefix(generation);
+                case WEEK -> bookedNightsKeyPrefix(generation, "week");
+                case MONTH -> bookedNightsKeyPrefix(generation, "month");
+            };
+        }
+
+        public String key(long generation, LocalDate date) {
+            return keyPrefix(generation) + start(date);
+        }
+
+        /**
+         * Unix time at which the key of the period starting at {@code start} expires.
+         */
+        public long expiresAt(LocalDate start, Duration retention) {
+            return dateKeyExpiresAt(next(start).minusDays(1), retention);
+        }
+    }
+
+    /**
+     * A key of one resolution covering part of a date range.
+     */
+    public record CoveringKey(Resolution resolution, String key) {
+    }
+
+    /**
+     * Keys that together cover the nights {@code [from, to)} exactly: whole months where the range spans
+     * them, whole weeks elsewhere, and single dates at the edges. Weeks stop short of a month that can be
+     * used whole, so any range needs at most 26 keys plus one per whole month.
+     */
+    public static List<CoveringKey> coveringKeys(long generation, LocalDate from, LocalDate to) {
+        List<CoveringKey> keys = new ArrayList<>();
+        LocalDate date = from;
+        while (date.isBefore(to)) {
+            Resolution resolution = coveringResolution(date, to);
+            keys.add(new CoveringKey(resolution, resolution.key(generation, date)));
+            date = resolution.next(date);
+        }
+        return keys;
+    }
+
+    private static Resolution coveringResolution(LocalDate date, LocalDate to) {
+        if (date.getDayOfMonth() == 1 && !Resolution.MONTH.next(date).isAfter(to)) {
+            return Resolution.MONTH;
+        }
+        if (date.getDayOfWeek() == DayOfWeek.MONDAY) {
+            LocalDate weekEnd = Resolution.WEEK.next(date);
+            LocalDate nextMonth = Resolution.MONTH.next(Resolution.MONTH.start(date));
+            boolean splitsWholeMonth = nextMonth.isBefore(weekEnd) && !Resolution.MONTH.next(nextMonth).isAfter(to);
+            if (!weekEnd.isAfter(to) && !splitsWholeMonth) {
+                return Resolution.WEEK;
+            }
+        }
+        return Resolution.DAY;
+    }
+
+    /**
+     * Queues adding {@code unitIds} to the nights of {@code date} in {@code generation}, and sets every key
+     * touched to expire {@code retention} after its period is over.
+     */
+    public static void add(RedisConnection connection, long generation, LocalDate date, Collection<String> unitIds,
+                           Duration retention) {
+        List<byte[]> keysAndArgs = new ArrayList<>(6 + unitIds.size());
+        for (Resolution resolution : Resolution.values()) {
+            keysAndArgs.add(resolution.key(generation, date).getBytes());
+        }
+        for (Resolution resolution : Resolution.values()) {
+            keysAndArgs.add(String.valueOf(resolution.expiresAt(resolution.start(date), retention)).getBytes());
+        }
+        unitIds.forEach(unitId -> keysAndArgs.add(unitId.getBytes()));
+        connection.scriptingCommands().evalSha(ADD_SCRIPT.getSha1(), ReturnType.INTEGER, 3, keysAndArgs.toArray(byte[][]::new));
+    }
+
+    /**
+     * Queues removing {@code unitIds} from the night of {@code date} in {@code generation}.
+     */
+    public static void remove(RedisConnection connection, long generation, LocalDate date, Collection<String> unitIds) {
+        List<byte[]> keysAndArgs = new ArrayList<>(3 + unitIds.size());
+        for (Resolution resolution : Resolution.values()) {
+            keysAndArgs.add(resolution.key(generation, date).getBytes());
+        }
+        unitIds.forEach(unitId -> keysAndArgs.add(unitId.getBytes()));
+        connection.scriptingCommands().evalSha(REMOVE_SCRIPT.getSha1(), ReturnType.INTEGER, 3, keysAndArgs.toArray(byte[][]::new));
+    }
+
+    /**
+     * Runs a pipeline that calls {@link #add} or {@link #remove}. If Redis does not know the scripts, e.g. after
+     * a restart or a SCRIPT FLUSH, they are loaded and the pipeline is run once more.
+     */
+    public static List<Object> executePipelined(StringRedisTemplate redisTemplate, RedisCallback<?> callback) {
+        try {
+            return redisTemplate.executePipelined(callback);
+        } catch (DataAccessException e) {
+            if (!isNoScriptError(e)) {
+                throw e;
+            }
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                connection.scriptingCommands().scriptLoad(ADD_SCRIPT.getScriptAsString().getBytes());
+                connection.scriptingCommands().scriptLoad(REMOVE_SCRIPT.getScriptAsString().getBytes());
+                return null;
+            });
+            return redisTemplate.executePipelined(callback);
+        }
+    }
+
+    private static boolean isNoScriptError(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.booking.service.availability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.service.availability.AvailabilityAggregates.Resolution;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.dateOfKey;
+
+/**
+ * Unlinks date keys of the availability cache whose night is more than
+ * {@code booking.availability-cache.past-date-retention} in the past.
+ * <p>
+ * Date keys normally expire on their own, since every write sets their expiry. This job catches the rest:
+ * keys written before expiries were set, or restored from a generation that never had them. The write
+ * generations are walked with SCAN and stale keys are unlinked in batches with a pause in between, so the
+ * live key space stays proportional to the bookable horizon rather than to the booking history.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "booking.availability-cache", name = "compaction-enabled", havingValue = "true", matchIfMissing = true)
+public class AvailabilityCacheCompactor {
+
+    private final AvailabilityCacheProperties properties;
+    private final AvailabilityCacheGenerations generations;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public AvailabilityCacheCompactor(AvailabilityCacheProperties properties,
+                                      AvailabilityCacheGenerations generations,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.generations = generations;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.availability-cache.compaction-interval:1h}",
+            initialDelayString = "${booking.availability-cache.compaction-interval:1h}")
+    @SchedulerLock(name = "availability-cache-compaction-lock", lockAtMostFor = "30m")
+    public void compact() {
+        long unlinked = 0;
+        for (long generation : generations.writeTargets()) {
+            unlinked += compact(generation);
+        }
+        if (unlinked > 0) {
+            log.info("Availability cache compaction unlinked {} past-date keys", unlinked);
+        } else {
+            log.debug("Availability cache compaction found no past-date keys");
+        }
+    }
+
+    /**
+     * Unlinks the past-date keys of {@code generation}: date sets as well as week and month aggregates.
+     *
+     * @return the number of keys unlinked
+     */
+    long compact(long generation) {
+        long now = Instant.now().getEpochSecond();
+        int batchSize = Math.max(1, properties.getCompactionBatchSize());
+        List<String> batch = new ArrayList<>(batchSize);
+        long unlinked = 0;
+        for (Resolution resolution : Resolution.values()) {
+            try (Cursor<String> cursor = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                    .match(resolution.keyPrefix(generation) + "*")
+                    .count(batchSize)
+                    .build())) {
+                while (cursor.hasNext()) {
+                    String key = cursor.next();
+                    if (isPast(resolution, key, now)) {
+                        batch.add(key);
+                    }
+                    if (batch.size() == batchSize) {
+                        unlinked += unlink(batch);
+                        sleep(properties.getCompactionPause());
+                    }
+                }
+            }
+        }
+        unlinked += unlink(batch);
+        return unlinked;
+    }
+
+    private boolean isPast(Resolution resolution, String key, long now) {
+        try {
+            return resolution.expiresAt(dateOfKey(key), properties.getPastDateRetention()) <= now;
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    private long unlink(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long unlinked = stringRedisTemplate.unlink(keys);
+        keys.clear();
+        long count = unlinked == null ? 0 : unlinked;
+        meterRegistry.counter("booking.availability.compaction.unlinked").increment(count);
+        return count;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during availability cache compaction", e);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.booking.service.availability;
+
+import lombok.AllArgsConstructor;
+import org.example.booking.service.availability.AvailabilityCacheRebuilder.AvailabilityCacheStatus;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+/**
+ * {@code GET /actuator/availabilitycache} reports the generations, {@code POST} starts an online rebuild.
+ * The endpoint is read-only unless {@code management.endpoint.availabilitycache.access} is unrestricted.
+ * {@code GET /actuator/availabilitycache/stats} reports the footprint of the cache and the latency of its
+ * operations, see {@link AvailabilityCacheStats}.
+ */
+@Component
+@AllArgsConstructor
+@Endpoint(id = "availabilitycache")
+public class AvailabilityCacheEndpoint {
+
+    private static final String STATS = "stats";
+
+    private final AvailabilityCacheRebuilder availabilityCacheRebuilder;
+    private final ObjectProvider<AvailabilityCacheStats> availabilityCacheStats;
+
+    @ReadOperation
+    public AvailabilityCacheStatus status() {
+        return availabilityCacheRebuilder.status();
+    }
+
+    @ReadOperation
+    public AvailabilityCacheStats.Report stats(@Selector String section) {
+        AvailabilityCacheStats stats = availabilityCacheStats.getIfAvailable();
+        return STATS.equals(section) && stats != null ? stats.report() : null;
+    }
+
+    @WriteOperation
+    public AvailabilityCacheStatus rebuild() {
+        availabilityCacheRebuilder.rebuildAsync();
+        return availabilityCacheRebuilder.status();
+    }
+}
@@ -0,0 +1,187 @@
+package org.example.booking.service.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Versioned key namespaces of the availability cache.
+ * <p>
+ * A Redis hash points at the {@code current} generation, which serves reads, and at the generation
+ * that is {@code building} while a rebuild runs; writes go to both. Generation 0 is the original,
+ * unversioned key layout. Every node caches the pointer for
+ * {@code booking.availability-cache.generation-refresh-interval}, so a rebuild must wait longer than
+ * that before it trusts all nodes to dual-write.
+ */
+@Slf4j
+@Component
+public class AvailabilityCacheGenerations {
+
+    static final String POINTER_KEY = "booking-service:availability-cache:generation";
+
+    /**
+     * Hash of a change counter per unit ID, bumped whenever booked nights of the unit are added or removed.
+     * It lives outside the generations, so a counter never goes back when a rebuild is promoted.
+     */
+    public static final String UNIT_VERSIONS_KEY = "booking-service:availability-cache:unit-versions";
+
+    private static final String CURRENT = "current";
+    private static final String BUILDING = "building";
+    private static final String GENERATION_KEY_PREFIX = "booking-service:availability-cache:";
+
+    private static final RedisScript<Long> START_SCRIPT = new DefaultRedisScript<>("""
+            local next = redis.call('HINCRBY', KEYS[1], 'sequence', 1)
+            redis.call('HSET', KEYS[1], 'building', next)
+            return next
+            """, Long.class);
+
+    private static final RedisScript<Long> PROMOTE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'building') ~= ARGV[1] then
+                return -1
+            end
+            local previous = redis.call('HGET', KEYS[1], 'current') or '0'
+            redis.call('HSET', KEYS[1], 'current', ARGV[1])
+            redis.call('HDEL', KEYS[1], 'building')
+            return tonumber(previous)
+            """, Long.class);
+
+    private static final RedisScript<Long> ABORT_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('HGET', KEYS[1], 'building') == ARGV[1] then
+                return redis.call('HDEL', KEYS[1], 'building')
+            end
+            return 0
+            """, Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final AvailabilityCacheProperties properties;
+
+    private volatile Pointer pointer;
+
+    public AvailabilityCacheGenerations(StringRedisTemplate stringRedisTemplate, AvailabilityCacheProperties properties) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+    }
+
+    public static String bookedUnitsKeyPrefix(long generation) {
+        return key(generation, "booked-unit-ids-by-date:");
+    }
+
+    /**
+     * Prefix of the sorted sets that score every unit with its booked nights per {@code period}, e.g. {@code week}.
+     */
+    public static String bookedNightsKeyPrefix(long generation, String period) {
+        return key(generation, "booked-unit-nights-by-" + period + ":");
+    }
+
+    /**
+     * Holds the key layout a generation was built with, so that a generation written by an older version
+     * is rebuilt rather than read with keys it does not have.
+     */
+    public static String layoutKey(long generation) {
+        return key(generation, "layout");
+    }
+
+    /**
+     * Date of a booked-units key, which is the ISO date after the prefix.
+     */
+    public static LocalDate dateOfKey(String bookedUnitsKey) {
+        return LocalDate.parse(bookedUnitsKey.substring(bookedUnitsKey.lastIndexOf(':') + 1));
+    }
+
+    /**
+     * Unix time at which the booked-units key of {@code date} expires: {@code retention} after that night is over.
+     * A date can no longer be booked or cancelled by then, so the key only serves reports of the recent past.
+     */
+    public static long dateKeyExpiresAt(LocalDate date, Duration retention) {
+        return date.plusDays(1).atStartOfDay(ZoneId.systemDefault()).plus(retention).toEpochSecond();
+    }
+
+    public static String totalUnitsCountKey(long generation) {
+        return key(generation, "total-units-count");
+    }
+
+    private static String key(long generation, String name) {
+        return generation == 0 ? "booking-service:" + name : GENERATION_KEY_PREFIX + generation + ":" + name;
+    }
+
+    public long current() {
+        return pointer().current();
+    }
+
+    public Optional<Long> building() {
+        return Optional.ofNullable(pointer().building());
+    }
+
+    /**
+     * Generations every write has to be applied to: the current one and, during a rebuild, the one being built.
+     */
+    public List<Long> writeTargets() {
+        Pointer snapshot = pointer();
+        return snapshot.building() == null
+                ? List.of(snapshot.current())
+                : List.of(snapshot.current(), snapshot.building());
+    }
+
+    /**
+     * Allocates a fresh generation number and marks it as building.
+     */
+    public long startBuilding() {
+        Long generation = stringRedisTemplate.execute(START_SCRIPT, List.of(POINTER_KEY));
+        refresh();
+        return Objects.requireNonNull(generation);
+    }
+
+    /**
+     * Atomically makes the building generation current.
+     *
+     * @return the generation that was current before the swap
+     * @throws IllegalStateException if {@code generation} is no longer the one being built
+     */
+    public long promote(long generation) {
+        Long previous = stringRedisTemplate.execute(PROMOTE_SCRIPT, List.of(POINTER_KEY), String.valueOf(generation));
+        refresh();
+        if (previous == null || previous < 0) {
+            throw new IllegalStateException("Generation " + generation + " is no longer being built");
+        }
+        return previous;
+    }
+
+    public void abort(long generation) {
+        stringRedisTemplate.execute(ABORT_SCRIPT, List.of(POINTER_KEY), String.valueOf(generation));
+        refresh();
+    }
+
+    public void refresh() {
+        pointer = readPointer();
+    }
+
+    private Pointer pointer() {
+        Pointer snapshot = pointer;
+        if (snapshot == null
+                || System.nanoTime() - snapshot.readAtNanos() > properties.getGenerationRefreshInterval().toNanos()) {
+            snapshot = readPointer();
+            pointer = snapshot;
+        }
+        return snapshot;
+    }
+
+    private Pointer readPointer() {
+        List<Object> values = stringRedisTemplate.opsForHash().multiGet(POINTER_KEY, List.of(CURRENT, BUILDING));
+        long current = values == null || values.get(0) == null ? 0 : Long.parseLong((String) values.get(0));
+        Long building = values == null || values.get(1) == null ? null : Long.valueOf((String) values.get(1));
+        return new Pointer(current, building, System.nanoTime());
+    }
+
+    private record Pointer(long current, Long building, long readAtNanos) {
+    }
+}
@@ -0,0 +1,44 @@
+package org.example.booking.service.availability;
+
+import lombok.AllArgsConstructor;
+import org.example.booking.service.UnitAvailabilityService;
+import org.example.booking.service.startup.AppStartupCoordinator;
+import org.example.booking.service.startup.AppStartupCoordinator.StartupStatus;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Part of the readiness group: a node only takes traffic once its startup tasks have completed and the
+ * current cache generation is complete. While another node rebuilds an empty cache this stays DOWN
+ * until the new generation is promoted.
+ */
+@Component
+@AllArgsConstructor
+public class AvailabilityCacheHealthIndicator implements HealthIndicator {
+
+    private final AppStartupCoordinator appStartupCoordinator;
+    private final AvailabilityCacheGenerations availabilityCacheGenerations;
+    private final UnitAvailabilityService unitAvailabilityService;
+
+    @Override
+    public Health health() {
+        StartupStatus startupStatus = appStartupCoordinator.getStatus();
+        if (startupStatus == StartupStatus.FAILED) {
+            return Health.down(appStartupCoordinator.getFailure()).withDetail("startup", startupStatus).build();
+        }
+        if (startupStatus != StartupStatus.COMPLETED) {
+            return Health.down().withDetail("startup", startupStatus).build();
+        }
+        if (!unitAvailabilityService.isInitialized()) {
+            return Health.down()
+                    .withDetail("startup", startupStatus)
+                    .withDetail("reason", "Availability cache is not initialized")
+                    .build();
+        }
+        return Health.up()
+                .withDetail("startup", startupStatus)
+                .withDetail("generation", availabilityCacheGenerations.current())
+                .build();
+    }
+}
@@ -0,0 +1,263 @@
+package org.example.booking.service.availability;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.core.DefaultLockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockConfiguration;
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor;
+import net.javacrumbs.shedlock.core.LockingTaskExecutor.TaskResult;
+import org.example.booking.config.AppConfig;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.service.UnitAvailabilityService;
+import org.example.booking.service.availability.AvailabilityAggregates.Resolution;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Online blue/green rebuild of the availability cache.
+ * <p>
+ * A new generation is marked as building, so every node starts applying booking writes to it as well
+ * as to the current one. Once all nodes have seen that, the generation is filled from PostgreSQL, the
+ * pointer is swapped atomically, and the previous generation is unlinked in the background after
+ * readers have moved off it. Reads keep being served from the complete previous generation throughout.
+ */
+@Slf4j
+@Component
+public class AvailabilityCacheRebuilder implements DisposableBean {
+
+    private static final String LOCK_NAME = "availability-cache-rebuild-lock";
+    private static final int DELETE_BATCH_SIZE = 1000;
+
+    private final AppConfig appConfig;
+    private final AvailabilityCacheProperties properties;
+    private final AvailabilityCacheGenerations generations;
+    private final UnitAvailabilityService unitAvailabilityService;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectProvider<AvailabilitySnapshotStore> snapshotStore;
+    private final LockingTaskExecutor lockingTaskExecutor;
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("availability-cache-rebuild").daemon().factory());
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile RebuildResult lastRebuild;
+
+    public AvailabilityCacheRebuilder(AppConfig appConfig,
+                                      AvailabilityCacheProperties properties,
+                                      AvailabilityCacheGenerations generations,
+                                      UnitAvailabilityService unitAvailabilityService,
+                                      StringRedisTemplate stringRedisTemplate,
+                                      ObjectProvider<AvailabilitySnapshotStore> snapshotStore,
+                                      LockProvider lockProvider) {
+        this.appConfig = appConfig;
+        this.properties = properties;
+        this.generations = generations;
+        this.unitAvailabilityService = unitAvailabilityService;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.snapshotStore = snapshotStore;
+        this.lockingTaskExecutor = new DefaultLockingTaskExecutor(lockProvider);
+    }
+
+    public void initializeUnitAvailabilityCache() {
+        if (lastRebuild != null) {
+            log.info("Unit availability cache was already rebuilt by this node since startup.");
+            return;
+        }
+        if (unitAvailabilityService.isInitialized() && !appConfig.isRefreshCacheOnStartup()) {
+            log.info("Unit availability cache is already initialized.");
+            return;
+        }
+
+        log.info("Starting unit availability cache initialization...");
+        rebuild(true).ifPresent(result -> log.info(
+                "Unit availability cache initialization completed. Read {} bookings from the database.", result.bookings()));
+    }
+
+    /**
+     * Rebuilds the cache from the database on the calling thread.
+     *
+     * @return empty if a rebuild is already running on this or another node
+     */
+    public Optional<RebuildResult> rebuild() {
+        return rebuild(false);
+    }
+
+    private Optional<RebuildResult> rebuild(boolean fromSnapshot) {
+        if (!running.compareAndSet(false, true)) {
+            log.info("Availability cache rebuild is already running on this node.");
+            return Optional.empty();
+        }
+        try {
+            return rebuildWithLock(fromSnapshot);
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Starts a rebuild on a background thread.
+     *
+     * @return {@code false} if a rebuild is already running on this node
+     */
+    public boolean rebuildAsync() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        executor.execute(() -> {
+            try {
+                rebuildWithLock(false);
+            } catch (RuntimeException e) {
+                log.error("Availability cache rebuild failed", e);
+            } finally {
+                running.set(false);
+            }
+        });
+        return true;
+    }
+
+    public AvailabilityCacheStatus status() {
+        return new AvailabilityCacheStatus(
+                generations.current(), generations.building().orElse(null), running.get(), lastRebuild);
+    }
+
+    private Optional<RebuildResult> rebuildWithLock(boolean fromSnapshot) {
+        LockConfiguration lockConfiguration = new LockConfiguration(
+                Instant.now(), LOCK_NAME, properties.getRebuildLockAtMostFor(), Duration.ZERO);
+        TaskResult<RebuildResult> result;
+        try {
+            result = lockingTaskExecutor.executeWithLock(
+                    () -> rebuildIntoNewGeneration(fromSnapshot), lockConfiguration);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException("Availability cache rebuild failed", e);
+        }
+
+        if (!result.wasExecuted()) {
+            log.info("Availability cache rebuild is already running on another node.");
+            return Optional.empty();
+        }
+        lastRebuild = result.getResult();
+        return Optional.of(result.getResult());
+    }
+
+    private RebuildResult rebuildIntoNewGeneration(boolean fromSnapshot) {
+        Instant startedAt = Instant.now();
+        generations.refresh();
+        generations.building().ifPresent(stale -> {
+            log.warn("Discarding availability cache generation {} left over by an interrupted rebuild", stale);
+            generations.abort(stale);
+            deleteGeneration(stale);
+        });
+
+        long generation = generations.startBuilding();
+        log.info("Rebuilding availability cache into generation {}", generation);
+        try {
+            // Bookings written before every node saw the new generation are only in the current one;
+            // they must be committed before the database read starts.
+            sleep(properties.getRebuildSettleDelay());
+            Instant loadStartedAt = Instant.now();
+            long bookings = loadGeneration(generation, fromSnapshot);
+            // Bookings released while the load ran may have been loaded after their release was dual-written
+            long replayed = unitAvailabilityService.replayBookingChangesSince(
+                    generation, loadStartedAt.minus(properties.getSnapshotReplayMargin()));
+            log.info("Replayed {} bookings changed while loading generation {}", replayed, generation);
+            long previous = generations.promote(generation);
+            log.info("Availability cache generation {} is now current, replacing generation {}", generation, previous);
+
+            executor.execute(() -> {
+                sleep(properties.getRebuildSettleDelay());
+                deleteGeneration(previous);
+            });
+            return new RebuildResult(generation, previous, bookings, startedAt, Instant.now());
+        } catch (RuntimeException e) {
+            generations.abort(generation);
+            deleteGeneration(generation);
+            throw e;
+        }
+    }
+
+    /**
+     * At startup a snapshot, if there is one, replaces the full table scan; only the bookings changed since
+     * it was taken are read from the database.
+     */
+    private long loadGeneration(long generation, boolean fromSnapshot) {
+        AvailabilitySnapshotStore store = fromSnapshot ? snapshotStore.getIfAvailable() : null;
+        Optional<AvailabilitySnapshot> snapshot = store == null ? Optional.empty() : store.read();
+        if (snapshot.isEmpty()) {
+            return unitAvailabilityService.loadGeneration(generation);
+        }
+
+        log.info("Loading availability cache generation {} from snapshot taken at {}", generation, snapshot.get().watermark());
+        return unitAvailabilityService.loadGenerationFromSnapshot(
+                generation, snapshot.get(), properties.getSnapshotReplayMargin());
+    }
+
+    private void deleteGeneration(long generation) {
+        List<String> batch = new ArrayList<>(DELETE_BATCH_SIZE);
+        batch.add(AvailabilityCacheGenerations.totalUnitsCountKey(generation));
+        batch.add(AvailabilityCacheGenerations.layoutKey(generation));
+        long deleted = 0;
+        for (Resolution resolution : Resolution.values()) {
+            try (Cursor<String> cursor = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                    .match(resolution.keyPrefix(generation) + "*")
+                    .count(DELETE_BATCH_SIZE)
+                    .build())) {
+                while (cursor.hasNext()) {
+                    batch.add(cursor.next());
+                    if (batch.size() == DELETE_BATCH_SIZE) {
+                        deleted += unlink(batch);
+                    }
+                }
+            }
+        }
+        deleted += unlink(batch);
+        log.info("Unlinked {} keys of availability cache generation {}", deleted, generation);
+    }
+
+    private long unlink(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long unlinked = stringRedisTemplate.unlink(keys);
+        keys.clear();
+        return unlinked == null ? 0 : unlinked;
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the availability cache generation to settle", e);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param bookings bookings read from the database: all active ones, or the changes replayed on top of a snapshot
+     */
+    public record RebuildResult(long generation, long previousGeneration, long bookings,
+                                Instant startedAt, Instant finishedAt) {
+    }
+
+    public record AvailabilityCacheStatus(long currentGeneration, Long buildingGeneration, boolean rebuildRunning,
+                                          RebuildResult lastRebuild) {
+    }
+}
@@ -0,0 +1,259 @@
+package org.example.booking.service.availability;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
+import org.example.booking.dto.BookingDateRangeDto;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.UnitRepository;
+import org.example.booking.service.UnitAvailabilityService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.bookedUnitsKeyPrefix;
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.totalUnitsCountKey;
+
+/**
+ * Finds and repairs drift between PostgreSQL and the current availability cache generation.
+ * <p>
+ * Redis is updated inside booking transactions, before they commit, so a live write looks like drift for
+ * a moment. Differences are therefore only repaired when a second comparison after
+ * {@code booking.availability-cache.reconcile-grace-period} still shows them. Future dates are walked in
+ * windows with a pause in between, on the background connection pool, so the job never competes with
+ * live traffic. Nothing is done while a rebuild is running.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "booking.availability-cache", name = "reconcile-enabled", havingValue = "true", matchIfMissing = true)
+public class AvailabilityCacheReconciler {
+
+    private static final String DRIFT_METRIC = "booking.availability.drift";
+
+    private final AvailabilityCacheProperties properties;
+    private final AvailabilityCacheGenerations generations;
+    private final UnitAvailabilityService unitAvailabilityService;
+    private final BookingRepository bookingRepository;
+    private final UnitRepository unitRepository;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public AvailabilityCacheReconciler(AvailabilityCacheProperties properties,
+                                       AvailabilityCacheGenerations generations,
+                                       UnitAvailabilityService unitAvailabilityService,
+                                       BookingRepository bookingRepository,
+                                       UnitRepository unitRepository,
+                                       StringRedisTemplate stringRedisTemplate,
+                                       MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.generations = generations;
+        this.unitAvailabilityService = unitAvailabilityService;
+        this.bookingRepository = bookingRepository;
+        this.unitRepository = unitRepository;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Scheduled(fixedDelayString = "${booking.availability-cache.reconcile-interval:10m}",
+            initialDelayString = "${booking.availability-cache.reconcile-interval:10m}")
+    @SchedulerLock(name = "availability-cache-reconcile-lock", lockAtMostFor = "30m")
+    @Workload(WorkloadType.BACKGROUND)
+    public void reconcile() {
+        if (generations.building().isPresent()) {
+            log.debug("Availability cache rebuild in progress, skipping reconciliation.");
+            return;
+        }
+
+        long generation = generations.current();
+        LocalDate today = LocalDate.now();
+        LocalDate end = today.plusDays(properties.getReconcileHorizonDays());
+        long repaired = reconcileTotalUnitsCount(generation);
+
+        for (LocalDate from = today; from.isBefore(end); from = from.plusDays(properties.getReconcileWindowDays())) {
+            if (generations.current() != generation || generations.building().isPresent()) {
+                log.info("Availability cache generation changed, stopping reconciliation.");
+                return;
+            }
+            LocalDate to = from.plusDays(properties.getReconcileWindowDays());
+            repaired += reconcileWindow(generation, from, to.isAfter(end) ? end : to);
+            sleep(properties.getReconcilePause());
+        }
+
+        if (repaired > 0) {
+            log.warn("Availability cache reconciliation repaired {} entries in generation {}", repaired, generation);
+        } else {
+            log.debug("Availability cache reconciliation found no drift in generation {}", generation);
+        }
+    }
+
+    private long reconcileTotalUnitsCount(long generation) {
+        String key = totalUnitsCountKey(generation);
+        String expected = String.valueOf(unitRepository.count());
+        if (expected.equals(stringRedisTemplate.opsForValue().get(key))) {
+            return 0;
+        }
+
+        sleep(properties.getReconcileGracePeriod());
+        String confirmedExpected = String.valueOf(unitRepository.count());
+        String actual = stringRedisTemplate.opsForValue().get(key);
+        if (!confirmedExpected.equals(expected) || confirmedExpected.equals(actual)) {
+            return 0;
+        }
+
+        log.warn("Total units count drifted: cache has {}, database has {}", actual, confirmedExpected);
+        stringRedisTemplate.opsForValue().set(key, confirmedExpected);
+        driftCounter("total-units").increment();
+        return 1;
+    }
+
+    private long reconcileWindow(long generation, LocalDate from, LocalDate to) {
+        meterRegistry.counter("booking.availability.reconcile.windows").increment();
+        Drift suspected = findDrift(generation, from, to);
+        if (suspected.isEmpty()) {
+            return 0;
+        }
+
+        sleep(properties.getReconcileGracePeriod());
+        Drift confirmed = suspected.retainAll(findDrift(generation, from, to));
+        return addMissing(generation, confirmed.missing()) + removeExtra(generation, confirmed.extra());
+    }
+
+    private Drift findDrift(long generation, LocalDate from, LocalDate to) {
+        Map<LocalDate, Set<String>> expected = new HashMap<>();
+        for (BookingDateRangeDto booking : bookingRepository.findActiveBookingRangesBetween(from, to)) {
+            String unitId = String.valueOf(booking.getUnitId());
+            booking.getCheckInDate().datesUntil(booking.getCheckOutDate())
+                    .filter(date -> !date.isBefore(from) && date.isBefore(to))
+                    .forEach(date -> expected.computeIfAbsent(date, d -> new HashSet<>()).add(unitId));
+        }
+
+        List<LocalDate> dates = from.datesUntil(to).toList();
+        String prefix = bookedUnitsKeyPrefix(generation);
+        List<Object> cached = stringRedisTemplate.executePipelined((RedisCallback<?>) connection -> {
+            dates.forEach(date -> connection.setCommands().sMembers((prefix + date).getBytes()));
+            return null;
+        });
+
+        Drift drift = new Drift(new HashMap<>(), new HashMap<>());
+        for (int i = 0; i < dates.size(); i++) {
+            LocalDate date = dates.get(i);
+            Set<String> expectedUnitIds = expected.getOrDefault(date, Collections.emptySet());
+            Set<String> cachedUnitIds = asStringSet(cached.get(i));
+
+            Set<String> missing = new HashSet<>(expectedUnitIds);
+            missing.removeAll(cachedUnitIds);
+            Set<String> extra = new HashSet<>(cachedUnitIds);
+            extra.removeAll(expectedUnitIds);
+            if (!missing.isEmpty()) {
+                drift.missing().put(date, missing);
+            }
+            if (!extra.isEmpty()) {
+                drift.extra().put(date, extra);
+            }
+        }
+        return drift;
+    }
+
+    /**
+     * A booked unit missing from the cache would be offered again, so it is added back right away. If a
+     * cancellation races with this, the unit only looks booked until the next run.
+     */
+    private long addMissing(long generation, Map<LocalDate, Set<String>> missing) {
+        if (missing.isEmpty()) {
+            return 0;
+        }
+        Set<String> repairedUnitIds = new HashSet<>();
+        missing.values().forEach(repairedUnitIds::addAll);
+        AvailabilityAggregates.executePipelined(stringRedisTemplate, (RedisCallback<?>) connection -> {
+            missing.forEach((date, unitIds) ->
+                    AvailabilityAggregates.add(connection, generation, date, unitIds, properties.getPastDateRetention()));
+            UnitAvailabilityService.incrementUnitVersions(connection, repairedUnitIds);
+            return null;
+        });
+        long repaired = missing.values().stream().mapToLong(Set::size).sum();
+        driftCounter("missing").increment(repaired);
+        return repaired;
+    }
+
+    /**
+     * Removing a unit makes it bookable, so this is done per unit under its row lock after checking the
+     * database once more; see {@link UnitAvailabilityService#removeStaleBookedDates}.
+     */
+    private long removeExtra(long generation, Map<LocalDate, Set<String>> extra) {
+        Map<Long, Set<LocalDate>> datesByUnitId = new HashMap<>();
+        extra.forEach((date, unitIds) -> unitIds.forEach(unitId ->
+                datesByUnitId.computeIfAbsent(Long.valueOf(unitId), id -> new HashSet<>()).add(date)));
+
+        long repaired = 0;
+        for (Map.Entry<Long, Set<LocalDate>> entry : datesByUnitId.entrySet()) {
+            repaired += unitAvailabilityService.removeStaleBookedDates(generation, entry.getKey(), entry.getValue()).size();
+        }
+        driftCounter("extra").increment(repaired);
+        return repaired;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Set<String> asStringSet(Object result) {
+        return result instanceof Set<?> set ? (Set<String>) set : Collections.emptySet();
+    }
+
+    private Counter driftCounter(String type) {
+        return Counter.builder(DRIFT_METRIC)
+                .description("Availability cache entries repaired by the reconciler")
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during availability cache reconciliation", e);
+        }
+    }
+
+    /**
+     * Unit ids per date that are booked in the database but not cached ({@code missing}) and the other way
+     * round ({@code extra}).
+     */
+    private record Drift(Map<LocalDate, Set<String>> missing, Map<LocalDate, Set<String>> extra) {
+
+        boolean isEmpty() {
+            return missing.isEmpty() && extra.isEmpty();
+        }
+
+        Drift retainAll(Drift other) {
+            return new Drift(intersect(missing, other.missing), intersect(extra, other.extra));
+        }
+
+        private static Map<LocalDate, Set<String>> intersect(Map<LocalDate, Set<String>> first,
+                                                            Map<LocalDate, Set<String>> second) {
+            Map<LocalDate, Set<String>> result = new HashMap<>();
+            first.forEach((date, unitIds) -> {
+                Set<String> common = new HashSet<>(unitIds);
+                common.retainAll(Objects.requireNonNullElse(second.get(date), Collections.emptySet()));
+                if (!common.isEmpty()) {
+                    result.put(date, common);
+                }
+            });
+            return result;
+        }
+    }
+}
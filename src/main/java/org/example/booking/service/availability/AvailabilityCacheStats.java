@@ -0,0 +1,252 @@
+package org.example.booking.service.availability;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.service.UnitAvailabilityService;
+import org.example.booking.service.support.BookingObservations;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import static org.example.booking.service.availability.AvailabilityCacheGenerations.bookedUnitsKeyPrefix;
+
+/**
+ * Footprint of the current availability cache generation, for capacity planning: how many date keys there
+ * are, how many units they hold, how much memory they take and which dates they cover.
+ * <p>
+ * Every node samples in the background. Keys are walked with SCAN in batches; each batch is one script
+ * call running SCARD and MEMORY USAGE per key, followed by a pause, so a sample never holds Redis for long.
+ * The latest sample is published as booking.availability.cache.* gauges.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "booking.availability-cache", name = "stats-enabled", havingValue = "true", matchIfMissing = true)
+public class AvailabilityCacheStats {
+
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> CARDINALITY_AND_MEMORY_SCRIPT = new DefaultRedisScript<>("""
+            local result = {}
+            for i, key in ipairs(KEYS) do
+                result[2 * i - 1] = redis.call('SCARD', key)
+                result[2 * i] = redis.call('MEMORY', 'USAGE', key) or 0
+            end
+            return result
+            """, List.class);
+
+    private final AvailabilityCacheProperties properties;
+    private final AvailabilityCacheGenerations generations;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    private volatile Sample latest;
+
+    public AvailabilityCacheStats(AvailabilityCacheProperties properties,
+                                  AvailabilityCacheGenerations generations,
+                                  StringRedisTemplate stringRedisTemplate,
+                                  MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.generations = generations;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.meterRegistry = meterRegistry;
+
+        gauge("booking.availability.cache.date.keys", "Date keys in the current generation", Sample::dateKeys);
+        gauge("booking.availability.cache.booked.nights", "Unit ids over all date keys", Sample::bookedNights);
+        gauge("booking.availability.cache.max.units.per.date", "Largest date key", Sample::maxUnitsPerDate);
+        gauge("booking.availability.cache.past.date.keys", "Date keys before today", Sample::pastDateKeys);
+        Gauge.builder("booking.availability.cache.memory", this, stats -> stats.latestValue(Sample::memoryBytes))
+                .description("Memory used by the date keys, as reported by MEMORY USAGE")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${booking.availability-cache.stats-interval:5m}",
+            initialDelayString = "${booking.availability-cache.stats-initial-delay:1m}")
+    public void sampleScheduled() {
+        try {
+            sample();
+        } catch (RuntimeException e) {
+            log.warn("Availability cache sampling failed", e);
+        }
+    }
+
+    /**
+     * Walks the current generation on the calling thread.
+     */
+    public Sample sample() {
+        long startNanos = System.nanoTime();
+        long generation = generations.current();
+        String prefix = bookedUnitsKeyPrefix(generation);
+        LocalDate today = LocalDate.now();
+        int batchSize = Math.max(1, properties.getStatsBatchSize());
+        SampleBuilder builder = new SampleBuilder(generation, prefix, today);
+
+        List<String> batch = new ArrayList<>(batchSize);
+        try (Cursor<String> cursor = stringRedisTemplate.scan(ScanOptions.scanOptions()
+                .match(prefix + "*")
+                .count(batchSize)
+                .build())) {
+            while (cursor.hasNext()) {
+                batch.add(cursor.next());
+                if (batch.size() == batchSize) {
+                    measure(batch, builder);
+                    sleep(properties.getStatsPause());
+                }
+            }
+        }
+        measure(batch, builder);
+
+        Sample sample = builder.build(Instant.now(), Duration.ofNanos(System.nanoTime() - startNanos));
+        latest = sample;
+        log.debug("Availability cache sample: {}", sample);
+        return sample;
+    }
+
+    public Sample latest() {
+        return latest;
+    }
+
+    /**
+     * The latest sample together with the latency and pipeline sizes of the per-request Redis operations.
+     */
+    public Report report() {
+        Map<String, OperationLatency> latencies = new TreeMap<>();
+        for (Timer timer : meterRegistry.find(BookingObservations.STEP_METRIC).tag("operation", "availability").timers()) {
+            latencies.merge(timer.getId().getTag("step"), OperationLatency.of(timer), OperationLatency::merge);
+        }
+        Map<String, PipelineSize> pipelines = new TreeMap<>();
+        for (DistributionSummary summary : meterRegistry.find(UnitAvailabilityService.PIPELINE_METRIC).summaries()) {
+            pipelines.put(summary.getId().getTag("operation"), new PipelineSize(
+                    summary.count(), summary.mean(), summary.max()));
+        }
+        return new Report(latest, latencies, pipelines);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void measure(List<String> keys, SampleBuilder builder) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        List<Long> values = stringRedisTemplate.execute(CARDINALITY_AND_MEMORY_SCRIPT, keys);
+        for (int i = 0; i < keys.size(); i++) {
+            long cardinality = values == null ? 0 : values.get(2 * i);
+            long memory = values == null ? 0 : values.get(2 * i + 1);
+            builder.add(keys.get(i), cardinality, memory);
+        }
+        keys.clear();
+    }
+
+    private void gauge(String name, String description, ToDoubleFunction<Sample> value) {
+        Gauge.builder(name, this, stats -> stats.latestValue(value))
+                .description(description)
+                .register(meterRegistry);
+    }
+
+    private double latestValue(ToDoubleFunction<Sample> value) {
+        Sample sample = latest;
+        return sample == null ? Double.NaN : value.applyAsDouble(sample);
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while sampling the availability cache", e);
+        }
+    }
+
+    /**
+     * @param bookedNights sum of the cardinalities, i.e. booked unit-nights
+     * @param pastDateKeys keys for dates before today, which can no longer be booked
+     */
+    public record Sample(long generation, long dateKeys, long bookedNights, long maxUnitsPerDate, long memoryBytes,
+                         LocalDate oldestDate, LocalDate newestDate, long pastDateKeys,
+                         Instant sampledAt, Duration took) {
+    }
+
+    public record OperationLatency(long count, double meanMillis, double maxMillis) {
+
+        static OperationLatency of(Timer timer) {
+            return new OperationLatency(timer.count(), timer.mean(TimeUnit.MILLISECONDS), timer.max(TimeUnit.MILLISECONDS));
+        }
+
+        OperationLatency merge(OperationLatency other) {
+            long total = count + other.count;
+            double mean = total == 0 ? 0 : (meanMillis * count + other.meanMillis * other.count) / total;
+            return new OperationLatency(total, mean, Math.max(maxMillis, other.maxMillis));
+        }
+    }
+
+    public record PipelineSize(long count, double meanCommands, double maxCommands) {
+    }
+
+    public record Report(Sample sample, Map<String, OperationLatency> latency, Map<String, PipelineSize> pipelines) {
+    }
+
+    private static final class SampleBuilder {
+
+        private final long generation;
+        private final String prefix;
+        private final LocalDate today;
+        private long dateKeys;
+        private long bookedNights;
+        private long maxUnitsPerDate;
+        private long memoryBytes;
+        private long pastDateKeys;
+        private LocalDate oldestDate;
+        private LocalDate newestDate;
+
+        private SampleBuilder(long generation, String prefix, LocalDate today) {
+            this.generation = generation;
+            this.prefix = prefix;
+            this.today = today;
+        }
+
+        private void add(String key, long cardinality, long memory) {
+            dateKeys++;
+            bookedNights += cardinality;
+            maxUnitsPerDate = Math.max(maxUnitsPerDate, cardinality);
+            memoryBytes += memory;
+            LocalDate date;
+            try {
+                date = LocalDate.parse(key.substring(prefix.length()));
+            } catch (DateTimeParseException e) {
+                return;
+            }
+            if (date.isBefore(today)) {
+                pastDateKeys++;
+            }
+            if (oldestDate == null || date.isBefore(oldestDate)) {
+                oldestDate = date;
+            }
+            if (newestDate == null || date.isAfter(newestDate)) {
+                newestDate = date;
+            }
+        }
+
+        private Sample build(Instant sampledAt, Duration took) {
+            return new Sample(generation, dateKeys, bookedNights, maxUnitsPerDate, memoryBytes,
+                    oldestDate, newestDate, pastDateKeys, sampledAt, took);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.booking.service.availability;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Units-by-nights availability matrix in packed bit rows. The cache is date-major, one set of unit IDs per
+ * night, so the matrix is read as one membership column per night and transposed into one row per unit,
+ * with the bits in the same order as Redis bitmaps: the first night is the most significant bit of the
+ * first byte.
+ */
+public final class AvailabilityMatrix {
+
+    public static final String IDENTITY = "identity";
+    public static final String GZIP = "gzip";
+
+    private AvailabilityMatrix() {
+    }
+
+    public static int rowBytes(int nights) {
+        return (nights + 7) / 8;
+    }
+
+    /**
+     * Transposes per-night columns of booked flags, as returned by SMISMEMBER for the units in row order,
+     * into concatenated rows with a bit set for every night the unit is available. A column that is not a
+     * list, e.g. of a night nothing was ever written for, counts as nothing booked.
+     */
+    public static byte[] transpose(List<?> bookedColumns, int units) {
+        int rowBytes = rowBytes(bookedColumns.size());
+        byte[] rows = new byte[units * rowBytes];
+        for (int night = 0; night < bookedColumns.size(); night++) {
+            List<?> booked = bookedColumns.get(night) instanceof List<?> column ? column : List.of();
+            int offset = night >>> 3;
+            byte bit = (byte) (0x80 >>> (night & 7));
+            for (int unit = 0; unit < units; unit++) {
+                if (unit >= booked.size() || !Boolean.TRUE.equals(booked.get(unit))) {
+                    rows[unit * rowBytes + offset] |= bit;
+                }
+            }
+        }
+        return rows;
+    }
+
+    public static byte[] gzip(byte[] bytes) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+            gzip.write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+}
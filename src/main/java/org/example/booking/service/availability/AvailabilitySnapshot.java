@@ -0,0 +1,132 @@
+package org.example.booking.service.availability;
+
+import java.io.IOException;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.function.BiConsumer;
+
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Booked unit ids per date as bitsets indexed by unit id, stored in a memory-mapped file together with
+ * the time the snapshot was taken.
+ * <p>
+ * Layout: magic, version, watermark (epoch millis), first date (epoch day), number of days, words per
+ * day, followed by one fixed-size run of 64-bit words per day. Reading maps the file and decodes the
+ * words in place, so nothing but the unit ids handed to the caller is copied onto the heap.
+ */
+public final class AvailabilitySnapshot {
+
+    private static final int MAGIC = 0x424B4156;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 2 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+
+    private final Instant watermark;
+    private final LocalDate firstDate;
+    private final int dayCount;
+    private final int wordsPerDay;
+    private final LongBuffer words;
+
+    private AvailabilitySnapshot(Instant watermark, LocalDate firstDate, int dayCount, int wordsPerDay, LongBuffer words) {
+        this.watermark = watermark;
+        this.firstDate = firstDate;
+        this.dayCount = dayCount;
+        this.wordsPerDay = wordsPerDay;
+        this.words = words;
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and moves it over {@code path}, so readers never see a
+     * partially written file.
+     */
+    public static void write(Path path, Instant watermark, SortedMap<LocalDate, BitSet> bookedUnitIdsByDate)
+            throws IOException {
+        LocalDate firstDate = bookedUnitIdsByDate.isEmpty() ? LocalDate.EPOCH : bookedUnitIdsByDate.firstKey();
+        int dayCount = bookedUnitIdsByDate.isEmpty()
+                ? 0
+                : Math.toIntExact(ChronoUnit.DAYS.between(firstDate, bookedUnitIdsByDate.lastKey()) + 1);
+        int wordsPerDay = bookedUnitIdsByDate.values().stream()
+                .mapToInt(unitIds -> (unitIds.length() + Long.SIZE - 1) / Long.SIZE)
+                .max()
+                .orElse(0);
+        long size = HEADER_BYTES + (long) dayCount * wordsPerDay * Long.BYTES;
+
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        Path temporaryPath = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporaryPath, CREATE, TRUNCATE_EXISTING, READ, WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(MAGIC)
+                    .putInt(VERSION)
+                    .putLong(watermark.toEpochMilli())
+                    .putLong(firstDate.toEpochDay())
+                    .putInt(dayCount)
+                    .putInt(wordsPerDay);
+            LongBuffer words = buffer.asLongBuffer();
+            bookedUnitIdsByDate.forEach((date, unitIds) -> words.put(
+                    Math.toIntExact(ChronoUnit.DAYS.between(firstDate, date) * wordsPerDay), unitIds.toLongArray()));
+            buffer.force();
+        }
+        Files.move(temporaryPath, path, REPLACE_EXISTING, ATOMIC_MOVE);
+    }
+
+    public static AvailabilitySnapshot read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < HEADER_BYTES || buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not an availability snapshot: " + path);
+            }
+            Instant watermark = Instant.ofEpochMilli(buffer.getLong());
+            LocalDate firstDate = LocalDate.ofEpochDay(buffer.getLong());
+            int dayCount = buffer.getInt();
+            int wordsPerDay = buffer.getInt();
+            if ((long) dayCount * wordsPerDay * Long.BYTES != buffer.remaining()) {
+                throw new IOException("Truncated availability snapshot: " + path);
+            }
+            return new AvailabilitySnapshot(watermark, firstDate, dayCount, wordsPerDay, buffer.asLongBuffer());
+        }
+    }
+
+    /**
+     * Time the snapshot's database read started; bookings changed after it are not reflected.
+     */
+    public Instant watermark() {
+        return watermark;
+    }
+
+    /**
+     * Calls {@code action} for every date with at least one booked unit.
+     */
+    public void forEachDate(BiConsumer<LocalDate, List<Long>> action) {
+        for (int day = 0; day < dayCount; day++) {
+            List<Long> unitIds = new ArrayList<>();
+            int offset = day * wordsPerDay;
+            for (int word = 0; word < wordsPerDay; word++) {
+                long bits = words.get(offset + word);
+                while (bits != 0) {
+                    unitIds.add((long) word * Long.SIZE + Long.numberOfTrailingZeros(bits));
+                    bits &= bits - 1;
+                }
+            }
+            if (!unitIds.isEmpty()) {
+                action.accept(firstDate.plusDays(day), unitIds);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package org.example.booking.service.availability;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
+import org.example.booking.dto.BookingDateRangeDto;
+import org.example.booking.repository.BookingRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+/**
+ * Periodically persists the booked dates to {@code booking.availability-cache.snapshot-path}, so a cold
+ * start only has to replay the bookings changed since, instead of scanning every active booking.
+ * Put the path on a volume shared by all nodes to let new nodes start from it as well.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "booking.availability-cache", name = "snapshot-enabled", havingValue = "true")
+public class AvailabilitySnapshotStore {
+
+    private final AvailabilityCacheProperties properties;
+    private final BookingRepository bookingRepository;
+    private final MeterRegistry meterRegistry;
+
+    public AvailabilitySnapshotStore(AvailabilityCacheProperties properties,
+                                     BookingRepository bookingRepository,
+                                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bookingRepository = bookingRepository;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Transactional(readOnly = true)
+    @Scheduled(fixedDelayString = "${booking.availability-cache.snapshot-interval:10m}",
+            initialDelayString = "${booking.availability-cache.snapshot-interval:10m}")
+    @SchedulerLock(name = "availability-snapshot-lock", lockAtMostFor = "30m")
+    @Workload(WorkloadType.BACKGROUND)
+    public void writeSnapshot() {
+        long startNanos = System.nanoTime();
+        // Taken before the read starts; replay on boot goes back a further margin to cover
+        // transactions that were in flight at this point.
+        Instant watermark = Instant.now();
+        TreeMap<LocalDate, BitSet> bookedUnitIdsByDate = new TreeMap<>();
+        try (Stream<BookingDateRangeDto> bookings = bookingRepository.streamActiveBookingRanges()) {
+            bookings.forEach(booking -> {
+                int unitId = Math.toIntExact(booking.getUnitId());
+                booking.getCheckInDate().datesUntil(booking.getCheckOutDate())
+                        .forEach(date -> bookedUnitIdsByDate.computeIfAbsent(date, d -> new BitSet()).set(unitId));
+            });
+        }
+
+        try {
+            AvailabilitySnapshot.write(properties.getSnapshotPath(), watermark, bookedUnitIdsByDate);
+        } catch (IOException e) {
+            log.warn("Could not write availability snapshot to {}", properties.getSnapshotPath(), e);
+            return;
+        }
+        Timer.builder("booking.availability.snapshot.duration")
+                .description("Duration of writing the availability snapshot")
+                .register(meterRegistry)
+                .record(Duration.ofNanos(System.nanoTime() - startNanos));
+        log.info("Wrote availability snapshot of {} dates to {}", bookedUnitIdsByDate.size(), properties.getSnapshotPath());
+    }
+
+    public Optional<AvailabilitySnapshot> read() {
+        Path path = properties.getSnapshotPath();
+        if (!Files.exists(path)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(AvailabilitySnapshot.read(path));
+        } catch (IOException e) {
+            log.warn("Ignoring unreadable availability snapshot {}", path, e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.booking.service.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.idempotency")
+public class IdempotencyProperties {
+
+    /**
+     * How long a completed response is replayed for the same Idempotency-Key.
+     */
+    private Duration responseTtl = Duration.ofHours(24);
+
+    /**
+     * How long a key stays claimed by a request that is still running; protects against crashed nodes.
+     */
+    private Duration inProgressTtl = Duration.ofSeconds(30);
+
+    /**
+     * How long a duplicate waits for the in-flight original before giving up.
+     */
+    private Duration waitTimeout = Duration.ofSeconds(10);
+
+    private Duration pollInterval = Duration.ofMillis(50);
+}
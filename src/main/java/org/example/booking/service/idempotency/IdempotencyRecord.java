@@ -0,0 +1,21 @@
+package org.example.booking.service.idempotency;
+
+/**
+ * State of an Idempotency-Key stored in Redis: claimed by a running request, or holding its response.
+ * A claim carries a random token, so that only the request that made it can complete or release it.
+ */
+record IdempotencyRecord(State state, String fingerprint, String token, Integer status, String body) {
+
+    enum State {
+        IN_PROGRESS,
+        COMPLETED
+    }
+
+    static IdempotencyRecord inProgress(String fingerprint, String token) {
+        return new IdempotencyRecord(State.IN_PROGRESS, fingerprint, token, null, null);
+    }
+
+    static IdempotencyRecord completed(String fingerprint, int status, String body) {
+        return new IdempotencyRecord(State.COMPLETED, fingerprint, null, status, body);
+    }
+}
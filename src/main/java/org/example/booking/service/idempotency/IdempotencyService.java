@@ -0,0 +1,189 @@
+package org.example.booking.service.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.example.booking.exception.BookingException;
+import org.example.booking.exception.InvalidRequestException;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.util.DigestUtils;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Makes POST requests safe to retry. The first request with a given Idempotency-Key claims it in Redis and
+ * stores its successful response; duplicates arriving while it runs wait for that response, and later
+ * duplicates get it replayed without touching the database.
+ * <p>
+ * Keys are scoped by operation only, not by client address, so a retry from a phone that switched networks
+ * still finds its key; the payload fingerprint rejects a key reused for a different request. Failed requests
+ * release their key, so a retry after an error is executed again. Completing and releasing compare the claim
+ * first: once a claim has expired and a retry has claimed the key, the original request leaves it alone.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(IdempotencyProperties.class)
+public class IdempotencyService {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String KEY_PREFIX = "booking-service:idempotency:";
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+            return 1
+            """, Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>("""
+            if redis.call('GET', KEYS[1]) ~= ARGV[1] then
+                return 0
+            end
+            return redis.call('DEL', KEYS[1])
+            """, Long.class);
+
+    private final IdempotencyProperties properties;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyService(IdempotencyProperties properties,
+                              StringRedisTemplate stringRedisTemplate,
+                              ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param idempotencyKey the client supplied key, or {@code null} to execute the action unconditionally
+     * @param operation      name of the operation, keys are only unique within it
+     * @param request        the request payload; reusing a key with a different payload is rejected
+     */
+    public <T> ResponseEntity<T> execute(String idempotencyKey, String operation, Object request,
+                                         Class<T> responseType, Supplier<ResponseEntity<T>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidRequestException(IDEMPOTENCY_KEY_HEADER + " must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+
+        String redisKey = KEY_PREFIX + operation + ':' + idempotencyKey;
+        String fingerprint = fingerprint(operation, request);
+        long deadline = System.nanoTime() + properties.getWaitTimeout().toNanos();
+
+        while (true) {
+            IdempotencyRecord record = read(redisKey);
+            if (record == null) {
+                String claim = toJson(IdempotencyRecord.inProgress(fingerprint, UUID.randomUUID().toString()));
+                if (claim(redisKey, claim)) {
+                    return executeAndStore(redisKey, claim, fingerprint, action);
+                }
+                continue;
+            }
+            if (!fingerprint.equals(record.fingerprint())) {
+                throw new InvalidRequestException(IDEMPOTENCY_KEY_HEADER + " was already used for a different request");
+            }
+            if (record.state() == IdempotencyRecord.State.COMPLETED) {
+                log.debug("Replaying stored response for {}", redisKey);
+                return replay(record, responseType);
+            }
+            if (System.nanoTime() > deadline) {
+                throw new BookingException("A request with the same " + IDEMPOTENCY_KEY_HEADER + " is still in progress.");
+            }
+            sleep();
+        }
+    }
+
+    private <T> ResponseEntity<T> executeAndStore(String redisKey, String claim, String fingerprint,
+                                                  Supplier<ResponseEntity<T>> action) {
+        ResponseEntity<T> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            release(redisKey, claim);
+            throw e;
+        }
+
+        if (response.getStatusCode().is2xxSuccessful()) {
+            var record = IdempotencyRecord.completed(
+                    fingerprint, response.getStatusCode().value(), toJson(response.getBody()));
+            Long stored = stringRedisTemplate.execute(COMPLETE_SCRIPT, List.of(redisKey), claim, toJson(record),
+                    String.valueOf(properties.getResponseTtl().toMillis()));
+            if (!Long.valueOf(1).equals(stored)) {
+                log.warn("Claim on {} expired before its request completed; the response is not stored", redisKey);
+            }
+        } else {
+            release(redisKey, claim);
+        }
+        return response;
+    }
+
+    private boolean claim(String redisKey, String claim) {
+        Boolean claimed = stringRedisTemplate.opsForValue().setIfAbsent(redisKey, claim, properties.getInProgressTtl());
+        return Boolean.TRUE.equals(claimed);
+    }
+
+    private void release(String redisKey, String claim) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT, List.of(redisKey), claim);
+    }
+
+    private IdempotencyRecord read(String redisKey) {
+        String value = stringRedisTemplate.opsForValue().get(redisKey);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(value, IdempotencyRecord.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted idempotency record " + redisKey, e);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(IdempotencyRecord record, Class<T> responseType) {
+        T body;
+        try {
+            body = objectMapper.readValue(record.body(), responseType);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Corrupted idempotent response", e);
+        }
+        return ResponseEntity.status(record.status()).header(REPLAYED_HEADER, "true").body(body);
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            byte[] payload = objectMapper.writeValueAsBytes(request);
+            return operation + ':' + DigestUtils.md5DigestAsHex(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Cannot fingerprint request", e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize " + value.getClass().getSimpleName(), e);
+        }
+    }
+
+    private void sleep() {
+        try {
+            Thread.sleep(properties.getPollInterval().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for an in-flight request", e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.example.booking.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import org.example.booking.service.support.BookingObservations;
+
+/**
+ * A booking operation, e.g. creating a booking or the expiry job, as observed by {@link BookingObservations}.
+ */
+@Name(BookingOperationEvent.NAME)
+@Label("Booking Operation")
+@Category("Booking")
+@Description("A booking operation from start to end")
+@StackTrace(false)
+class BookingOperationEvent extends jdk.jfr.Event {
+
+    static final String NAME = "org.example.booking.Operation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+}
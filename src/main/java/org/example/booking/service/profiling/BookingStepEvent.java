@@ -0,0 +1,29 @@
+package org.example.booking.service.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One step of a {@link BookingOperationEvent}, e.g. waiting for the unit lock.
+ */
+@Name(BookingStepEvent.NAME)
+@Label("Booking Step")
+@Category("Booking")
+@Description("A step of a booking operation, such as a lock wait, a query or a Redis pipeline")
+@StackTrace(false)
+class BookingStepEvent extends jdk.jfr.Event {
+
+    static final String NAME = "org.example.booking.Step";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Step")
+    String step;
+
+    @Label("Outcome")
+    String outcome;
+}
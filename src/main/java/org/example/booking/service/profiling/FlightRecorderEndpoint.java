@@ -0,0 +1,50 @@
+package org.example.booking.service.profiling;
+
+import lombok.AllArgsConstructor;
+import org.example.booking.service.profiling.FlightRecorderService.RecordingOptions;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+
+/**
+ * {@code POST /actuator/flightrecorder} records the node for {@code duration} and streams the {@code .jfr}
+ * file back, e.g. {@code {"duration": "60s", "locks": true, "socketIo": true}}. Booking events are on unless
+ * {@code bookingEvents} is false. Answers 409 while another recording is running.
+ */
+@Component
+@AllArgsConstructor
+@WebEndpoint(id = "flightrecorder")
+public class FlightRecorderEndpoint {
+
+    private final FlightRecorderService flightRecorderService;
+
+    @WriteOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> record(@Nullable Duration duration, @Nullable String settings,
+                                                @Nullable Boolean allocation, @Nullable Boolean locks,
+                                                @Nullable Boolean socketIo, @Nullable Boolean bookingEvents)
+            throws IOException, InterruptedException {
+        RecordingOptions options = new RecordingOptions(duration, settings, Boolean.TRUE.equals(allocation),
+                Boolean.TRUE.equals(locks), Boolean.TRUE.equals(socketIo), !Boolean.FALSE.equals(bookingEvents));
+        Path file;
+        try {
+            file = flightRecorderService.record(options);
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(409);
+        }
+        // The file is deleted once the response has been streamed
+        return new WebEndpointResponse<>(
+                new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE)));
+    }
+}
@@ -0,0 +1,60 @@
+package org.example.booking.service.profiling;
+
+import io.micrometer.common.KeyValue;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jdk.jfr.Event;
+import org.example.booking.service.support.BookingObservations;
+import org.springframework.stereotype.Component;
+
+/**
+ * Emits booking operations and their steps as JFR events, so a recording shows which request was in which
+ * step next to the samples, lock waits and socket reads of the same thread. Costs next to nothing unless a
+ * recording with the events enabled is running.
+ */
+@Component
+public class FlightRecorderObservationHandler implements ObservationHandler<Observation.Context> {
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return BookingObservations.OPERATION_METRIC.equals(context.getName())
+                || BookingObservations.STEP_METRIC.equals(context.getName());
+    }
+
+    @Override
+    public void onStart(Observation.Context context) {
+        Event event = BookingObservations.STEP_METRIC.equals(context.getName())
+                ? new BookingStepEvent()
+                : new BookingOperationEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            context.put(Event.class, event);
+        }
+    }
+
+    @Override
+    public void onStop(Observation.Context context) {
+        Event event = context.get(Event.class);
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        if (event instanceof BookingStepEvent stepEvent) {
+            stepEvent.operation = value(context, "operation");
+            stepEvent.step = value(context, "step");
+            stepEvent.outcome = value(context, "outcome");
+        } else if (event instanceof BookingOperationEvent operationEvent) {
+            operationEvent.operation = value(context, "operation");
+            operationEvent.outcome = value(context, "outcome");
+        }
+        event.commit();
+    }
+
+    private static String value(Observation.Context context, String key) {
+        KeyValue keyValue = context.getLowCardinalityKeyValue(key);
+        return keyValue != null ? keyValue.getValue() : null;
+    }
+}
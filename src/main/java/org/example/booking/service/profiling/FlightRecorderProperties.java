@@ -0,0 +1,36 @@
+package org.example.booking.service.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "booking.flight-recorder")
+public class FlightRecorderProperties {
+
+    /**
+     * Recording length when the request does not specify one.
+     */
+    private Duration defaultDuration = Duration.ofSeconds(30);
+
+    /**
+     * Longest recording that can be requested; the request thread is held for the whole recording.
+     */
+    private Duration maxDuration = Duration.ofMinutes(5);
+
+    /**
+     * JFR configuration the recording starts from, {@code default} or {@code profile}.
+     */
+    private String settings = "profile";
+
+    /**
+     * Monitor waits and parks shorter than this are not recorded when lock contention is requested.
+     */
+    private Duration lockThreshold = Duration.ofMillis(10);
+
+    /**
+     * Socket reads and writes shorter than this are not recorded when socket I/O is requested.
+     */
+    private Duration socketThreshold = Duration.ofMillis(10);
+}
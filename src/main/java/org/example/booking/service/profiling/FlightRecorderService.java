@@ -0,0 +1,126 @@
+package org.example.booking.service.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Time-bounded Java Flight Recorder sessions on the running node. One recording at a time: it starts from a
+ * JFR configuration and enables the requested extras on top, then is dumped to a temporary file.
+ */
+@Slf4j
+@Service
+@EnableConfigurationProperties(FlightRecorderProperties.class)
+public class FlightRecorderService {
+
+    private final FlightRecorderProperties properties;
+    private final AtomicBoolean recording = new AtomicBoolean();
+
+    public FlightRecorderService(FlightRecorderProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * What to record. Unset values fall back to the configured defaults.
+     *
+     * @param allocation    sample object allocations with their stack traces
+     * @param locks         contended monitor enters and parks above the lock threshold
+     * @param socketIo      socket reads and writes above the socket threshold
+     * @param bookingEvents booking operations and steps, see {@link FlightRecorderObservationHandler}
+     */
+    public record RecordingOptions(Duration duration, String settings, boolean allocation, boolean locks,
+                                   boolean socketIo, boolean bookingEvents) {
+    }
+
+    /**
+     * Records for the requested duration on the calling thread. Environment variables, system properties and the
+     * JVM and Java arguments are never recorded.
+     *
+     * @return the recording; the caller is responsible for deleting it
+     * @throws IllegalArgumentException if the duration or settings are invalid
+     * @throws IllegalStateException    if another recording is running
+     */
+    public Path record(RecordingOptions options) throws IOException, InterruptedException {
+        Duration duration = options.duration() != null ? options.duration() : properties.getDefaultDuration();
+        if (duration.isNegative() || duration.isZero() || duration.compareTo(properties.getMaxDuration()) > 0) {
+            throw new IllegalArgumentException("duration must be positive and at most " + properties.getMaxDuration());
+        }
+        Map<String, String> settings = settingsFor(options);
+
+        if (!recording.compareAndSet(false, true)) {
+            throw new IllegalStateException("Another flight recording is in progress");
+        }
+        try (Recording jfr = new Recording(settings)) {
+            jfr.setName("booking-" + Instant.now());
+            jfr.setToDisk(true);
+            log.info("Starting flight recording {} for {} ({})", jfr.getName(), duration, options);
+            jfr.start();
+            try {
+                Thread.sleep(duration);
+            } finally {
+                jfr.stop();
+            }
+            Path file = Files.createTempFile("booking-", ".jfr");
+            jfr.dump(file);
+            log.info("Flight recording {} written to {} ({} bytes)", jfr.getName(), file, Files.size(file));
+            return file;
+        } finally {
+            recording.set(false);
+        }
+    }
+
+    Map<String, String> settingsFor(RecordingOptions options) {
+        String name = options.settings() != null ? options.settings() : properties.getSettings();
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<>(Configuration.getConfiguration(name).getSettings());
+        } catch (IOException | ParseException e) {
+            throw new IllegalArgumentException("Unknown JFR settings: " + name, e);
+        }
+
+        if (options.allocation()) {
+            settings.put("jdk.ObjectAllocationSample#enabled", "true");
+            settings.put("jdk.ObjectAllocationSample#throttle", "300/s");
+            settings.put("jdk.ObjectAllocationSample#stackTrace", "true");
+        }
+        if (options.locks()) {
+            String threshold = threshold(properties.getLockThreshold());
+            for (String event : new String[]{"jdk.JavaMonitorEnter", "jdk.JavaMonitorWait", "jdk.ThreadPark"}) {
+                settings.put(event + "#enabled", "true");
+                settings.put(event + "#threshold", threshold);
+                settings.put(event + "#stackTrace", "true");
+            }
+        }
+        if (options.socketIo()) {
+            String threshold = threshold(properties.getSocketThreshold());
+            for (String event : new String[]{"jdk.SocketRead", "jdk.SocketWrite"}) {
+                settings.put(event + "#enabled", "true");
+                settings.put(event + "#threshold", threshold);
+                settings.put(event + "#stackTrace", "true");
+            }
+        }
+        settings.put(BookingOperationEvent.NAME + "#enabled", String.valueOf(options.bookingEvents()));
+        settings.put(BookingStepEvent.NAME + "#enabled", String.valueOf(options.bookingEvents()));
+        // The environment, system properties and command line arguments can hold the database and Redis credentials
+        settings.put("jdk.InitialEnvironmentVariable#enabled", "false");
+        settings.put("jdk.InitialSystemProperty#enabled", "false");
+        settings.put("jdk.JVMInformation#enabled", "false");
+        return settings;
+    }
+
+    private static String threshold(Duration duration) {
+        return duration.toMillis() + " ms";
+    }
+}
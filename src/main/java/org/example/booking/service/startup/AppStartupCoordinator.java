@@ -1,30 +1,79 @@
 package org.example.booking.service.startup;
 
-import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
-import org.example.booking.service.UnitAvailabilityService;
+import org.example.booking.service.availability.AvailabilityCacheRebuilder;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
 
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs the startup tasks in the background, so the application starts listening right away. Readiness
+ * is held back by {@link org.example.booking.service.availability.AvailabilityCacheHealthIndicator}
+ * until the tasks have completed.
+ */
 @Slf4j
 @Component
-@AllArgsConstructor
-public class AppStartupCoordinator implements CommandLineRunner {
+public class AppStartupCoordinator implements CommandLineRunner, DisposableBean {
 
     private final DataGenerator dataGenerator;
-    private final UnitAvailabilityService unitAvailabilityService;
+    private final ScaleDataGenerator scaleDataGenerator;
+    private final AvailabilityCacheRebuilder availabilityCacheRebuilder;
+    private final ExecutorService executor = Executors.newCachedThreadPool(
+            Thread.ofPlatform().name("app-startup-", 0).daemon().factory());
+
+    private volatile StartupStatus status = StartupStatus.NOT_STARTED;
+    private volatile Throwable failure;
+
+    public AppStartupCoordinator(DataGenerator dataGenerator,
+                                 ScaleDataGenerator scaleDataGenerator,
+                                 AvailabilityCacheRebuilder availabilityCacheRebuilder) {
+        this.dataGenerator = dataGenerator;
+        this.scaleDataGenerator = scaleDataGenerator;
+        this.availabilityCacheRebuilder = availabilityCacheRebuilder;
+    }
 
     @Override
-    @SchedulerLock(name = "application-startup-lock")
     public void run(String... args) {
         log.info("Starting application initialization...");
-        try {
-            dataGenerator.generateData();
-            unitAvailabilityService.initializeUnitAvailabilityCache();
-            log.info("Application initialization completed successfully.");
-        } catch (Exception e) {
-            throw new RuntimeException("Failed during application initialization", e);
-        }
+        status = StartupStatus.RUNNING;
+        new StartupTaskGraph()
+                .add("generate-data", dataGenerator::generateData)
+                .add("generate-scale-data", scaleDataGenerator::generateData, "generate-data")
+                .add("availability-cache", availabilityCacheRebuilder::initializeUnitAvailabilityCache, "generate-scale-data")
+                .run(executor)
+                .whenComplete((ignored, e) -> {
+                    if (e == null) {
+                        status = StartupStatus.COMPLETED;
+                        log.info("Application initialization completed successfully.");
+                    } else {
+                        failure = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                        status = StartupStatus.FAILED;
+                        log.error("Application initialization failed; the node stays out of rotation.", failure);
+                    }
+                });
+    }
+
+    public StartupStatus getStatus() {
+        return status;
+    }
+
+    public Throwable getFailure() {
+        return failure;
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+
+    public enum StartupStatus {
+        NOT_STARTED,
+        RUNNING,
+        COMPLETED,
+        FAILED
     }
 }
@@ -2,7 +2,10 @@ package org.example.booking.service.startup;
 
 import lombok.AllArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
 import org.example.booking.config.AppConfig;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
 import org.example.booking.model.AccommodationType;
 import org.example.booking.model.Unit;
 import org.example.booking.model.UnitEventType;
@@ -29,6 +32,8 @@ public class DataGenerator {
     private final UnitRepository unitRepository;
     private final UnitEventService unitEventService;
 
+    @SchedulerLock(name = "data-generation-lock", lockAtMostFor = "10m")
+    @Workload(WorkloadType.BACKGROUND)
     public void generateData() {
         if (!appConfig.isGenerateData()) {
             log.info("Data generation disabled.");
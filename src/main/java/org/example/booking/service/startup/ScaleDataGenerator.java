@@ -0,0 +1,357 @@
+package org.example.booking.service.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import net.javacrumbs.shedlock.spring.annotation.SchedulerLock;
+import org.example.booking.config.AppConfig;
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
+import org.example.booking.repository.UnitRepository;
+import org.example.booking.service.MarkupService;
+import org.example.booking.service.availability.AvailabilityCacheRebuilder;
+import org.example.booking.service.startup.ScaleDataset.BookingRow;
+import org.example.booking.service.startup.ScaleDataset.UnitRow;
+import org.example.booking.service.startup.ScaleDataset.UserRow;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seeds a production-sized dataset for reproducing performance problems locally: units, users, bookings,
+ * payments and unit events.
+ * <p>
+ * Ids are reserved from the table sequences up front, so units, users and bookings can be streamed with
+ * {@code COPY} by several writers at once, each writing its own id range. Payments and events are derived
+ * from the bookings with {@code INSERT ... SELECT} per id range. The availability cache is rebuilt at the end.
+ * <p>
+ * Runs once per database. Each run is recorded in {@code scale_data_runs} with its id ranges, and marked
+ * completed after the final {@code ANALYZE}. A completed run means there is nothing to do; the rows of a run
+ * that was interrupted are deleted before generating again.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(ScaleDataProperties.class)
+public class ScaleDataGenerator {
+
+    private static final int COPY_BUFFER_SIZE = 1 << 20;
+    private static final String EVENT_DETAILS = "Generated for load testing";
+
+    private static final String COPY_UNITS = "COPY units (id, number_of_rooms, accommodation_type, floor, base_cost, "
+            + "description, created_at) FROM STDIN (FORMAT csv)";
+    private static final String COPY_USERS = "COPY users (id, username, email, created_at) FROM STDIN (FORMAT csv)";
+    private static final String COPY_BOOKINGS = "COPY bookings (id, unit_id, user_id, check_in_date, check_out_date, "
+            + "status, total_cost, created_at, updated_at, expires_at) FROM STDIN (FORMAT csv)";
+
+    private static final String INSERT_UNIT_EVENTS = """
+            INSERT INTO unit_events (unit_id, event_type, details, created_at)
+            SELECT id, 'UNIT_CREATED', ?, created_at FROM units WHERE id BETWEEN ? AND ?""";
+    private static final String INSERT_BOOKING_EVENTS = """
+            INSERT INTO unit_events (unit_id, booking_id, event_type, details, created_at)
+            SELECT unit_id, id, 'BOOKING_CREATED', ?, created_at FROM bookings WHERE id BETWEEN ? AND ?
+            UNION ALL
+            SELECT unit_id, id, 'BOOKING_' || status, ?, updated_at FROM bookings
+            WHERE id BETWEEN ? AND ? AND status <> 'PENDING'""";
+    // Confirmed bookings were paid; every third expired booking had a declined payment.
+    private static final String INSERT_PAYMENTS = """
+            INSERT INTO payments (booking_id, status, amount, paid_at)
+            SELECT id, CASE WHEN status = 'CONFIRMED' THEN 'SUCCESSFUL' ELSE 'FAILED' END, total_cost, updated_at
+            FROM bookings
+            WHERE id BETWEEN ? AND ? AND (status = 'CONFIRMED' OR (status = 'EXPIRED' AND id % 3 = 0))""";
+
+    private static final String INSERT_RUN = """
+            INSERT INTO scale_data_runs (seed, first_unit_id, last_unit_id, first_user_id, last_user_id,
+                                         first_booking_id, last_booking_id)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            RETURNING id""";
+    // Bookings the application made for generated units or users during the interrupted run go too,
+    // otherwise their foreign keys would keep the generated rows.
+    private static final String[] DELETE_INCOMPLETE_RUNS = {
+            """
+            DELETE FROM unit_events e USING scale_data_runs r
+            WHERE r.completed_at IS NULL AND e.unit_id BETWEEN r.first_unit_id AND r.last_unit_id""",
+            """
+            DELETE FROM unit_events e USING bookings b, scale_data_runs r
+            WHERE r.completed_at IS NULL AND e.booking_id = b.id
+              AND b.user_id BETWEEN r.first_user_id AND r.last_user_id""",
+            """
+            DELETE FROM bookings b USING scale_data_runs r
+            WHERE r.completed_at IS NULL AND (b.unit_id BETWEEN r.first_unit_id AND r.last_unit_id
+                OR b.user_id BETWEEN r.first_user_id AND r.last_user_id)""",
+            """
+            DELETE FROM users u USING scale_data_runs r
+            WHERE r.completed_at IS NULL AND u.id BETWEEN r.first_user_id AND r.last_user_id""",
+            """
+            DELETE FROM units u USING scale_data_runs r
+            WHERE r.completed_at IS NULL AND u.id BETWEEN r.first_unit_id AND r.last_unit_id""",
+            "DELETE FROM scale_data_runs WHERE completed_at IS NULL"
+    };
+
+    private final ScaleDataProperties properties;
+    private final AppConfig appConfig;
+    private final MarkupService markupService;
+    private final UnitRepository unitRepository;
+    private final AvailabilityCacheRebuilder availabilityCacheRebuilder;
+    private final JdbcTemplate jdbcTemplate;
+
+    public ScaleDataGenerator(ScaleDataProperties properties,
+                              AppConfig appConfig,
+                              MarkupService markupService,
+                              UnitRepository unitRepository,
+                              AvailabilityCacheRebuilder availabilityCacheRebuilder,
+                              DataSource dataSource) {
+        this.properties = properties;
+        this.appConfig = appConfig;
+        this.markupService = markupService;
+        this.unitRepository = unitRepository;
+        this.availabilityCacheRebuilder = availabilityCacheRebuilder;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @SchedulerLock(name = "scale-data-generation-lock", lockAtMostFor = "4h")
+    @Workload(WorkloadType.BACKGROUND)
+    public void generateData() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (hasCompletedRun()) {
+            log.info("Scale dataset already exists. Skipping scale data generation.");
+            return;
+        }
+        deleteIncompleteRuns();
+        if (unitRepository.countByDescriptionEquals(ScaleDataset.UNIT_DESCRIPTION) > 0) {
+            log.warn("Scale dataset units exist, but no generation run is recorded for them. "
+                    + "Delete them to generate the dataset again. Skipping scale data generation.");
+            return;
+        }
+
+        LocalDate anchorDate = properties.getAnchorDate() != null ? properties.getAnchorDate() : LocalDate.now();
+        ScaleDataset dataset = new ScaleDataset(properties, anchorDate,
+                Duration.ofMinutes(appConfig.getCancellationMinutes()), markupService::calculateTotalUnitCost);
+        log.info("Generating scale dataset with seed {} around {}: {} units, {} users, {} bookings, {} writers",
+                properties.getSeed(), anchorDate, dataset.units(), dataset.users(), dataset.bookings(),
+                properties.getWriters());
+
+        long firstUnitId = reserveIds("units", dataset.units());
+        long firstUserId = reserveIds("users", dataset.users());
+        long firstBookingId = reserveIds("bookings", dataset.bookings());
+        long lastUnitId = firstUnitId + dataset.units() - 1;
+        long lastBookingId = firstBookingId + dataset.bookings() - 1;
+        Long runId = jdbcTemplate.queryForObject(INSERT_RUN, Long.class, properties.getSeed(),
+                firstUnitId, lastUnitId, firstUserId, firstUserId + dataset.users() - 1, firstBookingId, lastBookingId);
+        int chunkRows = properties.getChunkRows();
+        long unitsPerBookingChunk = Math.max(1, chunkRows / Math.max(1, dataset.bookings() / dataset.units()));
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getWriters(),
+                Thread.ofPlatform().name("scale-data-writer-", 0).daemon().factory());
+        try {
+            List<Runnable> tasks = new ArrayList<>();
+            forEachChunk(dataset.units(), chunkRows, (from, to) -> tasks.add(() ->
+                    copy(COPY_UNITS, from, to, (buffer, index) -> appendUnit(buffer, dataset.unit(index), firstUnitId))));
+            forEachChunk(dataset.users(), chunkRows, (from, to) -> tasks.add(() ->
+                    copy(COPY_USERS, from, to, (buffer, index) -> appendUser(buffer, dataset.user(index), firstUserId))));
+            runInParallel(executor, "units and users", tasks);
+
+            forEachChunk(dataset.units(), unitsPerBookingChunk, (from, to) -> tasks.add(() ->
+                    copy(COPY_BOOKINGS, from, to, (buffer, index) -> {
+                        for (BookingRow booking : dataset.bookingsOfUnit(index)) {
+                            appendBooking(buffer, booking, firstBookingId, firstUnitId, firstUserId);
+                        }
+                    })));
+            runInParallel(executor, "bookings", tasks);
+
+            forEachChunk(dataset.units(), chunkRows, (from, to) -> tasks.add(() -> jdbcTemplate.update(
+                    INSERT_UNIT_EVENTS, EVENT_DETAILS, firstUnitId + from, firstUnitId + to - 1)));
+            forEachChunk(dataset.bookings(), chunkRows, (from, to) -> tasks.add(() -> {
+                long fromId = firstBookingId + from;
+                long toId = firstBookingId + to - 1;
+                jdbcTemplate.update(INSERT_PAYMENTS, fromId, toId);
+                jdbcTemplate.update(INSERT_BOOKING_EVENTS, EVENT_DETAILS, fromId, toId, EVENT_DETAILS, fromId, toId);
+            }));
+            runInParallel(executor, "payments and events", tasks);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        jdbcTemplate.execute("ANALYZE units, users, bookings, payments, unit_events");
+        jdbcTemplate.update("UPDATE scale_data_runs SET completed_at = CURRENT_TIMESTAMP WHERE id = ?", runId);
+        log.info("Scale dataset generated: units {}..{}, bookings {}..{}", firstUnitId, lastUnitId,
+                firstBookingId, lastBookingId);
+        availabilityCacheRebuilder.rebuild();
+    }
+
+    private boolean hasCompletedRun() {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM scale_data_runs WHERE completed_at IS NOT NULL)", Boolean.class));
+    }
+
+    private void deleteIncompleteRuns() {
+        Integer incomplete = jdbcTemplate.queryForObject(
+                "SELECT count(*) FROM scale_data_runs WHERE completed_at IS NULL", Integer.class);
+        if (incomplete == null || incomplete == 0) {
+            return;
+        }
+        log.info("Deleting the rows of {} interrupted scale data generation run(s)", incomplete);
+        inTransaction(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                for (String sql : DELETE_INCOMPLETE_RUNS) {
+                    statement.executeUpdate(sql);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Takes {@code count} ids from the table's sequence. Inserts into the table are blocked until the range is
+     * reserved, so rows inserted concurrently by the application get ids after it.
+     */
+    private long reserveIds(String table, long count) {
+        return inTransaction(connection -> {
+            try (Statement lock = connection.createStatement();
+                 PreparedStatement reserve = connection.prepareStatement(
+                         "SELECT setval(pg_get_serial_sequence(?, 'id'), nextval(pg_get_serial_sequence(?, 'id')) + ? - 1)")) {
+                lock.execute("LOCK TABLE " + table + " IN EXCLUSIVE MODE");
+                reserve.setString(1, table);
+                reserve.setString(2, table);
+                reserve.setLong(3, count);
+                try (ResultSet resultSet = reserve.executeQuery()) {
+                    resultSet.next();
+                    return resultSet.getLong(1) - count + 1;
+                }
+            }
+        });
+    }
+
+    private <T> T inTransaction(ConnectionCallback<T> action) {
+        return jdbcTemplate.execute((ConnectionCallback<T>) connection -> {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                T result = action.doInConnection(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        });
+    }
+
+    private long copy(String sql, long fromIndex, long toIndex, RowAppender appender) {
+        return jdbcTemplate.execute((ConnectionCallback<Long>) connection -> {
+            CopyIn copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(sql);
+            try {
+                StringBuilder buffer = new StringBuilder(COPY_BUFFER_SIZE + 4096);
+                for (long index = fromIndex; index < toIndex; index++) {
+                    appender.append(buffer, index);
+                    if (buffer.length() >= COPY_BUFFER_SIZE) {
+                        flush(copyIn, buffer);
+                    }
+                }
+                flush(copyIn, buffer);
+                return copyIn.endCopy();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        });
+    }
+
+    private static void flush(CopyIn copyIn, StringBuilder buffer) throws SQLException {
+        byte[] bytes = buffer.toString().getBytes(StandardCharsets.UTF_8);
+        copyIn.writeToCopy(bytes, 0, bytes.length);
+        buffer.setLength(0);
+    }
+
+    private static void runInParallel(ExecutorService executor, String phase, List<Runnable> tasks) {
+        long startNanos = System.nanoTime();
+        List<Future<?>> futures = tasks.stream().<Future<?>>map(executor::submit).toList();
+        tasks.clear();
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e.getCause() instanceof RuntimeException runtimeException
+                    ? runtimeException
+                    : new IllegalStateException("Scale data generation failed while writing " + phase, e.getCause());
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing " + phase, e);
+        }
+        log.info("Scale data: wrote {} in {} chunks in {} ms", phase, futures.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private static void forEachChunk(long count, long chunkSize, ChunkConsumer consumer) {
+        for (long from = 0; from < count; from += chunkSize) {
+            consumer.accept(from, Math.min(from + chunkSize, count));
+        }
+    }
+
+    private static void appendUnit(StringBuilder buffer, UnitRow unit, long firstId) {
+        buffer.append(firstId + unit.index()).append(',')
+                .append(unit.numberOfRooms()).append(',')
+                .append(unit.accommodationType()).append(',')
+                .append(unit.floor()).append(',')
+                .append(unit.baseCost()).append(',')
+                .append(ScaleDataset.UNIT_DESCRIPTION).append(',')
+                .append(unit.createdAt()).append('\n');
+    }
+
+    private static void appendUser(StringBuilder buffer, UserRow user, long firstId) {
+        buffer.append(firstId + user.index()).append(',')
+                .append(user.username()).append(',')
+                .append(user.email()).append(',')
+                .append(user.createdAt()).append('\n');
+    }
+
+    private static void appendBooking(StringBuilder buffer, BookingRow booking,
+                                      long firstId, long firstUnitId, long firstUserId) {
+        buffer.append(firstId + booking.index()).append(',')
+                .append(firstUnitId + booking.unitIndex()).append(',')
+                .append(firstUserId + booking.userIndex()).append(',')
+                .append(booking.checkInDate()).append(',')
+                .append(booking.checkOutDate()).append(',')
+                .append(booking.status()).append(',')
+                .append(booking.totalCost()).append(',')
+                .append(booking.createdAt()).append(',');
+        if (booking.updatedAt() != null) {
+            buffer.append(booking.updatedAt());
+        }
+        buffer.append(',').append(booking.expiresAt()).append('\n');
+    }
+
+    @FunctionalInterface
+    private interface RowAppender {
+        void append(StringBuilder buffer, long index);
+    }
+
+    @FunctionalInterface
+    private interface ChunkConsumer {
+        void accept(long from, long to);
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.booking.service.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.LocalDate;
+
+@Data
+@ConfigurationProperties(prefix = "booking.scale-data")
+public class ScaleDataProperties {
+
+    private boolean enabled = false;
+
+    /**
+     * Same seed and anchor date, same rows.
+     */
+    private long seed = 42;
+
+    /**
+     * Date the booking calendar is laid out around; today if not set.
+     */
+    private LocalDate anchorDate;
+
+    private long units = 1_000_000;
+
+    private long users = 200_000;
+
+    private long bookings = 10_000_000;
+
+    /**
+     * Bookings are spread over this many days before and after the anchor date.
+     */
+    private int pastDays = 365;
+
+    private int futureDays = 365;
+
+    /**
+     * Number of parallel COPY streams, each holding a connection of the primary pool.
+     */
+    private int writers = 4;
+
+    /**
+     * Units or users per COPY statement; bookings are copied for this many units at a time divided by the
+     * bookings per unit.
+     */
+    private int chunkRows = 50_000;
+}
@@ -0,0 +1,203 @@
+package org.example.booking.service.startup;
+
+import org.example.booking.model.AccommodationType;
+import org.example.booking.model.BookingStatus;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.function.UnaryOperator;
+
+/**
+ * Deterministic synthetic dataset. Every row is derived from the seed and its own index only, so chunks
+ * can be generated by parallel writers in any order and still produce the same data.
+ * <p>
+ * Each unit's calendar is cut into equal slots, one booking per slot, which keeps the bookings of a unit
+ * from overlapping whatever their status. Stays follow a short-stay-heavy length distribution; bookings
+ * in the past are mostly confirmed, a few are cancelled or expired, and only future bookings may still
+ * be pending.
+ */
+class ScaleDataset {
+
+    static final String UNIT_DESCRIPTION = "Generated for load testing";
+
+    private static final long UNIT_SALT = 1;
+    private static final long USER_SALT = 2;
+    private static final long BOOKING_SALT = 3;
+
+    /**
+     * Relative weight of a stay of {@code index} nights.
+     */
+    private static final int[] STAY_NIGHTS_WEIGHTS = {0, 20, 22, 17, 11, 8, 5, 9, 2, 1, 1, 1, 1, 1, 2};
+    private static final int[] STAY_NIGHTS_CUMULATIVE = cumulative(STAY_NIGHTS_WEIGHTS);
+    private static final AccommodationType[] ACCOMMODATION_TYPES = AccommodationType.values();
+
+    private final long seed;
+    private final long units;
+    private final long users;
+    private final long bookingsPerUnit;
+    private final long unitsWithExtraBooking;
+    private final LocalDate firstDate;
+    private final int slotDays;
+    private final Instant anchor;
+    private final Duration cancellationPeriod;
+    private final UnaryOperator<BigDecimal> totalCost;
+
+    ScaleDataset(ScaleDataProperties properties, LocalDate anchorDate, Duration cancellationPeriod,
+                 UnaryOperator<BigDecimal> totalCost) {
+        if (properties.getUnits() < 1 || properties.getUsers() < 1) {
+            throw new IllegalArgumentException("At least one unit and one user are required");
+        }
+        this.seed = properties.getSeed();
+        this.units = properties.getUnits();
+        this.users = properties.getUsers();
+        this.bookingsPerUnit = properties.getBookings() / units;
+        this.unitsWithExtraBooking = properties.getBookings() % units;
+        this.firstDate = anchorDate.minusDays(properties.getPastDays());
+
+        long maxBookingsPerUnit = bookingsPerUnit + (unitsWithExtraBooking > 0 ? 1 : 0);
+        int calendarDays = properties.getPastDays() + properties.getFutureDays();
+        this.slotDays = maxBookingsPerUnit == 0 ? calendarDays : (int) (calendarDays / maxBookingsPerUnit);
+        if (slotDays < 1) {
+            throw new IllegalArgumentException("%d bookings per unit do not fit into %d days"
+                    .formatted(maxBookingsPerUnit, calendarDays));
+        }
+        this.anchor = anchorDate.atStartOfDay(ZoneOffset.UTC).toInstant();
+        this.cancellationPeriod = cancellationPeriod;
+        this.totalCost = totalCost;
+    }
+
+    long units() {
+        return units;
+    }
+
+    long users() {
+        return users;
+    }
+
+    long bookings() {
+        return bookingsBefore(units);
+    }
+
+    /**
+     * @return number of bookings of the units before {@code unitIndex}, i.e. the index of its first booking
+     */
+    long bookingsBefore(long unitIndex) {
+        return unitIndex * bookingsPerUnit + Math.min(unitIndex, unitsWithExtraBooking);
+    }
+
+    UnitRow unit(long index) {
+        SplittableRandom random = random(UNIT_SALT, index);
+        return new UnitRow(
+                index,
+                random.nextInt(1, 5),
+                ACCOMMODATION_TYPES[random.nextInt(ACCOMMODATION_TYPES.length)],
+                random.nextInt(0, 21),
+                BigDecimal.valueOf(random.nextDouble(50.0, 500.0)).setScale(2, RoundingMode.HALF_UP),
+                anchor.minus(Duration.ofSeconds(random.nextLong(Duration.ofDays(3 * 365).toSeconds()))));
+    }
+
+    UserRow user(long index) {
+        SplittableRandom random = random(USER_SALT, index);
+        return new UserRow(
+                index,
+                "Load Test User " + index,
+                "user-" + index + "@load-test.example.com",
+                anchor.minus(Duration.ofSeconds(random.nextLong(Duration.ofDays(3 * 365).toSeconds()))));
+    }
+
+    List<BookingRow> bookingsOfUnit(long unitIndex) {
+        SplittableRandom random = random(BOOKING_SALT, unitIndex);
+        BigDecimal cost = totalCost.apply(unit(unitIndex).baseCost());
+        long first = bookingsBefore(unitIndex);
+        int count = (int) (bookingsBefore(unitIndex + 1) - first);
+
+        List<BookingRow> bookings = new ArrayList<>(count);
+        for (int slot = 0; slot < count; slot++) {
+            int nights = Math.min(stayNights(random), slotDays);
+            LocalDate checkIn = firstDate.plusDays((long) slot * slotDays + random.nextInt(slotDays - nights + 1));
+            LocalDate checkOut = checkIn.plusDays(nights);
+            bookings.add(booking(random, first + slot, unitIndex, checkIn, checkOut, cost));
+        }
+        return bookings;
+    }
+
+    private BookingRow booking(SplittableRandom random, long index, long unitIndex,
+                               LocalDate checkIn, LocalDate checkOut, BigDecimal cost) {
+        BookingStatus status = status(random, checkIn);
+        long userIndex = random.nextLong(users);
+
+        Instant createdAt;
+        Instant updatedAt;
+        if (status == BookingStatus.PENDING) {
+            createdAt = anchor.minusSeconds(random.nextLong(cancellationPeriod.toSeconds() + 1));
+            updatedAt = null;
+        } else {
+            Instant checkInStart = checkIn.atStartOfDay(ZoneOffset.UTC).toInstant();
+            Instant booked = checkInStart.minus(Duration.ofDays(random.nextInt(1, 91)))
+                    .plusSeconds(random.nextInt(86_400));
+            Instant latest = anchor.minus(cancellationPeriod);
+            createdAt = booked.isAfter(latest) ? latest : booked;
+            updatedAt = status == BookingStatus.EXPIRED
+                    ? createdAt.plus(cancellationPeriod)
+                    : createdAt.plusSeconds(random.nextLong(1, cancellationPeriod.toSeconds() + 1));
+        }
+        return new BookingRow(index, unitIndex, userIndex, checkIn, checkOut, status, cost,
+                createdAt, updatedAt, createdAt.plus(cancellationPeriod));
+    }
+
+    private BookingStatus status(SplittableRandom random, LocalDate checkIn) {
+        int roll = random.nextInt(100);
+        if (!checkIn.isAfter(anchor.atZone(ZoneOffset.UTC).toLocalDate())) {
+            return roll < 80 ? BookingStatus.CONFIRMED : roll < 94 ? BookingStatus.CANCELLED : BookingStatus.EXPIRED;
+        }
+        return roll < 65 ? BookingStatus.CONFIRMED
+                : roll < 70 ? BookingStatus.PENDING
+                : roll < 92 ? BookingStatus.CANCELLED
+                : BookingStatus.EXPIRED;
+    }
+
+    private static int stayNights(SplittableRandom random) {
+        int roll = random.nextInt(STAY_NIGHTS_CUMULATIVE[STAY_NIGHTS_CUMULATIVE.length - 1]);
+        int nights = 1;
+        while (roll >= STAY_NIGHTS_CUMULATIVE[nights]) {
+            nights++;
+        }
+        return nights;
+    }
+
+    private SplittableRandom random(long salt, long index) {
+        return new SplittableRandom(seed * 0x9E3779B97F4A7C15L + salt * 0xC2B2AE3D27D4EB4FL + index);
+    }
+
+    private static int[] cumulative(int[] weights) {
+        int[] cumulative = new int[weights.length];
+        int sum = 0;
+        for (int i = 0; i < weights.length; i++) {
+            sum += weights[i];
+            cumulative[i] = sum;
+        }
+        return cumulative;
+    }
+
+    record UnitRow(long index, int numberOfRooms, AccommodationType accommodationType, int floor,
+                   BigDecimal baseCost, Instant createdAt) {
+    }
+
+    record UserRow(long index, String username, String email, Instant createdAt) {
+    }
+
+    /**
+     * Indexes are zero-based; the writer adds the first id reserved for each table.
+     */
+    record BookingRow(long index, long unitIndex, long userIndex, LocalDate checkInDate, LocalDate checkOutDate,
+                      BookingStatus status, BigDecimal totalCost, Instant createdAt, Instant updatedAt,
+                      Instant expiresAt) {
+    }
+}
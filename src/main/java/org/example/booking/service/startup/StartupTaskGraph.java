@@ -0,0 +1,65 @@
+package org.example.booking.service.startup;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Startup tasks and the tasks each of them depends on.
+ * <p>
+ * A task starts on the executor as soon as all its dependencies have completed, so independent tasks run
+ * in parallel. Dependencies have to be added before the tasks that need them, which keeps the graph
+ * acyclic. If a task fails, the tasks depending on it are not run.
+ */
+@Slf4j
+public class StartupTaskGraph {
+
+    private final Map<String, Task> tasks = new LinkedHashMap<>();
+
+    public StartupTaskGraph add(String name, Runnable action, String... dependsOn) {
+        for (String dependency : dependsOn) {
+            if (!tasks.containsKey(dependency)) {
+                throw new IllegalArgumentException("Startup task " + name + " depends on unknown task " + dependency);
+            }
+        }
+        if (tasks.putIfAbsent(name, new Task(name, action, List.of(dependsOn))) != null) {
+            throw new IllegalArgumentException("Duplicate startup task " + name);
+        }
+        return this;
+    }
+
+    /**
+     * @return a future completing when every task has completed, or exceptionally with the first failure
+     */
+    public CompletableFuture<Void> run(Executor executor) {
+        Map<String, CompletableFuture<Void>> futures = new LinkedHashMap<>();
+        for (Task task : tasks.values()) {
+            CompletableFuture<?>[] dependencies = task.dependsOn().stream()
+                    .map(futures::get)
+                    .toArray(CompletableFuture[]::new);
+            futures.put(task.name(), CompletableFuture.allOf(dependencies).thenRunAsync(() -> run(task), executor));
+        }
+        return CompletableFuture.allOf(futures.values().toArray(CompletableFuture[]::new));
+    }
+
+    private void run(Task task) {
+        long startNanos = System.nanoTime();
+        log.info("Startup task {} started", task.name());
+        try {
+            task.action().run();
+        } catch (RuntimeException e) {
+            log.error("Startup task {} failed", task.name(), e);
+            throw e;
+        }
+        log.info("Startup task {} completed in {} ms", task.name(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+    }
+
+    private record Task(String name, Runnable action, List<String> dependsOn) {
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.booking.service.support;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.booking.exception.BookingException;
+import org.example.booking.exception.InvalidRequestException;
+import org.example.booking.exception.ResourceNotFoundException;
+import org.example.booking.exception.TooManyRequestsException;
+import org.springframework.stereotype.Component;
+
+import java.util.function.Supplier;
+
+/**
+ * Observations of the booking critical path: one for a whole operation and one for each of its steps,
+ * so a slow operation can be attributed to the step responsible.
+ * <p>
+ * Each observation becomes a timer tagged with the operation, the step and the outcome, and a span
+ * nested in the current one when a tracer is configured.
+ */
+@Component
+public class BookingObservations {
+
+    public static final String OPERATION_METRIC = "booking.operation";
+    public static final String STEP_METRIC = "booking.step";
+
+    private final ObservationRegistry observationRegistry;
+
+    public BookingObservations(ObservationRegistry observationRegistry) {
+        this.observationRegistry = observationRegistry;
+    }
+
+    public <T> T operation(String operation, Supplier<T> action) {
+        return observe(Observation.createNotStarted(OPERATION_METRIC, observationRegistry)
+                .contextualName(operation)
+                .lowCardinalityKeyValue("operation", operation), action);
+    }
+
+    public void operation(String operation, Runnable action) {
+        operation(operation, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    public <T> T step(String operation, String step, Supplier<T> action) {
+        return observe(Observation.createNotStarted(STEP_METRIC, observationRegistry)
+                .contextualName(operation + " " + step)
+                .lowCardinalityKeyValue("operation", operation)
+                .lowCardinalityKeyValue("step", step), action);
+    }
+
+    public void step(String operation, String step, Runnable action) {
+        step(operation, step, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private static <T> T observe(Observation observation, Supplier<T> action) {
+        observation.start();
+        try (Observation.Scope ignored = observation.openScope()) {
+            T result = action.get();
+            observation.lowCardinalityKeyValue("outcome", "success");
+            return result;
+        } catch (RuntimeException | Error e) {
+            observation.lowCardinalityKeyValue("outcome", outcome(e));
+            observation.error(e);
+            throw e;
+        } finally {
+            observation.stop();
+        }
+    }
+
+    static String outcome(Throwable e) {
+        if (e instanceof BookingException) {
+            return "conflict";
+        }
+        if (e instanceof ResourceNotFoundException) {
+            return "not-found";
+        }
+        if (e instanceof InvalidRequestException) {
+            return "invalid";
+        }
+        if (e instanceof TooManyRequestsException) {
+            return "rejected";
+        }
+        return "error";
+    }
+}
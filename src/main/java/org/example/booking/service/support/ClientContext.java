@@ -0,0 +1,28 @@
+package org.example.booking.service.support;
+
+/**
+ * Identity of the client behind the current request, bound to the request thread by
+ * {@link org.example.booking.controller.support.ClientIdFilter}.
+ */
+public final class ClientContext {
+
+    public static final String ANONYMOUS = "anonymous";
+
+    private static final ThreadLocal<String> CLIENT_ID = new ThreadLocal<>();
+
+    private ClientContext() {
+    }
+
+    public static String getClientId() {
+        String clientId = CLIENT_ID.get();
+        return clientId != null ? clientId : ANONYMOUS;
+    }
+
+    public static void setClientId(String clientId) {
+        CLIENT_ID.set(clientId);
+    }
+
+    public static void clear() {
+        CLIENT_ID.remove();
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.booking.service.support;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Single-flight execution of identical concurrent reads.
+ * <p>
+ * The first caller for a key runs the computation, every caller that arrives while it is in flight
+ * waits for and shares the same result. Nothing is cached: the key is released as soon as the
+ * computation completes, so the next caller always triggers a fresh read.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+
+    private static final String METRIC_NAME = "booking.coalescing.requests";
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    public RequestCoalescer(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String operation, String key, Supplier<T> computation) {
+        String flightKey = operation + ':' + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+
+        if (existing != null) {
+            counter(operation, "follower").increment();
+            log.debug("Joining in-flight computation for {}", flightKey);
+            return (T) join(existing);
+        }
+
+        counter(operation, "leader").increment();
+        try {
+            T result = computation.get();
+            flight.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    private Object join(CompletableFuture<Object> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Leaders count backend computations, followers count requests served by someone else's computation.
+     * The coalescing ratio is {@code follower / (leader + follower)}.
+     */
+    private Counter counter(String operation, String role) {
+        return Counter.builder(METRIC_NAME)
+                .description("Reads deduplicated by the single-flight layer")
+                .tag("operation", operation)
+                .tag("role", role)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,5 @@
+-- liquibase formatted sql
+-- changeset author:admin:003-add-bookings-last-modified-index
+
+-- Serves the replay of bookings changed after an availability snapshot was taken
+CREATE INDEX idx_bookings_last_modified ON bookings ((COALESCE(updated_at, created_at)));
@@ -0,0 +1,18 @@
+-- liquibase formatted sql
+-- changeset author:admin:004-create-scale-data-runs
+
+-- One row per scale data generation: the reserved id ranges, and when the run completed.
+-- A run without completed_at was interrupted; its rows are deleted before generating again.
+CREATE TABLE scale_data_runs
+(
+    id               BIGSERIAL PRIMARY KEY,
+    seed             BIGINT                   NOT NULL,
+    first_unit_id    BIGINT                   NOT NULL,
+    last_unit_id     BIGINT                   NOT NULL,
+    first_user_id    BIGINT                   NOT NULL,
+    last_user_id     BIGINT                   NOT NULL,
+    first_booking_id BIGINT                   NOT NULL,
+    last_booking_id  BIGINT                   NOT NULL,
+    started_at       TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    completed_at     TIMESTAMP WITH TIME ZONE
+);
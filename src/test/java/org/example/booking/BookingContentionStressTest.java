@@ -0,0 +1,310 @@
+package org.example.booking;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.example.booking.dto.BookingCreateRequest;
+import org.example.booking.dto.BookingDto;
+import org.example.booking.exception.BookingException;
+import org.example.booking.service.BookingService;
+import org.example.booking.service.availability.AvailabilityAggregates.Resolution;
+import org.example.booking.service.availability.AvailabilityCacheGenerations;
+import org.example.booking.service.startup.AppStartupCoordinator;
+import org.example.booking.service.startup.AppStartupCoordinator.StartupStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Races many threads on a few hot units with overlapping and adjacent stays, some of which are cancelled
+ * again, then checks that no unit is booked twice for a night, neither in PostgreSQL nor in the Redis
+ * availability sets.
+ * <p>
+ * Every {@link LockingStrategy} runs the same workload on its own date window, so a new way of serializing
+ * bookings can be compared against the current one by adding a constant.
+ */
+@Tag("stress")
+@SpringBootTest(properties = {
+        "booking.generate-data=false",
+        "booking.admission.enabled=false",
+        "booking.availability-cache.reconcile-enabled=false"
+})
+@ActiveProfiles("test")
+@Import({TestcontainersConfiguration.class, BookingContentionStressTest.LockWaitConfiguration.class})
+class BookingContentionStressTest {
+
+    private static final int THREADS = 500;
+    private static final int ATTEMPTS_PER_THREAD = 10;
+    private static final List<Long> HOT_UNIT_IDS = List.of(1L, 2L, 3L);
+    private static final int WINDOW_DAYS = 21;
+    private static final int MAX_NIGHTS = 4;
+    private static final int CANCEL_PERCENT = 20;
+
+    private static final String OVERLAPPING_ACTIVE_BOOKINGS = """
+            SELECT count(*) FROM bookings a
+            JOIN bookings b ON a.unit_id = b.unit_id AND a.id < b.id
+            WHERE a.status IN ('PENDING', 'CONFIRMED') AND b.status IN ('PENDING', 'CONFIRMED')
+              AND a.check_in_date < b.check_out_date AND b.check_in_date < a.check_out_date
+              AND a.unit_id IN (1, 2, 3)""";
+
+    private static final AtomicInteger WINDOW_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AppStartupCoordinator appStartupCoordinator;
+
+    @Autowired
+    private AvailabilityCacheGenerations availabilityCacheGenerations;
+
+    @Autowired
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private LockWaitRecorder lockWaitRecorder;
+
+    @BeforeEach
+    void awaitStartup() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (appStartupCoordinator.getStatus() != StartupStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(StartupStatus.COMPLETED, appStartupCoordinator.getStatus());
+    }
+
+    @ParameterizedTest
+    @EnumSource(LockingStrategy.class)
+    void whenManyThreadsRaceOnHotUnits_shouldNeverDoubleBook(LockingStrategy strategy) throws InterruptedException {
+        // Given
+        LocalDate windowStart = LocalDate.now().plusDays(30L + (long) WINDOW_SEQUENCE.getAndIncrement() * (WINDOW_DAYS + MAX_NIGHTS));
+        List<Long> successLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Long> conflictLatencies = Collections.synchronizedList(new ArrayList<>());
+        List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+        AtomicInteger cancelled = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        lockWaitRecorder.reset();
+
+        // When
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                start.await();
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int attempt = 0; attempt < ATTEMPTS_PER_THREAD; attempt++) {
+                    LocalDate checkIn = windowStart.plusDays(random.nextInt(WINDOW_DAYS));
+                    BookingCreateRequest request = new BookingCreateRequest(
+                            HOT_UNIT_IDS.get(random.nextInt(HOT_UNIT_IDS.size())), 1L,
+                            checkIn, checkIn.plusDays(random.nextInt(1, MAX_NIGHTS + 1)));
+                    long startNanos = System.nanoTime();
+                    try {
+                        BookingDto booking = strategy.createBooking(bookingService, request);
+                        successLatencies.add(System.nanoTime() - startNanos);
+                        if (random.nextInt(100) < CANCEL_PERCENT) {
+                            bookingService.cancelBooking(booking.getId());
+                            cancelled.incrementAndGet();
+                        }
+                    } catch (BookingException e) {
+                        conflictLatencies.add(System.nanoTime() - startNanos);
+                    } catch (RuntimeException e) {
+                        errors.add(e);
+                    }
+                }
+                return null;
+            });
+        }
+        long startNanos = System.nanoTime();
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.MINUTES));
+        Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+
+        // Then
+        int attempts = successLatencies.size() + conflictLatencies.size() + errors.size();
+        System.out.printf("%s: %d attempts in %d ms (%.0f/s), %d booked (%d cancelled again), %d conflicts, %d errors%n",
+                strategy, attempts, elapsed.toMillis(), attempts * 1000.0 / elapsed.toMillis(),
+                successLatencies.size(), cancelled.get(), conflictLatencies.size(), errors.size());
+        System.out.printf("  booked   %s%n  conflict %s%n  lock wait %s%n",
+                latencySummary(successLatencies), latencySummary(conflictLatencies),
+                latencySummary(lockWaitRecorder.waits()));
+
+        assertTrue(errors.isEmpty(), () -> "Unexpected errors, first: " + errors.getFirst());
+        assertTrue(!successLatencies.isEmpty() && !conflictLatencies.isEmpty(), "The units were not contended");
+        assertEquals(0, jdbcTemplate.queryForObject(OVERLAPPING_ACTIVE_BOOKINGS, Long.class),
+                "Active bookings overlap in PostgreSQL");
+        LocalDate windowEnd = windowStart.plusDays(WINDOW_DAYS + MAX_NIGHTS);
+        assertEquals(bookedUnitIdsFromDatabase(windowStart, windowEnd), bookedUnitIdsFromRedis(windowStart),
+                "Redis availability sets differ from the active bookings");
+        for (Resolution resolution : List.of(Resolution.WEEK, Resolution.MONTH)) {
+            for (LocalDate period = resolution.start(windowStart); period.isBefore(windowEnd); period = resolution.next(period)) {
+                LocalDate periodStart = period;
+                assertEquals(bookedNightsFromDatabase(resolution, periodStart), bookedNightsFromRedis(resolution, periodStart),
+                        () -> "Redis " + resolution + " aggregate of " + periodStart + " differs from the active bookings");
+            }
+        }
+    }
+
+    /**
+     * Unit ids with an active booking per night between {@code from} and {@code to}, from PostgreSQL.
+     */
+    private Map<LocalDate, Set<String>> bookedUnitIdsFromDatabase(LocalDate from, LocalDate to) {
+        Map<LocalDate, Set<String>> booked = new HashMap<>();
+        jdbcTemplate.query("""
+                        SELECT unit_id, check_in_date, check_out_date FROM bookings
+                        WHERE status IN ('PENDING', 'CONFIRMED') AND unit_id IN (1, 2, 3)
+                          AND check_out_date > ? AND check_in_date < ?""",
+                row -> {
+                    String unitId = row.getString("unit_id");
+                    row.getDate("check_in_date").toLocalDate()
+                            .datesUntil(row.getDate("check_out_date").toLocalDate())
+                            .filter(date -> !date.isBefore(from) && date.isBefore(to))
+                            .forEach(date -> booked.computeIfAbsent(date, ignored -> new HashSet<>()).add(unitId));
+                },
+                from, to);
+        return booked;
+    }
+
+    /**
+     * Booked nights per hot unit in the week or month starting at {@code periodStart}, from PostgreSQL.
+     */
+    private Map<String, Long> bookedNightsFromDatabase(Resolution resolution, LocalDate periodStart) {
+        Map<String, Long> nights = new HashMap<>();
+        bookedUnitIdsFromDatabase(periodStart, resolution.next(periodStart)).values()
+                .forEach(unitIds -> unitIds.forEach(unitId -> nights.merge(unitId, 1L, Long::sum)));
+        return nights;
+    }
+
+    /**
+     * Scores of the hot units in the week or month aggregate starting at {@code periodStart}.
+     */
+    private Map<String, Long> bookedNightsFromRedis(Resolution resolution, LocalDate periodStart) {
+        String key = resolution.key(availabilityCacheGenerations.current(), periodStart);
+        Map<String, Long> nights = new HashMap<>();
+        HOT_UNIT_IDS.stream().map(String::valueOf).forEach(unitId -> {
+            Double score = stringRedisTemplate.opsForZSet().score(key, unitId);
+            if (score != null) {
+                nights.put(unitId, score.longValue());
+            }
+        });
+        return nights;
+    }
+
+    private Map<LocalDate, Set<String>> bookedUnitIdsFromRedis(LocalDate windowStart) {
+        String prefix = AvailabilityCacheGenerations.bookedUnitsKeyPrefix(availabilityCacheGenerations.current());
+        Set<String> hotUnitIds = HOT_UNIT_IDS.stream().map(String::valueOf).collect(Collectors.toSet());
+        Map<LocalDate, Set<String>> booked = new HashMap<>();
+        windowStart.datesUntil(windowStart.plusDays(WINDOW_DAYS + MAX_NIGHTS)).forEach(date -> {
+            Set<String> members = stringRedisTemplate.opsForSet().members(prefix + date);
+            if (members != null) {
+                Set<String> hotMembers = members.stream().filter(hotUnitIds::contains).collect(Collectors.toSet());
+                if (!hotMembers.isEmpty()) {
+                    booked.put(date, hotMembers);
+                }
+            }
+        });
+        return booked;
+    }
+
+    private static String latencySummary(List<Long> latenciesNanos) {
+        long[] sorted;
+        synchronized (latenciesNanos) {
+            sorted = latenciesNanos.stream().mapToLong(Long::longValue).sorted().toArray();
+        }
+        if (sorted.length == 0) {
+            return "n=0";
+        }
+        return String.format("n=%d p50=%.1f ms p99=%.1f ms max=%.1f ms", sorted.length,
+                percentile(sorted, 0.50) / 1e6, percentile(sorted, 0.99) / 1e6, sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static long percentile(long[] sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    /**
+     * How a booking request is serialized against concurrent requests for the same unit.
+     */
+    enum LockingStrategy {
+
+        /**
+         * The production path: {@code SELECT ... FOR UPDATE} on the unit row, then the Redis availability check.
+         */
+        PESSIMISTIC_UNIT_ROW_LOCK {
+            @Override
+            BookingDto createBooking(BookingService bookingService, BookingCreateRequest request) {
+                return bookingService.createBooking(request);
+            }
+        };
+
+        abstract BookingDto createBooking(BookingService bookingService, BookingCreateRequest request);
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class LockWaitConfiguration {
+
+        @Bean
+        LockWaitRecorder lockWaitRecorder() {
+            return new LockWaitRecorder();
+        }
+    }
+
+    /**
+     * Times the unit lock acquisition, which is where concurrent bookings of one unit queue up.
+     */
+    @Aspect
+    static class LockWaitRecorder {
+
+        private final List<Long> waits = Collections.synchronizedList(new ArrayList<>());
+
+        @Around("execution(* org.example.booking.repository.UnitRepository.findByIdWithLock(..))")
+        public Object recordLockWait(ProceedingJoinPoint joinPoint) throws Throwable {
+            long startNanos = System.nanoTime();
+            try {
+                return joinPoint.proceed();
+            } finally {
+                waits.add(System.nanoTime() - startNanos);
+            }
+        }
+
+        List<Long> waits() {
+            return waits;
+        }
+
+        void reset() {
+            waits.clear();
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package org.example.booking;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.booking.service.startup.AppStartupCoordinator;
+import org.example.booking.service.startup.AppStartupCoordinator.StartupStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.example.booking.config.querystats.QueryBudget.entityLoadsAtMost;
+import static org.example.booking.config.querystats.QueryBudget.statementsAtMost;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statement budgets per endpoint. A lazy association touched while building a response, or an extra
+ * save, adds statements to every request; these budgets turn that into a failing build.
+ */
+@SpringBootTest(properties = {
+        "booking.generate-data=false",
+        "booking.admission.enabled=false",
+        "booking.availability-cache.reconcile-enabled=false"
+})
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@Import(TestcontainersConfiguration.class)
+class QueryBudgetTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final AtomicInteger STAY_SEQUENCE = new AtomicInteger();
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private AppStartupCoordinator appStartupCoordinator;
+
+    @BeforeEach
+    void awaitStartup() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(60);
+        while (appStartupCoordinator.getStatus() != StartupStatus.COMPLETED && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+        assertEquals(StartupStatus.COMPLETED, appStartupCoordinator.getStatus());
+    }
+
+    @Test
+    void whenCreatingBooking_shouldStayWithinBudget() throws Exception {
+        // Lock unit, load user, insert booking, insert event
+        createBooking();
+    }
+
+    @Test
+    void whenReadingBooking_shouldStayWithinBudget() throws Exception {
+        // Given
+        long bookingId = createBooking();
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/bookings/{bookingId}", bookingId))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1))
+                .andExpect(entityLoadsAtMost(1));
+    }
+
+    @Test
+    void whenPayingForBooking_shouldStayWithinBudget() throws Exception {
+        // Given
+        long bookingId = createBooking();
+
+        // When & Then: load booking, insert payment, insert event, update booking
+        mockMvc.perform(post("/api/v1/bookings/{bookingId}/pay", bookingId))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(4))
+                .andExpect(entityLoadsAtMost(1));
+    }
+
+    @Test
+    void whenCancellingBooking_shouldStayWithinBudget() throws Exception {
+        // Given
+        long bookingId = createBooking();
+
+        // When & Then: load booking, update booking, insert event
+        mockMvc.perform(delete("/api/v1/bookings/{bookingId}", bookingId))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(3))
+                .andExpect(entityLoadsAtMost(1));
+    }
+
+    @Test
+    void whenReadingUnit_shouldStayWithinBudget() throws Exception {
+        mockMvc.perform(get("/api/v1/units/{id}", 1))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    void whenSearchingUnits_shouldRunOneStatementPerPage() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        mockMvc.perform(get("/api/v1/units/search")
+                        .param("checkInDate", checkIn.toString())
+                        .param("checkOutDate", checkIn.plusDays(3).toString())
+                        .param("size", "20"))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(1));
+    }
+
+    @Test
+    void whenCountingAvailableUnits_shouldNotQueryTheDatabase() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        mockMvc.perform(get("/api/v1/statistics/available-units")
+                        .param("checkInDate", checkIn.toString())
+                        .param("checkOutDate", checkIn.plusDays(3).toString()))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(0));
+    }
+
+    @Test
+    void whenReadingAvailabilitySeries_shouldNotQueryTheDatabase() throws Exception {
+        LocalDate fromDate = LocalDate.now().plusDays(1);
+        mockMvc.perform(get("/api/v1/statistics/available-units/series")
+                        .param("fromDate", fromDate.toString())
+                        .param("toDate", fromDate.plusDays(365).toString()))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(0));
+    }
+
+    @Test
+    void whenReadingAvailabilityMatrix_shouldNotQueryTheDatabase() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(30);
+        String body = """
+                {"unitIds":[1,2,3,4,5],"fromDate":"%s","toDate":"%s","compressed":true}"""
+                .formatted(from, from.plusDays(90));
+        mockMvc.perform(post("/api/v1/availability/matrix")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(0));
+    }
+
+    @Test
+    void whenReadingUnitCalendar_shouldNotQueryTheDatabase() throws Exception {
+        LocalDate from = LocalDate.now().plusDays(30);
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                        .param("from", from.toString())
+                        .param("to", from.plusDays(31).toString()))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(0));
+    }
+
+    @Test
+    void whenCheckingManyUnits_shouldNotQueryTheDatabase() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(30);
+        String body = """
+                {"unitIds":[1,2,3,4,5],"checkInDate":"%s","checkOutDate":"%s"}"""
+                .formatted(checkIn, checkIn.plusDays(14));
+        mockMvc.perform(post("/api/v1/availability/check")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(statementsAtMost(0));
+    }
+
+    private long createBooking() throws Exception {
+        LocalDate checkIn = LocalDate.now().plusDays(500L + STAY_SEQUENCE.getAndIncrement() * 2L);
+        String body = """
+                {"unitId":1,"userId":1,"checkInDate":"%s","checkOutDate":"%s"}"""
+                .formatted(checkIn, checkIn.plusDays(1));
+        String response = mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isCreated())
+                .andExpect(statementsAtMost(4))
+                .andExpect(entityLoadsAtMost(2))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        JsonNode booking = OBJECT_MAPPER.readTree(response);
+        return booking.path("id").asLong();
+    }
+}
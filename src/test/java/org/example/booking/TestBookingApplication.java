@@ -0,0 +1,21 @@
+package org.example.booking;
+
+import org.springframework.boot.SpringApplication;
+
+/**
+ * Starts the application against Testcontainers PostgreSQL and Redis: {@code ./gradlew bootTestRun}.
+ * Used as the target of the load generator in the load-test project.
+ * <p>
+ * Runs with the load-test profile, which turns admission control off: the initial data has a single user, so
+ * every booking write of the generator would share one token bucket. Pass --booking.admission.enabled=true
+ * to measure admission control itself.
+ */
+public class TestBookingApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.from(BookingApplication::main)
+                .with(TestcontainersConfiguration.class)
+                .withAdditionalProfiles("load-test")
+                .run(args);
+    }
+}
@@ -0,0 +1,138 @@
+package org.example.booking;
+
+import org.example.booking.config.datasource.Workload;
+import org.example.booking.config.datasource.WorkloadType;
+import org.example.booking.dto.BookingCreateRequest;
+import org.example.booking.service.BookingService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saturates the search-read pool with slow queries and checks that booking writes, which run on their
+ * own pool, keep their latency.
+ */
+@Tag("load")
+@SpringBootTest(properties = {
+        "booking.datasource.workload-pools-enabled=true",
+        "booking.datasource.pools.search-read.maximum-pool-size=4",
+        "booking.datasource.pools.search-read.connection-timeout=1s",
+        "booking.datasource.pools.booking-write.maximum-pool-size=8"
+})
+@ActiveProfiles("test")
+@Import({TestcontainersConfiguration.class, WorkloadIsolationLoadTest.SlowSearchConfiguration.class})
+class WorkloadIsolationLoadTest {
+
+    private static final Duration TEST_DURATION = Duration.ofSeconds(10);
+    private static final int READERS = 64;
+    private static final int WRITERS = 4;
+    private static final long WRITE_P99_BUDGET_MILLIS = 500;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private SlowSearch slowSearch;
+
+    @Test
+    void whenSearchPoolIsOverloaded_writeLatencyShouldStayIsolated() throws Exception {
+        // Given
+        long deadline = System.nanoTime() + TEST_DURATION.toNanos();
+        AtomicInteger bookingSequence = new AtomicInteger();
+        AtomicInteger rejectedReads = new AtomicInteger();
+        List<Long> writeLatencies = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService executor = Executors.newFixedThreadPool(READERS + WRITERS);
+
+        // When
+        for (int i = 0; i < READERS; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    try {
+                        slowSearch.search();
+                    } catch (Exception e) {
+                        rejectedReads.incrementAndGet();
+                    }
+                }
+            });
+        }
+        for (int i = 0; i < WRITERS; i++) {
+            executor.submit(() -> {
+                while (System.nanoTime() < deadline) {
+                    long start = System.nanoTime();
+                    bookingService.createBooking(nextBooking(bookingSequence.getAndIncrement()));
+                    writeLatencies.add(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+                }
+                return null;
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(TEST_DURATION.toSeconds() + 30, TimeUnit.SECONDS));
+
+        // Then
+        long[] latencies = writeLatencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        long p50 = percentile(latencies, 0.50);
+        long p99 = percentile(latencies, 0.99);
+        System.out.printf("Writes: %d, p50: %d ms, p99: %d ms, max: %d ms; rejected reads: %d%n",
+                latencies.length, p50, p99, latencies[latencies.length - 1], rejectedReads.get());
+
+        assertTrue(latencies.length > 0, "No booking was written");
+        assertTrue(rejectedReads.get() > 0, "Search pool was not overloaded");
+        assertTrue(p99 <= WRITE_P99_BUDGET_MILLIS, "Write p99 of " + p99 + " ms exceeds budget");
+    }
+
+    private BookingCreateRequest nextBooking(int sequence) {
+        LocalDate checkIn = LocalDate.now().plusDays(30 + 2L * (sequence / 10));
+        return new BookingCreateRequest(1L + sequence % 10, 1L, checkIn, checkIn.plusDays(1));
+    }
+
+    private long percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))];
+    }
+
+    @TestConfiguration(proxyBeanMethods = false)
+    static class SlowSearchConfiguration {
+
+        @Bean
+        SlowSearch slowSearch(JdbcTemplate jdbcTemplate) {
+            return new SlowSearch(jdbcTemplate);
+        }
+    }
+
+    static class SlowSearch {
+
+        private final JdbcTemplate jdbcTemplate;
+
+        SlowSearch(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @Transactional(readOnly = true)
+        @Workload(WorkloadType.SEARCH_READ)
+        public void search() {
+            jdbcTemplate.queryForList("SELECT pg_sleep(0.2)");
+        }
+    }
+}
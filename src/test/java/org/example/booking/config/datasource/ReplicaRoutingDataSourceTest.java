@@ -0,0 +1,141 @@
+package org.example.booking.config.datasource;
+
+import org.example.booking.service.support.ClientContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.Mockito.mock;
+
+class ReplicaRoutingDataSourceTest {
+
+    private MutableClock clock;
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @BeforeEach
+    void setUp() {
+        clock = new MutableClock(Instant.parse("2025-01-01T00:00:00Z"));
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", mock(DataSource.class));
+        replicas.put("replica-1", mock(DataSource.class));
+        var tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), clock);
+        routingDataSource = new ReplicaRoutingDataSource(mock(DataSource.class), replicas, tracker);
+        ClientContext.setClientId("client-1");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ClientContext.clear();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void whenReadWriteTransaction_shouldRouteToPrimary() {
+        // Given
+        beginTransaction(false);
+
+        // When & Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void whenReadOnlyTransaction_shouldRoundRobinReplicas() {
+        // Given
+        beginTransaction(true);
+
+        // When
+        Object first = routingDataSource.determineCurrentLookupKey();
+        Object second = routingDataSource.determineCurrentLookupKey();
+
+        // Then
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, first);
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, second);
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    void whenClientWroteRecently_shouldReadFromPrimaryUntilWindowPasses() {
+        // Given
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        beginTransaction(true);
+
+        // When & Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        clock.advance(Duration.ofSeconds(6));
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void whenOtherClientWroteRecently_shouldReadFromReplica() {
+        // Given
+        beginTransaction(false);
+        routingDataSource.determineCurrentLookupKey();
+        ClientContext.setClientId("client-2");
+        beginTransaction(true);
+
+        // When & Then
+        assertNotEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+    }
+
+    @Test
+    void whenAllReplicasLag_shouldFallBackToPrimary() {
+        // Given
+        beginTransaction(true);
+        routingDataSource.markLagging("replica-0", true);
+        routingDataSource.markLagging("replica-1", true);
+
+        // When & Then
+        assertEquals(ReplicaRoutingDataSource.PRIMARY, routingDataSource.determineCurrentLookupKey());
+
+        routingDataSource.markLagging("replica-1", false);
+        assertEquals("replica-1", routingDataSource.determineCurrentLookupKey());
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant instant;
+
+        MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+
+        @Override
+        public ZoneOffset getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package org.example.booking.config.querystats;
+
+import org.springframework.test.web.servlet.ResultMatcher;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * MockMvc matchers that fail a request running more SQL statements, entity loads or flushes than its
+ * endpoint is budgeted for. Reads the headers written by {@link QueryStatisticsFilter}, so the test needs
+ * {@code booking.query-stats.response-headers=true}, as set in the test profile.
+ */
+public final class QueryBudget {
+
+    private QueryBudget() {
+    }
+
+    public static ResultMatcher statementsAtMost(int budget) {
+        return atMost(QueryStatisticsFilter.STATEMENTS_HEADER, "SQL statements", budget);
+    }
+
+    public static ResultMatcher entityLoadsAtMost(int budget) {
+        return atMost(QueryStatisticsFilter.ENTITY_LOADS_HEADER, "entity loads", budget);
+    }
+
+    public static ResultMatcher flushesAtMost(int budget) {
+        return atMost(QueryStatisticsFilter.FLUSHES_HEADER, "flushes", budget);
+    }
+
+    private static ResultMatcher atMost(String header, String what, int budget) {
+        return result -> {
+            String value = result.getResponse().getHeader(header);
+            assertNotNull(value, () -> header + " header missing, is booking.query-stats.response-headers enabled?");
+            int actual = Integer.parseInt(value);
+            assertTrue(actual <= budget, () -> String.format("%s %s ran %d %s, budget is %d",
+                    result.getRequest().getMethod(), result.getRequest().getRequestURI(), actual, what, budget));
+        };
+    }
+}
@@ -0,0 +1,83 @@
+package org.example.booking.config.querystats;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class QueryStatisticsFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private QueryStatisticsProperties properties;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new QueryStatisticsProperties();
+        properties.setEnabled(true);
+        request = new MockHttpServletRequest("GET", "/api/v1/bookings/7");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void whenRequestRunsStatements_withResponseHeaders_shouldWriteCountsBeforeTheBody() throws Exception {
+        // Given
+        properties.setResponseHeaders(true);
+        FilterChain chain = (req, res) -> {
+            QueryStatistics.statementPrepared();
+            QueryStatistics.statementPrepared();
+            QueryStatistics.entityLoaded();
+            QueryStatistics.flushed();
+            res.getWriter().write("{}");
+            res.flushBuffer();
+            QueryStatistics.statementPrepared();
+        };
+
+        // When
+        new QueryStatisticsFilter(properties, meterRegistry).doFilter(request, response, chain);
+
+        // Then
+        assertEquals("2", response.getHeader(QueryStatisticsFilter.STATEMENTS_HEADER));
+        assertEquals("1", response.getHeader(QueryStatisticsFilter.ENTITY_LOADS_HEADER));
+        assertEquals("1", response.getHeader(QueryStatisticsFilter.FLUSHES_HEADER));
+        assertNull(QueryStatistics.get());
+    }
+
+    @Test
+    void whenRequestCompletes_shouldRecordCountsPerEndpoint() throws Exception {
+        // Given
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/v1/bookings/{bookingId}");
+            QueryStatistics.statementPrepared();
+            QueryStatistics.statementPrepared();
+            QueryStatistics.statementPrepared();
+        };
+
+        // When
+        new QueryStatisticsFilter(properties, meterRegistry).doFilter(request, response, chain);
+
+        // Then
+        assertEquals(3, meterRegistry.get("booking.http.sql.statements")
+                .tags("method", "GET", "uri", "/api/v1/bookings/{bookingId}")
+                .summary().totalAmount());
+        assertEquals(0, meterRegistry.get("booking.http.entity.loads").summary().totalAmount());
+        assertNull(response.getHeader(QueryStatisticsFilter.STATEMENTS_HEADER));
+    }
+
+    @Test
+    void whenNoRequestIsBound_shouldIgnoreStatements() {
+        // When
+        QueryStatistics.statementPrepared();
+
+        // Then
+        assertNull(QueryStatistics.get());
+    }
+}
@@ -0,0 +1,100 @@
+package org.example.booking.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.booking.dto.AvailabilityCheckRequest;
+import org.example.booking.dto.AvailabilityCheckResponse;
+import org.example.booking.dto.AvailabilityMatrixRequest;
+import org.example.booking.dto.AvailabilityMatrixResponse;
+import org.example.booking.dto.UnitStayDto;
+import org.example.booking.service.UnitAvailabilityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(AvailabilityController.class)
+class AvailabilityControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private UnitAvailabilityService unitAvailabilityService;
+
+    @Test
+    void whenCheckAvailability_withUnitIds_shouldReturnAvailabilityInRequestOrder() throws Exception {
+        // Given
+        LocalDate checkInDate = LocalDate.now().plusDays(1);
+        var request = new AvailabilityCheckRequest(List.of(1L, 2L, 3L), checkInDate, checkInDate.plusDays(3), null);
+
+        given(unitAvailabilityService.checkAvailability(any(AvailabilityCheckRequest.class)))
+            .willReturn(new AvailabilityCheckResponse(List.of(true, false, true), 2));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/availability/check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.available[1]").value(false))
+            .andExpect(jsonPath("$.availableCount").value(2));
+    }
+
+    @Test
+    void whenGetAvailabilityMatrix_shouldReturnPackedRows() throws Exception {
+        // Given
+        LocalDate fromDate = LocalDate.now().plusDays(1);
+        var request = new AvailabilityMatrixRequest(List.of(1L, 2L), fromDate, fromDate.plusDays(30), false);
+
+        given(unitAvailabilityService.getAvailabilityMatrix(any(AvailabilityMatrixRequest.class)))
+            .willReturn(new AvailabilityMatrixResponse(List.of(1L, 2L), fromDate, fromDate.plusDays(30), 4, "identity", "/////wAAAAA="));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/availability/matrix")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.rowBytes").value(4))
+            .andExpect(jsonPath("$.rows").value("/////wAAAAA="));
+    }
+
+    @Test
+    void whenGetAvailabilityMatrix_withoutUnits_shouldReturnBadRequest() throws Exception {
+        // Given
+        LocalDate fromDate = LocalDate.now().plusDays(1);
+        var request = new AvailabilityMatrixRequest(List.of(), fromDate, fromDate.plusDays(30), false);
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/availability/matrix")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void whenCheckAvailability_withPastStay_shouldReturnBadRequest() throws Exception {
+        // Given
+        LocalDate pastDate = LocalDate.now().minusDays(1);
+        var request = new AvailabilityCheckRequest(null, null, null,
+                List.of(new UnitStayDto(1L, pastDate, pastDate.plusDays(3))));
+
+        // When & Then
+        mockMvc.perform(post("/api/v1/availability/check")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+            .andExpect(status().isBadRequest());
+    }
+}
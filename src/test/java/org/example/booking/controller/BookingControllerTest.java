@@ -4,9 +4,13 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.booking.dto.BookingCreateRequest;
 import org.example.booking.dto.BookingDto;
 import org.example.booking.dto.PaymentDto;
+import org.example.booking.exception.TooManyRequestsException;
 import org.example.booking.model.BookingStatus;
 import org.example.booking.service.BookingService;
 import org.example.booking.service.PaymentService;
+import org.example.booking.service.admission.AdmissionControlService;
+import org.example.booking.service.idempotency.IdempotencyService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
@@ -15,13 +19,23 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -37,9 +51,21 @@ class BookingControllerTest {
     @MockitoBean
     private PaymentService paymentService;
 
+    @MockitoBean
+    private AdmissionControlService admissionControlService;
+
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
+    @BeforeEach
+    void setUp() {
+        given(idempotencyService.execute(any(), anyString(), any(), any(), any()))
+                .willAnswer(invocation -> invocation.getArgument(4, Supplier.class).get());
+    }
+
     @Test
     void whenCreateBooking_withValidData_shouldReturnCreated() throws Exception {
         LocalDate checkInDate = LocalDate.now().plusDays(1);
@@ -81,6 +107,89 @@ class BookingControllerTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void whenCreateBooking_withShedRequest_shouldReturnTooManyRequests() throws Exception {
+        var requestDto = new BookingCreateRequest(
+                1L, 1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(5)
+        );
+
+        given(admissionControlService.acquire())
+                .willThrow(new TooManyRequestsException("Service is overloaded, retry later.", Duration.ofSeconds(3)));
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "3"));
+
+        verify(bookingService, never()).createBooking(any(BookingCreateRequest.class));
+    }
+
+    @Test
+    void whenCreateBooking_withUserOutOfTokens_shouldShedOnlyThatUser() throws Exception {
+        var limitedUser = new BookingCreateRequest(
+                1L, 1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(5)
+        );
+        var otherUser = new BookingCreateRequest(
+                1L, 2L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(5)
+        );
+
+        doThrow(new TooManyRequestsException("Too many requests, retry later.", Duration.ofSeconds(1)))
+                .when(admissionControlService).checkRate(1L);
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .header("X-Client-Id", "shared-client")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(limitedUser)))
+                .andExpect(status().isTooManyRequests());
+        mockMvc.perform(post("/api/v1/bookings")
+                        .header("X-Client-Id", "shared-client")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(otherUser)))
+                .andExpect(status().isCreated());
+
+        verify(bookingService, never()).createBooking(limitedUser);
+        verify(bookingService).createBooking(otherUser);
+    }
+
+    @Test
+    void whenPayForBooking_shouldChargeBookingOwner() throws Exception {
+        given(bookingService.findBookingOwnerId(1L)).willReturn(Optional.of(7L));
+        doThrow(new TooManyRequestsException("Too many requests, retry later.", Duration.ofSeconds(1)))
+                .when(admissionControlService).checkRate(7L);
+
+        mockMvc.perform(post("/api/v1/bookings/1/pay"))
+                .andExpect(status().isTooManyRequests());
+
+        verify(paymentService, never()).processPayment(anyLong());
+    }
+
+    @Test
+    void whenCreateBooking_withIdempotencyKey_shouldPassKeyToIdempotencyService() throws Exception {
+        var requestDto = new BookingCreateRequest(
+                1L, 1L, LocalDate.now().plusDays(1), LocalDate.now().plusDays(5)
+        );
+
+        mockMvc.perform(post("/api/v1/bookings")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated());
+
+        verify(idempotencyService).execute(eq("key-1"), eq("create-booking"), eq(requestDto), eq(BookingDto.class), any());
+    }
+
+    @Test
+    void whenPayForBooking_withoutIdempotencyKey_shouldPassNullKey() throws Exception {
+        given(paymentService.processPayment(anyLong()))
+                .willReturn(new PaymentDto(1L, 1L, "SUCCESSFUL", new BigDecimal("150.00"), Instant.now()));
+
+        mockMvc.perform(post("/api/v1/bookings/1/pay"))
+                .andExpect(status().isOk());
+
+        verify(idempotencyService).execute(isNull(), eq("pay-booking"), eq(1L), eq(PaymentDto.class), any());
+    }
+
     @Test
     void whenGetBookingById_withExistingId_shouldReturnBooking() throws Exception {
         LocalDate checkInDate = LocalDate.now().plusDays(1);
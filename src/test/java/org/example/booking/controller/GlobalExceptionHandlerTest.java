@@ -4,12 +4,15 @@ import org.example.booking.dto.ErrorResponse;
 import org.example.booking.exception.BookingException;
 import org.example.booking.exception.InvalidRequestException;
 import org.example.booking.exception.ResourceNotFoundException;
+import org.example.booking.exception.TooManyRequestsException;
+import org.springframework.http.HttpHeaders;
 import org.junit.jupiter.api.Test;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 
+import java.time.Duration;
 import java.time.Instant;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -66,6 +69,21 @@ class GlobalExceptionHandlerTest {
         assertNotNull(response.getBody().getTimestamp());
     }
 
+    @Test
+    void whenTooManyRequests_shouldReturnTooManyRequestsWithRetryAfter() {
+        // Given
+        TooManyRequestsException ex = new TooManyRequestsException("Too many requests", Duration.ofMillis(1500));
+
+        // When
+        ResponseEntity<ErrorResponse> response = handler.handleTooManyRequests(ex);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(429, response.getBody().getStatus());
+        assertEquals("Too many requests", response.getBody().getMessage());
+    }
+
     @Test
     void whenGenericException_shouldReturnInternalServerError() {
         // Given
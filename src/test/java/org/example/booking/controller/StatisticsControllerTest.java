@@ -1,6 +1,8 @@
 package org.example.booking.controller;
 
 import org.example.booking.dto.AvailableUnitsResponse;
+import org.example.booking.dto.AvailableUnitsSeriesResponse;
+import org.example.booking.dto.DailyAvailableUnitsDto;
 import org.example.booking.service.UnitAvailabilityService;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.time.LocalDate;
+import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
@@ -70,4 +73,31 @@ class StatisticsControllerTest {
                 .param("checkOutDate", futureDate.toString()))
             .andExpect(status().isBadRequest());
     }
-}
\ No newline at end of file
+
+    @Test
+    void whenGetAvailableUnitsSeries_withValidWindow_shouldReturnCountPerNight() throws Exception {
+        // Given
+        LocalDate fromDate = LocalDate.now().plusDays(1);
+        LocalDate toDate = fromDate.plusDays(2);
+
+        given(unitAvailabilityService.getAvailableUnitsSeries(fromDate, toDate))
+            .willReturn(new AvailableUnitsSeriesResponse(10, List.of(
+                new DailyAvailableUnitsDto(fromDate, 9),
+                new DailyAvailableUnitsDto(fromDate.plusDays(1), 7))));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/statistics/available-units/series")
+                .param("fromDate", fromDate.toString())
+                .param("toDate", toDate.toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.totalUnitsCount").value(10))
+            .andExpect(jsonPath("$.nights[0].date").value(fromDate.toString()))
+            .andExpect(jsonPath("$.nights[1].availableUnitsCount").value(7));
+    }
+
+    @Test
+    void whenGetAvailableUnitsSeries_withMissingDates_shouldReturnBadRequest() throws Exception {
+        mockMvc.perform(get("/api/v1/statistics/available-units/series"))
+            .andExpect(status().isBadRequest());
+    }
+}
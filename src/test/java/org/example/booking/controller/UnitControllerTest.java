@@ -1,6 +1,8 @@
 package org.example.booking.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.booking.dto.CalendarRangeDto;
+import org.example.booking.dto.UnitCalendarResponse;
 import org.example.booking.dto.UnitCreateRequest;
 import org.example.booking.dto.UnitDto;
 import org.example.booking.dto.UnitSearchRequest;
@@ -13,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -24,8 +27,11 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -132,6 +138,72 @@ class UnitControllerTest {
             .andExpect(jsonPath("$.numberOfElements").value(2));
     }
     
+    @Test
+    void whenGetUnitCalendar_shouldReturnRangesWithETag() throws Exception {
+        // Given
+        LocalDate from = LocalDate.now().plusDays(1);
+        LocalDate to = from.plusDays(10);
+        given(unitAvailabilityService.getUnitCalendarVersion(1L)).willReturn("0.4");
+        given(unitAvailabilityService.getUnitCalendar(1L, from, to)).willReturn(new UnitCalendarResponse(1L, from, to, List.of(
+                new CalendarRangeDto(from, from.plusDays(3), true),
+                new CalendarRangeDto(from.plusDays(3), to, false))));
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                .param("from", from.toString())
+                .param("to", to.toString()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"0.4\""))
+            .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache"))
+            .andExpect(jsonPath("$.ranges.length()").value(2))
+            .andExpect(jsonPath("$.ranges[1].available").value(false));
+    }
+
+    @Test
+    void whenGetUnitCalendar_withCurrentETag_shouldReturnNotModified() throws Exception {
+        // Given
+        LocalDate from = LocalDate.now().plusDays(1);
+        given(unitAvailabilityService.getUnitCalendarVersion(1L)).willReturn("0.4");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                .param("from", from.toString())
+                .param("to", from.plusDays(10).toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0.4\""))
+            .andExpect(status().isNotModified());
+        verify(unitAvailabilityService, never()).getUnitCalendar(any(), any(), any());
+    }
+
+    @Test
+    void whenGetUnitCalendar_withTooLongWindowAndCurrentETag_shouldReturnBadRequest() throws Exception {
+        // Given
+        LocalDate from = LocalDate.now().plusDays(1);
+        given(unitAvailabilityService.getUnitCalendarVersion(1L)).willReturn("0.4");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                .param("from", from.toString())
+                .param("to", from.plusDays(UnitAvailabilityService.MAX_SERIES_NIGHTS + 1).toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0.4\""))
+            .andExpect(status().isBadRequest());
+        verify(unitAvailabilityService, never()).getUnitCalendarVersion(any());
+    }
+
+    @Test
+    void whenGetUnitCalendar_withEmptyWindowAndCurrentETag_shouldReturnBadRequest() throws Exception {
+        // Given
+        LocalDate from = LocalDate.now().plusDays(1);
+        given(unitAvailabilityService.getUnitCalendarVersion(1L)).willReturn("0.4");
+
+        // When & Then
+        mockMvc.perform(get("/api/v1/units/1/calendar")
+                .param("from", from.toString())
+                .param("to", from.toString())
+                .header(HttpHeaders.IF_NONE_MATCH, "\"0.4\""))
+            .andExpect(status().isBadRequest());
+        verify(unitAvailabilityService, never()).getUnitCalendar(any(), any(), any());
+    }
+
     @Test
     void whenSearchUnits_withInvalidCriteria_shouldReturnBadRequest() throws Exception {
         mockMvc.perform(get("/api/v1/units/search"))
@@ -1,15 +1,18 @@
 package org.example.booking.service;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.example.booking.model.Booking;
 import org.example.booking.model.BookingStatus;
 import org.example.booking.model.Unit;
 import org.example.booking.model.UnitEventType;
 import org.example.booking.repository.BookingRepository;
+import org.example.booking.service.support.BookingObservations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.Instant;
@@ -35,6 +38,9 @@ class BookingCleanupJobTest {
     @Mock
     private UnitAvailabilityService unitAvailabilityService;
 
+    @Spy
+    private BookingObservations bookingObservations = new BookingObservations(ObservationRegistry.NOOP);
+
     @InjectMocks
     private BookingCleanupJob bookingCleanupJob;
 
@@ -1,5 +1,6 @@
 package org.example.booking.service;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.example.booking.config.AppConfig;
 import org.example.booking.dto.BookingDto;
 import org.example.booking.dto.BookingCreateRequest;
@@ -13,11 +14,13 @@ import org.example.booking.model.User;
 import org.example.booking.repository.BookingRepository;
 import org.example.booking.repository.UnitRepository;
 import org.example.booking.repository.UserRepository;
+import org.example.booking.service.support.BookingObservations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -52,6 +55,9 @@ class BookingServiceTest {
     @Mock
     private AppConfig appConfig;
 
+    @Spy
+    private BookingObservations bookingObservations = new BookingObservations(ObservationRegistry.NOOP);
+
     @InjectMocks
     private BookingService bookingService;
 
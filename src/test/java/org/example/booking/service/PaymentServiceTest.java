@@ -1,5 +1,6 @@
 package org.example.booking.service;
 
+import io.micrometer.observation.ObservationRegistry;
 import org.example.booking.dto.PaymentDto;
 import org.example.booking.exception.BookingException;
 import org.example.booking.model.Booking;
@@ -9,6 +10,7 @@ import org.example.booking.model.PaymentStatus;
 import org.example.booking.model.Unit;
 import org.example.booking.model.UnitEventType;
 import org.example.booking.repository.PaymentRepository;
+import org.example.booking.service.support.BookingObservations;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -16,6 +18,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
@@ -41,6 +44,9 @@ class PaymentServiceTest {
     @Mock
     private UnitEventService unitEventService;
 
+    @Spy
+    private BookingObservations bookingObservations = new BookingObservations(ObservationRegistry.NOOP);
+
     @InjectMocks
     private PaymentService paymentService;
 
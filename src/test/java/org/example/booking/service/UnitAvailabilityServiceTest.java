@@ -1,13 +1,32 @@
 package org.example.booking.service;
 
-import org.example.booking.config.AppConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.dto.AvailabilityCheckRequest;
+import org.example.booking.dto.AvailabilityCheckResponse;
+import org.example.booking.dto.AvailabilityMatrixRequest;
+import org.example.booking.dto.AvailabilityMatrixResponse;
 import org.example.booking.dto.AvailableUnitsResponse;
+import org.example.booking.dto.AvailableUnitsSeriesResponse;
 import org.example.booking.dto.BookingDateRangeDto;
+import org.example.booking.dto.BookingRangeChangeDto;
+import org.example.booking.dto.CalendarRangeDto;
+import org.example.booking.dto.DailyAvailableUnitsDto;
+import org.example.booking.dto.UnitCalendarResponse;
+import org.example.booking.dto.UnitStayDto;
 import org.example.booking.exception.InvalidRequestException;
 import org.example.booking.model.Booking;
+import org.example.booking.model.BookingStatus;
 import org.example.booking.model.Unit;
 import org.example.booking.repository.BookingRepository;
 import org.example.booking.repository.UnitRepository;
+import org.example.booking.service.availability.AvailabilityAggregates;
+import org.example.booking.service.availability.AvailabilityCacheGenerations;
+import org.example.booking.service.availability.AvailabilityMatrix;
+import org.example.booking.service.availability.AvailabilitySnapshot;
+import org.example.booking.service.support.BookingObservations;
+import org.example.booking.service.support.RequestCoalescer;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,24 +34,38 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
-import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.connection.RedisSetCommands;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisZSetCommands;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.HashOperations;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisOperations;
-import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.SetOperations;
 import org.springframework.data.redis.core.StringRedisTemplate;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.ZSetOperations;
 
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Arrays;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -45,6 +78,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -55,7 +89,7 @@ class UnitAvailabilityServiceTest {
     private static final String BOOKED_UNITS_KEY_PREFIX = "booking-service:booked-unit-ids-by-date:";
 
     @Mock
-    private AppConfig appConfig;
+    private AvailabilityCacheGenerations availabilityCacheGenerations;
 
     @Mock
     private UnitRepository unitRepository;
@@ -72,6 +106,18 @@ class UnitAvailabilityServiceTest {
     @Mock
     private SetOperations<String, String> setOperations;
 
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry());
+
+    @Spy
+    private AvailabilityCacheProperties availabilityCacheProperties = new AvailabilityCacheProperties();
+
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private BookingObservations bookingObservations = new BookingObservations(ObservationRegistry.NOOP);
+
     @InjectMocks
     private UnitAvailabilityService unitAvailabilityService;
 
@@ -89,6 +135,8 @@ class UnitAvailabilityServiceTest {
         // Setup mock Redis operations
         when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
         when(stringRedisTemplate.opsForSet()).thenReturn(setOperations);
+        when(availabilityCacheGenerations.current()).thenReturn(0L);
+        when(availabilityCacheGenerations.writeTargets()).thenReturn(List.of(0L));
 
         // Setup test data
         testUnit = Unit.builder()
@@ -234,48 +282,480 @@ class UnitAvailabilityServiceTest {
     }
 
     @Test
-    void whenInitializeUnitAvailabilityCache_withRefreshEnabled_shouldReinitializeCache() {
+    void whenAddBookedDates_duringRebuild_shouldWriteBothGenerations() {
+        // Given
+        when(availabilityCacheGenerations.writeTargets()).thenReturn(List.of(0L, 1L));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        RedisHashCommands hashCommands = mock(RedisHashCommands.class);
+        when(connection.hashCommands()).thenReturn(hashCommands);
+
+        // When
+        unitAvailabilityService.addBookedDates(testBooking);
+
+        // Then
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        List<byte[][]> calls = scriptCalls(scriptingCommands, 6);
+        assertEquals(List.of(BOOKED_UNITS_KEY_PREFIX + checkInDate,
+                        AvailabilityAggregates.Resolution.WEEK.key(0, checkInDate),
+                        AvailabilityAggregates.Resolution.MONTH.key(0, checkInDate)),
+                keysOf(calls.getFirst()));
+        assertEquals(AvailabilityCacheGenerations.bookedUnitsKeyPrefix(1) + checkInDate, keysOf(calls.get(3)).getFirst());
+        assertEquals(String.valueOf(AvailabilityCacheGenerations.dateKeyExpiresAt(checkInDate, Duration.ofDays(1))),
+                new String(calls.getFirst()[3]));
+        assertEquals("1", new String(calls.getFirst()[6]));
+        verify(hashCommands).hIncrBy(AvailabilityCacheGenerations.UNIT_VERSIONS_KEY.getBytes(), "1".getBytes(), 1);
+    }
+
+    @Test
+    void whenIsUnitAvailable_afterGenerationSwap_shouldReadCurrentGeneration() {
+        // Given
+        when(availabilityCacheGenerations.current()).thenReturn(2L);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+
+        // When
+        unitAvailabilityService.isUnitAvailable(1L, checkInDate, checkOutDate);
+
+        // Then
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        verify(setCommands, times(3)).sIsMember(any(byte[].class), eq("1".getBytes()));
+        verify(setCommands).sIsMember(eq((AvailabilityCacheGenerations.bookedUnitsKeyPrefix(2) + checkInDate).getBytes()),
+                eq("1".getBytes()));
+    }
+
+    @Test
+    void whenLoadGeneration_shouldWriteTotalUnitsCountAndBookedDatesIntoGeneration() {
         // Given
-        when(appConfig.isRefreshCacheOnStartup()).thenReturn(true);
-        when(stringRedisTemplate.hasKey(TOTAL_UNITS_COUNT_KEY)).thenReturn(true);
         when(unitRepository.count()).thenReturn(10L);
-        
-        // Mock scan operation for deleteKeysByPrefix
-        Cursor<String> cursor = mock(Cursor.class);
-        when(cursor.hasNext()).thenReturn(true, true, false);
-        when(cursor.next()).thenReturn("key1", "key2");
-        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
-        
-        // Mock booking repository
-        List<BookingDateRangeDto> bookings = Collections.singletonList(
-                new BookingDateRangeDto(1L, checkInDate, checkOutDate));
-        when(bookingRepository.findActiveBookingRanges()).thenReturn(bookings);
+        when(bookingRepository.streamActiveBookingRanges()).thenReturn(Stream.of(
+                new BookingDateRangeDto(1L, checkInDate, checkOutDate)));
 
         // When
-        unitAvailabilityService.initializeUnitAvailabilityCache();
+        long loaded = unitAvailabilityService.loadGeneration(3);
 
         // Then
-        verify(stringRedisTemplate).delete(TOTAL_UNITS_COUNT_KEY);
-        verify(stringRedisTemplate).scan(any(ScanOptions.class));
-        verify(stringRedisTemplate).unlink(any(Set.class));
-        verify(bookingRepository).findActiveBookingRanges();
+        assertEquals(1, loaded);
+        verify(bookingRepository).streamActiveBookingRanges();
         verify(stringRedisTemplate).executePipelined(any(RedisCallback.class));
-        verify(valueOperations).set(eq(TOTAL_UNITS_COUNT_KEY), eq("10"));
+        verify(valueOperations).set(eq(AvailabilityCacheGenerations.totalUnitsCountKey(3)), eq("10"));
     }
 
     @Test
-    void whenInitializeUnitAvailabilityCache_withCacheExistsAndNoRefresh_shouldDoNothing() {
+    void whenLoadGeneration_withMoreBookingsThanChunkSize_shouldWriteOnePipelinePerChunk() {
         // Given
-        when(appConfig.isRefreshCacheOnStartup()).thenReturn(false);
-        when(stringRedisTemplate.hasKey(TOTAL_UNITS_COUNT_KEY)).thenReturn(true);
+        availabilityCacheProperties.setRebuildChunkSize(2);
+        when(bookingRepository.streamActiveBookingRanges()).thenReturn(Stream.of(
+                new BookingDateRangeDto(1L, checkInDate, checkOutDate),
+                new BookingDateRangeDto(2L, checkInDate, checkOutDate),
+                new BookingDateRangeDto(3L, checkInDate, checkOutDate)));
+        when(unitRepository.count()).thenReturn(3L);
 
         // When
-        unitAvailabilityService.initializeUnitAvailabilityCache();
+        unitAvailabilityService.loadGeneration(0);
 
         // Then
-        verify(stringRedisTemplate, never()).delete(anyString());
-        verify(stringRedisTemplate, never()).scan(any(ScanOptions.class));
-        verify(bookingRepository, never()).findActiveBookingRanges();
-        verify(unitRepository, never()).count();
+        verify(stringRedisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+        assertEquals(2, meterRegistry.get("booking.availability.rebuild.chunks").counter().count());
+        assertEquals(3, meterRegistry.get("booking.availability.rebuild.bookings").counter().count());
+        verify(valueOperations).set(eq(TOTAL_UNITS_COUNT_KEY), eq("3"));
+    }
+
+    @Test
+    void whenLoadGeneration_withOverlappingBookings_shouldGroupMembersPerDateKey() {
+        // Given
+        when(bookingRepository.streamActiveBookingRanges()).thenReturn(Stream.of(
+                new BookingDateRangeDto(1L, checkInDate, checkOutDate),
+                new BookingDateRangeDto(2L, checkInDate, checkOutDate)));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+
+        // When
+        unitAvailabilityService.loadGeneration(0);
+
+        // Then
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        List<byte[][]> calls = scriptCalls(scriptingCommands, 3);
+        assertEquals(new HashSet<>(dateKeys), calls.stream().map(call -> keysOf(call).getFirst()).collect(Collectors.toSet()));
+        calls.forEach(call -> assertEquals(Set.of("1", "2"), Set.of(new String(call[6]), new String(call[7]))));
+        verifyNoMoreInteractions(setCommands);
+        verify(valueOperations).set(AvailabilityCacheGenerations.layoutKey(0), AvailabilityAggregates.LAYOUT_VERSION);
+    }
+
+    @Test
+    void whenRemoveStaleBookedDates_withDateStillBookedInDatabase_shouldOnlyRemoveOtherDates() {
+        // Given
+        LocalDate secondNight = checkInDate.plusDays(1);
+        when(bookingRepository.findActiveBookingRangesOfUnitBetween(1L, checkInDate, secondNight.plusDays(1)))
+                .thenReturn(List.of(new BookingDateRangeDto(1L, secondNight, secondNight.plusDays(1))));
+
+        // When
+        Set<LocalDate> removed = unitAvailabilityService.removeStaleBookedDates(0, 1L, Set.of(checkInDate, secondNight));
+
+        // Then
+        assertEquals(Set.of(checkInDate), removed);
+        verify(unitRepository).findByIdWithLock(1L);
+        verify(stringRedisTemplate).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void whenLoadGenerationFromSnapshot_shouldReplayReleasedDatesBeforeBookedDates() {
+        // Given
+        AvailabilitySnapshot snapshot = mock(AvailabilitySnapshot.class);
+        when(snapshot.watermark()).thenReturn(Instant.parse("2026-01-01T10:00:00Z"));
+        when(bookingRepository.findBookingRangesChangedSince(Instant.parse("2026-01-01T09:59:00Z"))).thenReturn(List.of(
+                new BookingRangeChangeDto(1L, checkInDate, checkOutDate, BookingStatus.CONFIRMED),
+                new BookingRangeChangeDto(1L, checkInDate, checkOutDate, BookingStatus.CANCELLED)));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+
+        // When
+        long replayed = unitAvailabilityService.loadGenerationFromSnapshot(0, snapshot, Duration.ofMinutes(1));
+
+        // Then
+        assertEquals(2, replayed);
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        // Removals pass three keys and the unit id, additions also pass the three expiry times
+        assertEquals(List.of(4, 4, 4, 7, 7, 7), scriptCalls(scriptingCommands, 6).stream().map(call -> call.length).toList());
+    }
+
+    @Test
+    void whenReplayBookingChangesSince_withBookingCancelledDuringLoad_shouldReleaseItsDatesInBuildingGeneration() {
+        // Given
+        Instant loadStartedAt = Instant.parse("2026-01-01T10:00:00Z");
+        when(bookingRepository.findBookingRangesChangedSince(loadStartedAt)).thenReturn(List.of(
+                new BookingRangeChangeDto(1L, checkInDate, checkOutDate, BookingStatus.CANCELLED)));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+
+        // When
+        long replayed = unitAvailabilityService.replayBookingChangesSince(2, loadStartedAt);
+
+        // Then
+        assertEquals(1, replayed);
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        List<byte[][]> calls = scriptCalls(scriptingCommands, 3);
+        assertEquals(checkInDate.datesUntil(checkOutDate)
+                        .map(date -> AvailabilityCacheGenerations.bookedUnitsKeyPrefix(2) + date).toList(),
+                calls.stream().map(call -> keysOf(call).getFirst()).toList());
+        calls.forEach(call -> {
+            assertEquals(4, call.length);
+            assertEquals("1", new String(call[3]));
+        });
+    }
+
+    @Test
+    void whenReplayBookingChangesSince_withNoChanges_shouldNotTouchRedis() {
+        // Given
+        Instant loadStartedAt = Instant.parse("2026-01-01T10:00:00Z");
+        when(bookingRepository.findBookingRangesChangedSince(loadStartedAt)).thenReturn(List.of());
+
+        // When
+        long replayed = unitAvailabilityService.replayBookingChangesSince(2, loadStartedAt);
+
+        // Then
+        assertEquals(0, replayed);
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void whenIsUnitAvailable_withWholeMonthStay_shouldReadMonthAggregate() {
+        // Given
+        LocalDate firstOfMonth = LocalDate.of(2030, 7, 1);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(2.0));
+
+        // When
+        boolean available = unitAvailabilityService.isUnitAvailable(1L, firstOfMonth, firstOfMonth.plusMonths(1));
+
+        // Then
+        assertFalse(available);
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        verify(zSetCommands).zScore(AvailabilityAggregates.Resolution.MONTH.key(0, firstOfMonth).getBytes(), "1".getBytes());
+        verifyNoMoreInteractions(setCommands, zSetCommands);
+    }
+
+    @Test
+    void whenIsUnitAvailable_withAggregateScoreMissing_shouldReturnTrue() {
+        // Given
+        LocalDate monday = LocalDate.of(2030, 7, 8);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(null, false));
+
+        // When
+        boolean available = unitAvailabilityService.isUnitAvailable(1L, monday, monday.plusDays(8));
+
+        // Then
+        assertTrue(available);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenGetAvailableUnitsCount_withLongStay_shouldUnionAggregatesAndDateSets() {
+        // Given
+        ZSetOperations<String, String> zSetOperations = mock(ZSetOperations.class);
+        when(stringRedisTemplate.opsForZSet()).thenReturn(zSetOperations);
+        when(valueOperations.get(TOTAL_UNITS_COUNT_KEY)).thenReturn("10");
+        LocalDate monday = LocalDate.of(2030, 7, 8);
+        when(zSetOperations.union(anyString(), any(List.class))).thenReturn(Set.of("2", "3"));
+
+        // When
+        AvailableUnitsResponse result = unitAvailabilityService.getAvailableUnitsCount(monday, monday.plusDays(9));
+
+        // Then
+        assertEquals(8, result.getAvailableUnitsCount());
+        verify(zSetOperations).union(AvailabilityAggregates.Resolution.WEEK.key(0, monday),
+                List.of(BOOKED_UNITS_KEY_PREFIX + monday.plusDays(7), BOOKED_UNITS_KEY_PREFIX + monday.plusDays(8)));
+        verify(setOperations, never()).union(any(List.class));
+    }
+
+    @Test
+    void whenGetAvailableUnitsCount_withSingleNight_shouldUseSetSize() {
+        // Given
+        when(valueOperations.get(TOTAL_UNITS_COUNT_KEY)).thenReturn("10");
+        when(setOperations.size(BOOKED_UNITS_KEY_PREFIX + checkInDate)).thenReturn(4L);
+
+        // When
+        AvailableUnitsResponse result = unitAvailabilityService.getAvailableUnitsCount(checkInDate, checkInDate.plusDays(1));
+
+        // Then
+        assertEquals(6, result.getAvailableUnitsCount());
+        verify(setOperations, never()).union(any(List.class));
+    }
+
+    @Test
+    void whenGetAvailableUnitsSeries_shouldReadTotalAndSetSizesInOnePipeline() {
+        // Given
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList("10", 0L, 3L, 10L));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+
+        // When
+        AvailableUnitsSeriesResponse result = unitAvailabilityService.getAvailableUnitsSeries(checkInDate, checkOutDate);
+
+        // Then
+        assertEquals(10, result.getTotalUnitsCount());
+        assertEquals(List.of(
+                new DailyAvailableUnitsDto(checkInDate, 10),
+                new DailyAvailableUnitsDto(checkInDate.plusDays(1), 7),
+                new DailyAvailableUnitsDto(checkInDate.plusDays(2), 0)), result.getNights());
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        verify(stringCommands).get(TOTAL_UNITS_COUNT_KEY.getBytes());
+        for (String dateKey : dateKeys) {
+            verify(setCommands).sCard(dateKey.getBytes());
+        }
+    }
+
+    @Test
+    void whenGetAvailableUnitsSeries_withNoTotalUnitsCount_shouldReturnZeroForEveryNight() {
+        // Given
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(Arrays.asList(null, 0L, 0L, 0L));
+
+        // When
+        AvailableUnitsSeriesResponse result = unitAvailabilityService.getAvailableUnitsSeries(checkInDate, checkOutDate);
+
+        // Then
+        assertEquals(0, result.getTotalUnitsCount());
+        assertTrue(result.getNights().stream().allMatch(night -> night.getAvailableUnitsCount() == 0));
+    }
+
+    @Test
+    void whenGetAvailableUnitsSeries_withWindowLongerThanAYear_shouldThrowException() {
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> unitAvailabilityService.getAvailableUnitsSeries(
+                checkInDate, checkInDate.plusDays(UnitAvailabilityService.MAX_SERIES_NIGHTS + 1)));
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void whenGetUnitCalendar_shouldFoldNightsIntoRanges() {
+        // Given
+        LocalDate toDate = checkInDate.plusDays(5);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(false, true, true, false, false));
+
+        // When
+        UnitCalendarResponse result = unitAvailabilityService.getUnitCalendar(1L, checkInDate, toDate);
+
+        // Then
+        assertEquals(List.of(
+                new CalendarRangeDto(checkInDate, checkInDate.plusDays(1), true),
+                new CalendarRangeDto(checkInDate.plusDays(1), checkInDate.plusDays(3), false),
+                new CalendarRangeDto(checkInDate.plusDays(3), toDate, true)), result.getRanges());
+        assertEquals(1L, result.getUnitId());
+    }
+
+    @Test
+    void whenGetUnitCalendar_shouldQueryEveryDateInOnePipeline() {
+        // Given
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(Arrays.asList(false, false, false));
+
+        // When
+        unitAvailabilityService.getUnitCalendar(1L, checkInDate, checkOutDate);
+
+        // Then
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        for (String dateKey : dateKeys) {
+            verify(setCommands).sIsMember(dateKey.getBytes(), "1".getBytes());
+        }
+        verifyNoMoreInteractions(setCommands);
+    }
+
+    @Test
+    void whenGetUnitCalendarVersion_shouldCombineGenerationAndUnitCounter() {
+        // Given
+        HashOperations<String, Object, Object> hashOperations = mock(HashOperations.class);
+        when(stringRedisTemplate.opsForHash()).thenReturn(hashOperations);
+        when(availabilityCacheGenerations.current()).thenReturn(2L);
+        when(hashOperations.get(AvailabilityCacheGenerations.UNIT_VERSIONS_KEY, "1")).thenReturn("7");
+
+        // When & Then
+        assertEquals("2.7", unitAvailabilityService.getUnitCalendarVersion(1L));
+        assertEquals("2.0", unitAvailabilityService.getUnitCalendarVersion(3L));
+    }
+
+    @Test
+    void whenGetUnitCalendar_withWindowLongerThanAYear_shouldThrowException() {
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> unitAvailabilityService.getUnitCalendar(
+                1L, checkInDate, checkInDate.plusDays(UnitAvailabilityService.MAX_SERIES_NIGHTS + 1)));
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    @Test
+    void whenGetAvailabilityMatrix_shouldReadEachDateOnceForAllUnitsAndPackRows() {
+        // Given
+        AvailabilityMatrixRequest request = new AvailabilityMatrixRequest(List.of(1L, 2L), checkInDate, checkOutDate, false);
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(
+                List.of(false, true), List.of(true, true), List.of(false, false)));
+
+        // When
+        AvailabilityMatrixResponse result = unitAvailabilityService.getAvailabilityMatrix(request);
+
+        // Then
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        ArgumentCaptor<byte[][]> unitIds = ArgumentCaptor.forClass(byte[][].class);
+        verify(setCommands, times(3)).sMIsMember(any(byte[].class), unitIds.capture());
+        assertEquals(List.of("1", "2"), Arrays.stream(unitIds.getValue()).map(String::new).toList());
+        assertEquals(1, result.getRowBytes());
+        assertEquals(AvailabilityMatrix.IDENTITY, result.getEncoding());
+        assertArrayEquals(new byte[]{(byte) 0b1010_0000, (byte) 0b0010_0000}, Base64.getDecoder().decode(result.getRows()));
+    }
+
+    @Test
+    void whenGetAvailabilityMatrix_withCompression_shouldGzipRows() {
+        // Given
+        AvailabilityMatrixRequest request = new AvailabilityMatrixRequest(List.of(1L), checkInDate, checkOutDate, true);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(
+                List.of(false), List.of(false), List.of(false)));
+
+        // When
+        AvailabilityMatrixResponse result = unitAvailabilityService.getAvailabilityMatrix(request);
+
+        // Then
+        assertEquals(AvailabilityMatrix.GZIP, result.getEncoding());
+        assertArrayEquals(AvailabilityMatrix.gzip(new byte[]{(byte) 0b1110_0000}), Base64.getDecoder().decode(result.getRows()));
+    }
+
+    @Test
+    void whenCheckAvailability_withUnitIds_shouldQueryEachDateOnceForAllUnits() {
+        // Given
+        AvailabilityCheckRequest request = new AvailabilityCheckRequest(List.of(1L, 2L, 3L), checkInDate, checkOutDate, null);
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(
+                List.of(false, false, false), List.of(false, true, false), List.of(false, false, false)));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+
+        // When
+        AvailabilityCheckResponse response = unitAvailabilityService.checkAvailability(request);
+
+        // Then
+        assertEquals(List.of(true, false, true), response.getAvailable());
+        assertEquals(2, response.getAvailableCount());
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        for (String dateKey : dateKeys) {
+            verify(setCommands).sMIsMember(dateKey.getBytes(), "1".getBytes(), "2".getBytes(), "3".getBytes());
+        }
+        verifyNoMoreInteractions(setCommands);
+    }
+
+    @Test
+    void whenCheckAvailability_withStays_shouldGroupByRangeAndUseAggregates() {
+        // Given
+        LocalDate monday = LocalDate.of(2030, 7, 8);
+        AvailabilityCheckRequest request = new AvailabilityCheckRequest(null, null, null, List.of(
+                new UnitStayDto(1L, monday, monday.plusDays(7)),
+                new UnitStayDto(2L, checkInDate, checkInDate.plusDays(1)),
+                new UnitStayDto(3L, monday, monday.plusDays(7))));
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenReturn(List.of(
+                Arrays.asList(null, 4.0), List.of(false)));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisSetCommands setCommands = mock(RedisSetCommands.class);
+        when(connection.setCommands()).thenReturn(setCommands);
+        RedisZSetCommands zSetCommands = mock(RedisZSetCommands.class);
+        when(connection.zSetCommands()).thenReturn(zSetCommands);
+
+        // When
+        AvailabilityCheckResponse response = unitAvailabilityService.checkAvailability(request);
+
+        // Then
+        assertEquals(List.of(true, true, false), response.getAvailable());
+        verify(stringRedisTemplate).executePipelined(redisCallbackCaptor.capture());
+        redisCallbackCaptor.getValue().doInRedis(connection);
+        verify(zSetCommands).zMScore(AvailabilityAggregates.Resolution.WEEK.key(0, monday).getBytes(),
+                "1".getBytes(), "3".getBytes());
+        verify(setCommands).sMIsMember((BOOKED_UNITS_KEY_PREFIX + checkInDate).getBytes(), "2".getBytes());
+    }
+
+    @Test
+    void whenCheckAvailability_withBothUnitIdsAndStays_shouldThrowException() {
+        // Given
+        AvailabilityCheckRequest request = new AvailabilityCheckRequest(List.of(1L), checkInDate, checkOutDate,
+                List.of(new UnitStayDto(2L, checkInDate, checkOutDate)));
+
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> unitAvailabilityService.checkAvailability(request));
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+
+    private static List<byte[][]> scriptCalls(RedisScriptingCommands scriptingCommands, int times) {
+        ArgumentCaptor<byte[][]> keysAndArgs = ArgumentCaptor.forClass(byte[][].class);
+        verify(scriptingCommands, times(times)).evalSha(anyString(), eq(ReturnType.INTEGER), eq(3), keysAndArgs.capture());
+        return keysAndArgs.getAllValues();
+    }
+
+    private static List<String> keysOf(byte[][] keysAndArgs) {
+        return Arrays.stream(keysAndArgs, 0, 3).map(String::new).toList();
     }
-}
\ No newline at end of file
+}
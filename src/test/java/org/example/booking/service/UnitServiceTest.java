@@ -1,5 +1,8 @@
 package org.example.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.booking.config.datasource.ReadYourWritesTracker;
 import org.example.booking.dto.UnitCreateRequest;
 import org.example.booking.dto.UnitDto;
 import org.example.booking.dto.UnitSearchRequest;
@@ -10,6 +13,10 @@ import org.example.booking.model.Unit;
 import org.example.booking.model.UnitEventType;
 import org.example.booking.repository.UnitRepository;
 import org.example.booking.repository.UnitSpecification;
+import org.example.booking.service.support.BookingObservations;
+import org.example.booking.service.support.ClientContext;
+import org.example.booking.service.support.RequestCoalescer;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,13 +24,17 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.jpa.domain.Specification;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
@@ -34,6 +45,8 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
@@ -54,6 +67,15 @@ class UnitServiceTest {
     @Mock
     private UnitAvailabilityService unitAvailabilityService;
 
+    @Spy
+    private RequestCoalescer requestCoalescer = new RequestCoalescer(new SimpleMeterRegistry());
+
+    @Spy
+    private BookingObservations bookingObservations = new BookingObservations(ObservationRegistry.NOOP);
+
+    @Mock
+    private ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+
     @InjectMocks
     private UnitService unitService;
 
@@ -66,6 +88,11 @@ class UnitServiceTest {
     private UnitSearchRequest invalidPriceSearchRequest;
     private UnitSearchRequest invalidDateSearchRequest;
 
+    @AfterEach
+    void tearDown() {
+        ClientContext.clear();
+    }
+
     @BeforeEach
     void setUp() {
         // Setup create request
@@ -223,6 +250,41 @@ class UnitServiceTest {
         assertEquals("Nice apartment with balcony", unitDto.getDescription());
     }
 
+    @Test
+    void whenFindAvailableUnits_withClientThatWroteRecently_shouldNotCoalesce() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), Clock.systemUTC());
+        tracker.recordWrite("client-a");
+        given(readYourWritesTracker.getIfAvailable()).willReturn(tracker);
+        given(unitRepository.findAllSliced(any(), any(Pageable.class))).willReturn(new SliceImpl<>(List.of()));
+        ClientContext.setClientId("client-a");
+
+        // When
+        unitService.findAvailableUnits(validSearchRequest, pageable);
+
+        // Then
+        verify(requestCoalescer, never()).execute(anyString(), anyString(), any());
+        verify(unitRepository).findAllSliced(any(), any(Pageable.class));
+    }
+
+    @Test
+    void whenFindAvailableUnits_withClientThatDidNotWriteRecently_shouldCoalesce() {
+        // Given
+        Pageable pageable = PageRequest.of(0, 10);
+        ReadYourWritesTracker tracker = new ReadYourWritesTracker(Duration.ofSeconds(5), Clock.systemUTC());
+        tracker.recordWrite("client-a");
+        given(readYourWritesTracker.getIfAvailable()).willReturn(tracker);
+        given(unitRepository.findAllSliced(any(), any(Pageable.class))).willReturn(new SliceImpl<>(List.of()));
+        ClientContext.setClientId("client-b");
+
+        // When
+        unitService.findAvailableUnits(validSearchRequest, pageable);
+
+        // Then
+        verify(requestCoalescer).execute(anyString(), anyString(), any());
+    }
+
     @Test
     void whenFindAvailableUnits_withInvalidPriceCriteria_shouldThrowInvalidRequestException() {
         // Given
@@ -0,0 +1,66 @@
+package org.example.booking.service.admission;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.exception.TooManyRequestsException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdmissionControlServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private AdmissionControlService admissionControlService;
+
+    @BeforeEach
+    void setUp() {
+        admissionControlService = new AdmissionControlService(
+                new AdmissionControlProperties(), stringRedisTemplate, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCheckRate_withTwoUsers_shouldTakeTokensFromSeparateBuckets() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), any(List.class), anyString(), anyString()))
+                .thenReturn(List.of(1L, 0L));
+
+        // When
+        admissionControlService.checkRate(1L);
+        admissionControlService.checkRate(2L);
+
+        // Then
+        ArgumentCaptor<List<String>> keys = ArgumentCaptor.forClass(List.class);
+        verify(stringRedisTemplate, times(2)).execute(any(RedisScript.class), keys.capture(), anyString(), anyString());
+        assertNotEquals(keys.getAllValues().get(0), keys.getAllValues().get(1));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCheckRate_withEmptyBucket_shouldShedRequest() {
+        // Given
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of("booking-service:admission:bucket:1")),
+                anyString(), anyString())).thenReturn(List.of(0L, 200L));
+
+        // When & Then
+        assertThrows(TooManyRequestsException.class, () -> admissionControlService.checkRate(1L));
+    }
+}
@@ -0,0 +1,126 @@
+package org.example.booking.service.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AimdConcurrencyLimiterTest {
+
+    private static final long THRESHOLD = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(500);
+
+    @Test
+    void whenLimitReached_shouldRejectUntilReleased() {
+        // Given
+        var limiter = new AimdConcurrencyLimiter(2, 1, 10, THRESHOLD, 0.5);
+
+        // When & Then
+        assertTrue(limiter.tryAcquire());
+        assertTrue(limiter.tryAcquire());
+        assertFalse(limiter.tryAcquire());
+
+        limiter.release(FAST, false);
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void whenFastRequestsSaturateLimit_shouldIncreaseLimitOncePerWindow() {
+        // Given
+        var limiter = new AimdConcurrencyLimiter(4, 1, 10, THRESHOLD, 0.5);
+        limiter.tryAcquire();
+
+        // When: a window of four completions, each with two requests in flight
+        for (int i = 0; i < 3; i++) {
+            limiter.tryAcquire();
+            limiter.release(FAST, false);
+            assertEquals(4, limiter.getLimit());
+        }
+        limiter.tryAcquire();
+        limiter.release(FAST, false);
+
+        // Then
+        assertEquals(5, limiter.getLimit());
+    }
+
+    @Test
+    void whenFastRequestsDoNotUseLimit_shouldKeepLimit() {
+        // Given
+        var limiter = new AimdConcurrencyLimiter(4, 1, 10, THRESHOLD, 0.5);
+        limiter.tryAcquire();
+
+        // When
+        limiter.release(FAST, false);
+
+        // Then
+        assertEquals(4, limiter.getLimit());
+    }
+
+    @Test
+    void whenEverythingInFlightCompletesSlow_shouldBackOffOncePerWindow() {
+        // Given
+        var limiter = new AimdConcurrencyLimiter(20, 2, 200, THRESHOLD, 0.9);
+        for (int i = 0; i < 20; i++) {
+            limiter.tryAcquire();
+        }
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limiter.release(SLOW, false);
+        }
+
+        // Then
+        assertEquals(18, limiter.getLimit());
+
+        // When: the next window is slow as well
+        for (int i = 0; i < 18; i++) {
+            limiter.tryAcquire();
+        }
+        for (int i = 0; i < 18; i++) {
+            limiter.release(SLOW, false);
+        }
+
+        // Then
+        assertEquals(16, limiter.getLimit());
+    }
+
+    @Test
+    void whenPermitCancelled_shouldFreeSlotWithoutAdjustingLimit() {
+        // Given
+        var limiter = new AimdConcurrencyLimiter(1, 1, 10, THRESHOLD, 0.5);
+        limiter.tryAcquire();
+
+        // When
+        limiter.cancel();
+
+        // Then
+        assertEquals(0, limiter.getInFlight());
+        assertEquals(1, limiter.getLimit());
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void whenSlowOrFailedRequests_shouldBackOffToMinimum() {
+        // Given
+        var limiter = new AimdConcurrencyLimiter(8, 2, 10, THRESHOLD, 0.5);
+
+        // When
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+        assertEquals(4, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(FAST, true);
+        assertEquals(2, limiter.getLimit());
+
+        limiter.tryAcquire();
+        limiter.release(SLOW, false);
+
+        // Then
+        assertEquals(2, limiter.getLimit());
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.booking.service.availability;
+
+import org.example.booking.service.availability.AvailabilityAggregates.CoveringKey;
+import org.example.booking.service.availability.AvailabilityAggregates.Resolution;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisSystemException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisPipelineException;
+import org.springframework.data.redis.connection.RedisScriptingCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AvailabilityAggregatesTest {
+
+    private static final String DAY = "booking-service:booked-unit-ids-by-date:";
+    private static final String WEEK = "booking-service:booked-unit-nights-by-week:";
+    private static final String MONTH = "booking-service:booked-unit-nights-by-month:";
+
+    @Test
+    void whenCoveringShortStay_shouldUseDateKeysOnly() {
+        // Given
+        LocalDate checkIn = LocalDate.of(2030, 7, 10);
+
+        // When
+        List<CoveringKey> keys = AvailabilityAggregates.coveringKeys(0, checkIn, checkIn.plusDays(3));
+
+        // Then
+        assertEquals(List.of(DAY + "2030-07-10", DAY + "2030-07-11", DAY + "2030-07-12"),
+                keys.stream().map(CoveringKey::key).toList());
+    }
+
+    @Test
+    void whenCoveringLongStay_shouldUseWholeWeeksAndMonths() {
+        // When
+        List<CoveringKey> keys = AvailabilityAggregates.coveringKeys(0, LocalDate.of(2030, 6, 20), LocalDate.of(2030, 8, 19));
+
+        // Then
+        assertEquals(List.of(
+                DAY + "2030-06-20", DAY + "2030-06-21", DAY + "2030-06-22", DAY + "2030-06-23",
+                WEEK + "2030-06-24",
+                MONTH + "2030-07-01",
+                DAY + "2030-08-01", DAY + "2030-08-02", DAY + "2030-08-03", DAY + "2030-08-04",
+                WEEK + "2030-08-05", WEEK + "2030-08-12"), keys.stream().map(CoveringKey::key).toList());
+    }
+
+    @Test
+    void whenCoveringAnyRange_shouldCoverEveryNightExactlyOnce() {
+        LocalDate start = LocalDate.of(2030, 1, 1);
+        for (int offset = 0; offset < 40; offset++) {
+            for (int nights = 1; nights <= 120; nights += 7) {
+                // Given
+                LocalDate from = start.plusDays(offset);
+                LocalDate to = from.plusDays(nights);
+
+                // When
+                List<CoveringKey> keys = AvailabilityAggregates.coveringKeys(0, from, to);
+
+                // Then
+                List<LocalDate> covered = new ArrayList<>();
+                for (CoveringKey key : keys) {
+                    LocalDate periodStart = AvailabilityCacheGenerations.dateOfKey(key.key());
+                    periodStart.datesUntil(key.resolution().next(periodStart)).forEach(covered::add);
+                }
+                assertEquals(from.datesUntil(to).toList(), covered, from + ".." + to);
+                assertTrue(keys.size() <= 26 + nights / 28, from + ".." + to + " needed " + keys.size() + " keys");
+            }
+        }
+    }
+
+    @Test
+    void whenComputingExpiry_shouldExpireAggregateAfterItsLastNight() {
+        // Given
+        LocalDate monday = LocalDate.of(2030, 7, 8);
+
+        // When & Then
+        assertEquals(AvailabilityCacheGenerations.dateKeyExpiresAt(LocalDate.of(2030, 7, 14), Duration.ZERO),
+                Resolution.WEEK.expiresAt(monday, Duration.ZERO));
+        assertEquals(WEEK + "2030-07-08", Resolution.WEEK.key(0, LocalDate.of(2030, 7, 11)));
+        assertEquals(MONTH + "2030-07-01", Resolution.MONTH.key(0, LocalDate.of(2030, 7, 11)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenExecutePipelined_withScriptsUnknownToRedis_shouldLoadScriptsAndRunPipelineAgain() {
+        // Given
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        RedisCallback<?> pipeline = connection -> null;
+        when(redisTemplate.executePipelined(pipeline))
+                .thenThrow(new RedisPipelineException(new RedisSystemException("Error",
+                        new IllegalStateException("NOSCRIPT No matching script. Please use EVAL."))))
+                .thenReturn(List.of(1L));
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisScriptingCommands scriptingCommands = mock(RedisScriptingCommands.class);
+        when(connection.scriptingCommands()).thenReturn(scriptingCommands);
+        when(redisTemplate.execute(any(RedisCallback.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0, RedisCallback.class).doInRedis(connection));
+
+        // When
+        List<Object> results = AvailabilityAggregates.executePipelined(redisTemplate, pipeline);
+
+        // Then
+        assertEquals(List.of(1L), results);
+        verify(scriptingCommands, times(2)).scriptLoad(any(byte[].class));
+        verify(redisTemplate, times(2)).executePipelined(pipeline);
+    }
+
+    @Test
+    void whenExecutePipelined_withOtherError_shouldNotRetry() {
+        // Given
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        RedisCallback<?> pipeline = connection -> null;
+        when(redisTemplate.executePipelined(pipeline)).thenThrow(new RedisSystemException("Connection reset", null));
+
+        // When & Then
+        assertThrows(RedisSystemException.class, () -> AvailabilityAggregates.executePipelined(redisTemplate, pipeline));
+        verify(redisTemplate, times(1)).executePipelined(pipeline);
+    }
+}
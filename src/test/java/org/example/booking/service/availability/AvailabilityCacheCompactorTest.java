@@ -0,0 +1,146 @@
+package org.example.booking.service.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AvailabilityCacheCompactorTest {
+
+    private static final String PREFIX = "booking-service:booked-unit-ids-by-date:";
+
+    @Mock
+    private AvailabilityCacheGenerations generations;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCacheCompactor compactor;
+    private LocalDate today;
+    private List<List<String>> unlinkedBatches;
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityCacheProperties properties = new AvailabilityCacheProperties();
+        properties.setCompactionBatchSize(2);
+        properties.setCompactionPause(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        compactor = new AvailabilityCacheCompactor(properties, generations, stringRedisTemplate, meterRegistry);
+        today = LocalDate.now();
+        when(generations.writeTargets()).thenReturn(List.of(0L));
+        unlinkedBatches = new ArrayList<>();
+        when(stringRedisTemplate.unlink(anyCollection())).thenAnswer(invocation -> {
+            List<String> batch = List.copyOf(invocation.getArgument(0));
+            unlinkedBatches.add(batch);
+            return (long) batch.size();
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCompacting_shouldUnlinkOnlyKeysPastRetentionInBatches() {
+        // Given
+        String oldKey = PREFIX + today.minusDays(30);
+        String olderKey = PREFIX + today.minusDays(31);
+        String oldestKey = PREFIX + today.minusDays(400);
+        String yesterdayKey = PREFIX + today.minusDays(1);
+        String futureKey = PREFIX + today.plusDays(10);
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, true, true, true, false);
+        when(cursor.next()).thenReturn(oldKey, yesterdayKey, olderKey, futureKey, oldestKey);
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+
+        // When
+        compactor.compact();
+
+        // Then
+        assertEquals(List.of(List.of(oldKey, olderKey), List.of(oldestKey)), unlinkedBatches);
+        assertEquals(3, meterRegistry.get("booking.availability.compaction.unlinked").counter().count());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCompacting_withPastAggregates_shouldUnlinkOnlyPeriodsThatAreOver() {
+        // Given
+        LocalDate lastMonth = today.minusMonths(2).withDayOfMonth(1);
+        String pastMonthKey = AvailabilityAggregates.Resolution.MONTH.key(0, lastMonth);
+        String currentMonthKey = AvailabilityAggregates.Resolution.MONTH.key(0, today);
+        Cursor<String> days = mock(Cursor.class);
+        Cursor<String> weeks = mock(Cursor.class);
+        Cursor<String> months = mock(Cursor.class);
+        when(months.hasNext()).thenReturn(true, true, false);
+        when(months.next()).thenReturn(pastMonthKey, currentMonthKey);
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(days, weeks, months);
+
+        // When
+        compactor.compact();
+
+        // Then
+        assertEquals(List.of(List.of(pastMonthKey)), unlinkedBatches);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCompacting_withOnlyCurrentDates_shouldUnlinkNothing() {
+        // Given
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, false);
+        when(cursor.next()).thenReturn(PREFIX + today, PREFIX + today.plusDays(1));
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+
+        // When
+        compactor.compact();
+
+        // Then
+        verify(stringRedisTemplate, never()).unlink(anyCollection());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenCompacting_duringRebuild_shouldScanBothGenerations() {
+        // Given
+        when(generations.writeTargets()).thenReturn(List.of(0L, 1L));
+        Cursor<String> current = mock(Cursor.class);
+        when(current.hasNext()).thenReturn(true, false);
+        when(current.next()).thenReturn(PREFIX + today.minusDays(5));
+        Cursor<String> building = mock(Cursor.class);
+        when(building.hasNext()).thenReturn(true, false);
+        when(building.next()).thenReturn(AvailabilityCacheGenerations.bookedUnitsKeyPrefix(1) + today.minusDays(5));
+        Cursor<String> empty = mock(Cursor.class);
+        // One scan per resolution (day, week, month) and generation
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(current, empty, empty, building, empty, empty);
+
+        // When
+        compactor.compact();
+
+        // Then
+        verify(stringRedisTemplate, times(6)).scan(any(ScanOptions.class));
+        assertEquals(List.of(List.of(PREFIX + today.minusDays(5)),
+                List.of(AvailabilityCacheGenerations.bookedUnitsKeyPrefix(1) + today.minusDays(5))), unlinkedBatches);
+    }
+}
@@ -0,0 +1,74 @@
+package org.example.booking.service.availability;
+
+import org.example.booking.service.UnitAvailabilityService;
+import org.example.booking.service.startup.AppStartupCoordinator;
+import org.example.booking.service.startup.AppStartupCoordinator.StartupStatus;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.health.Status;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AvailabilityCacheHealthIndicatorTest {
+
+    @Mock
+    private AppStartupCoordinator appStartupCoordinator;
+
+    @Mock
+    private AvailabilityCacheGenerations availabilityCacheGenerations;
+
+    @Mock
+    private UnitAvailabilityService unitAvailabilityService;
+
+    @InjectMocks
+    private AvailabilityCacheHealthIndicator healthIndicator;
+
+    @Test
+    void whenStartupIsRunning_shouldBeDown() {
+        // Given
+        when(appStartupCoordinator.getStatus()).thenReturn(StartupStatus.RUNNING);
+
+        // When & Then
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+        verifyNoInteractions(unitAvailabilityService);
+    }
+
+    @Test
+    void whenStartupFailed_shouldBeDown() {
+        // Given
+        when(appStartupCoordinator.getStatus()).thenReturn(StartupStatus.FAILED);
+        when(appStartupCoordinator.getFailure()).thenReturn(new IllegalStateException("boom"));
+
+        // When & Then
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void whenStartupCompletedButCacheIsNotInitialized_shouldBeDown() {
+        // Given
+        when(appStartupCoordinator.getStatus()).thenReturn(StartupStatus.COMPLETED);
+        when(unitAvailabilityService.isInitialized()).thenReturn(false);
+
+        // When & Then
+        assertEquals(Status.DOWN, healthIndicator.health().getStatus());
+    }
+
+    @Test
+    void whenStartupCompletedAndCacheIsInitialized_shouldBeUp() {
+        // Given
+        when(appStartupCoordinator.getStatus()).thenReturn(StartupStatus.COMPLETED);
+        when(unitAvailabilityService.isInitialized()).thenReturn(true);
+        when(availabilityCacheGenerations.current()).thenReturn(3L);
+
+        // When & Then
+        assertEquals(Status.UP, healthIndicator.health().getStatus());
+        verify(availabilityCacheGenerations).current();
+    }
+}
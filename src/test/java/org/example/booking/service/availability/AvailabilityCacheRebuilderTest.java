@@ -0,0 +1,234 @@
+package org.example.booking.service.availability;
+
+import net.javacrumbs.shedlock.core.LockProvider;
+import net.javacrumbs.shedlock.core.SimpleLock;
+import org.example.booking.config.AppConfig;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.service.UnitAvailabilityService;
+import org.example.booking.service.availability.AvailabilityCacheRebuilder.RebuildResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AvailabilityCacheRebuilderTest {
+
+    @Mock
+    private AppConfig appConfig;
+
+    @Mock
+    private AvailabilityCacheGenerations generations;
+
+    @Mock
+    private UnitAvailabilityService unitAvailabilityService;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private LockProvider lockProvider;
+
+    @Mock
+    private ObjectProvider<AvailabilitySnapshotStore> snapshotStoreProvider;
+
+    private AvailabilityCacheRebuilder rebuilder;
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityCacheProperties properties = new AvailabilityCacheProperties();
+        properties.setRebuildSettleDelay(Duration.ZERO);
+        rebuilder = new AvailabilityCacheRebuilder(
+                appConfig, properties, generations, unitAvailabilityService, stringRedisTemplate, snapshotStoreProvider, lockProvider);
+
+        when(lockProvider.lock(any())).thenReturn(Optional.of(mock(SimpleLock.class)));
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(mock(Cursor.class));
+        when(generations.building()).thenReturn(Optional.empty());
+        when(generations.startBuilding()).thenReturn(1L);
+        when(generations.promote(1L)).thenReturn(0L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rebuilder.destroy();
+    }
+
+    @Test
+    void whenInitializeUnitAvailabilityCache_withCacheExistsAndNoRefresh_shouldDoNothing() {
+        // Given
+        when(appConfig.isRefreshCacheOnStartup()).thenReturn(false);
+        when(unitAvailabilityService.isInitialized()).thenReturn(true);
+
+        // When
+        rebuilder.initializeUnitAvailabilityCache();
+
+        // Then
+        verify(generations, never()).startBuilding();
+        verify(unitAvailabilityService, never()).loadGeneration(anyLong());
+    }
+
+    @Test
+    void whenInitializeUnitAvailabilityCache_withRefreshEnabled_shouldRebuildIntoNewGeneration() {
+        // Given
+        when(appConfig.isRefreshCacheOnStartup()).thenReturn(true);
+        when(unitAvailabilityService.isInitialized()).thenReturn(true);
+
+        // When
+        rebuilder.initializeUnitAvailabilityCache();
+
+        // Then
+        InOrder inOrder = inOrder(generations, unitAvailabilityService);
+        inOrder.verify(generations).startBuilding();
+        inOrder.verify(unitAvailabilityService).loadGeneration(1L);
+        inOrder.verify(generations).promote(1L);
+    }
+
+    @Test
+    void whenRebuild_shouldSwapGenerationsAndReportResult() {
+        // Given
+        when(unitAvailabilityService.loadGeneration(1L)).thenReturn(42L);
+
+        // When
+        Optional<RebuildResult> result = rebuilder.rebuild();
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(1L, result.get().generation());
+        assertEquals(0L, result.get().previousGeneration());
+        assertEquals(42L, result.get().bookings());
+        assertEquals(result.get(), rebuilder.status().lastRebuild());
+    }
+
+    @Test
+    void whenRebuild_withBookingCancelledDuringLoad_shouldReplayChangesSinceLoadStartBeforePromote() {
+        // Given
+        Instant beforeRebuild = Instant.now();
+
+        // When
+        rebuilder.rebuild();
+
+        // Then
+        ArgumentCaptor<Instant> since = ArgumentCaptor.forClass(Instant.class);
+        InOrder inOrder = inOrder(generations, unitAvailabilityService);
+        inOrder.verify(unitAvailabilityService).loadGeneration(1L);
+        inOrder.verify(unitAvailabilityService).replayBookingChangesSince(eq(1L), since.capture());
+        inOrder.verify(generations).promote(1L);
+        Duration margin = new AvailabilityCacheProperties().getSnapshotReplayMargin();
+        assertFalse(since.getValue().isBefore(beforeRebuild.minus(margin)));
+        assertFalse(since.getValue().isAfter(Instant.now().minus(margin)));
+    }
+
+    @Test
+    void whenRebuild_withLoadFailure_shouldAbortAndDiscardNewGeneration() {
+        // Given
+        when(unitAvailabilityService.loadGeneration(1L)).thenThrow(new IllegalStateException("database down"));
+
+        // When
+        assertThrows(IllegalStateException.class, () -> rebuilder.rebuild());
+
+        // Then
+        verify(generations).abort(1L);
+        verify(generations, never()).promote(anyLong());
+        verify(stringRedisTemplate).unlink(anyCollection());
+    }
+
+    @Test
+    void whenRebuild_withLockHeldByAnotherNode_shouldSkip() {
+        // Given
+        when(lockProvider.lock(any())).thenReturn(Optional.empty());
+
+        // When
+        Optional<RebuildResult> result = rebuilder.rebuild();
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(generations, never()).startBuilding();
+    }
+
+    @Test
+    void whenRebuild_withGenerationLeftByInterruptedRebuild_shouldDiscardItFirst() {
+        // Given
+        when(generations.building()).thenReturn(Optional.of(7L));
+
+        // When
+        rebuilder.rebuild();
+
+        // Then
+        InOrder inOrder = inOrder(generations);
+        inOrder.verify(generations).abort(7L);
+        inOrder.verify(generations).startBuilding();
+    }
+
+    @Test
+    void whenInitializeUnitAvailabilityCache_withSnapshot_shouldLoadSnapshotInsteadOfDatabase() {
+        // Given
+        AvailabilitySnapshotStore snapshotStore = mock(AvailabilitySnapshotStore.class);
+        AvailabilitySnapshot snapshot = mock(AvailabilitySnapshot.class);
+        when(snapshotStoreProvider.getIfAvailable()).thenReturn(snapshotStore);
+        when(snapshotStore.read()).thenReturn(Optional.of(snapshot));
+
+        // When
+        rebuilder.initializeUnitAvailabilityCache();
+
+        // Then
+        verify(unitAvailabilityService).loadGenerationFromSnapshot(eq(1L), eq(snapshot), any(Duration.class));
+        verify(unitAvailabilityService, never()).loadGeneration(anyLong());
+        verify(generations).promote(1L);
+    }
+
+    @Test
+    void whenRebuild_withSnapshot_shouldStillReadDatabase() {
+        // Given
+        AvailabilitySnapshotStore snapshotStore = mock(AvailabilitySnapshotStore.class);
+        when(snapshotStoreProvider.getIfAvailable()).thenReturn(snapshotStore);
+        when(snapshotStore.read()).thenReturn(Optional.of(mock(AvailabilitySnapshot.class)));
+
+        // When
+        rebuilder.rebuild();
+
+        // Then
+        verify(unitAvailabilityService).loadGeneration(1L);
+    }
+
+    @Test
+    void whenInitializeUnitAvailabilityCache_afterRebuildSinceStartup_shouldNotRebuildAgain() {
+        // Given
+        when(appConfig.isRefreshCacheOnStartup()).thenReturn(true);
+        rebuilder.rebuild();
+
+        // When
+        rebuilder.initializeUnitAvailabilityCache();
+
+        // Then
+        verify(generations).startBuilding();
+    }
+}
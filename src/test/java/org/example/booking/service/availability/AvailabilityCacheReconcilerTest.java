@@ -0,0 +1,176 @@
+package org.example.booking.service.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.dto.BookingDateRangeDto;
+import org.example.booking.repository.BookingRepository;
+import org.example.booking.repository.UnitRepository;
+import org.example.booking.service.UnitAvailabilityService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anySet;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AvailabilityCacheReconcilerTest {
+
+    private static final String TOTAL_UNITS_COUNT_KEY = "booking-service:total-units-count";
+
+    @Mock
+    private AvailabilityCacheGenerations generations;
+
+    @Mock
+    private UnitAvailabilityService unitAvailabilityService;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UnitRepository unitRepository;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCacheReconciler reconciler;
+    private LocalDate today;
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityCacheProperties properties = new AvailabilityCacheProperties();
+        properties.setReconcileHorizonDays(2);
+        properties.setReconcileWindowDays(2);
+        properties.setReconcilePause(Duration.ZERO);
+        properties.setReconcileGracePeriod(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        reconciler = new AvailabilityCacheReconciler(properties, generations, unitAvailabilityService,
+                bookingRepository, unitRepository, stringRedisTemplate, meterRegistry);
+
+        today = LocalDate.now();
+        when(generations.current()).thenReturn(0L);
+        when(generations.building()).thenReturn(Optional.empty());
+        when(stringRedisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(unitRepository.count()).thenReturn(100L);
+        when(valueOperations.get(TOTAL_UNITS_COUNT_KEY)).thenReturn("100");
+    }
+
+    @Test
+    void whenReconcile_withCacheMatchingDatabase_shouldRepairNothing() {
+        // Given
+        when(bookingRepository.findActiveBookingRangesBetween(today, today.plusDays(2)))
+                .thenReturn(List.of(new BookingDateRangeDto(1L, today, today.plusDays(1))));
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Set.of("1"), Set.of()));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(stringRedisTemplate, times(1)).executePipelined(any(RedisCallback.class));
+        verify(unitAvailabilityService, never()).removeStaleBookedDates(anyLong(), any(), anySet());
+        verify(valueOperations, never()).set(anyString(), anyString());
+    }
+
+    @Test
+    void whenReconcile_withBookingMissingFromCache_shouldAddItBack() {
+        // Given
+        when(bookingRepository.findActiveBookingRangesBetween(today, today.plusDays(2)))
+                .thenReturn(List.of(new BookingDateRangeDto(1L, today, today.plusDays(1))));
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Set.of(), Set.of()), List.of(Set.of(), Set.of()), List.of());
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(stringRedisTemplate, times(3)).executePipelined(any(RedisCallback.class));
+        assertEquals(1, meterRegistry.get("booking.availability.drift").tag("type", "missing").counter().count());
+    }
+
+    @Test
+    void whenReconcile_withExtraUnitInCache_shouldRemoveItUnderUnitLock() {
+        // Given
+        when(bookingRepository.findActiveBookingRangesBetween(today, today.plusDays(2))).thenReturn(List.of());
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Set.of("5"), Set.of()));
+        when(unitAvailabilityService.removeStaleBookedDates(0L, 5L, Set.of(today))).thenReturn(Set.of(today));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(unitAvailabilityService).removeStaleBookedDates(0L, 5L, Set.of(today));
+        assertEquals(1, meterRegistry.get("booking.availability.drift").tag("type", "extra").counter().count());
+    }
+
+    @Test
+    void whenReconcile_withDriftGoneOnRecheck_shouldNotRepair() {
+        // Given
+        when(bookingRepository.findActiveBookingRangesBetween(today, today.plusDays(2)))
+                .thenReturn(List.of(new BookingDateRangeDto(1L, today, today.plusDays(1))));
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Set.of(), Set.of()), List.of(Set.of("1"), Set.of()));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(stringRedisTemplate, times(2)).executePipelined(any(RedisCallback.class));
+        verify(unitAvailabilityService, never()).removeStaleBookedDates(anyLong(), any(), anySet());
+    }
+
+    @Test
+    void whenReconcile_withTotalUnitsCountDrifted_shouldResetIt() {
+        // Given
+        when(valueOperations.get(TOTAL_UNITS_COUNT_KEY)).thenReturn("97");
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class)))
+                .thenReturn(List.of(Set.of(), Set.of()));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(valueOperations).set(eq(TOTAL_UNITS_COUNT_KEY), eq("100"));
+        assertEquals(1, meterRegistry.get("booking.availability.drift").tag("type", "total-units").counter().count());
+    }
+
+    @Test
+    void whenReconcile_withRebuildInProgress_shouldSkip() {
+        // Given
+        when(generations.building()).thenReturn(Optional.of(1L));
+
+        // When
+        reconciler.reconcile();
+
+        // Then
+        verify(bookingRepository, never()).findActiveBookingRangesBetween(any(), any());
+        verify(stringRedisTemplate, never()).executePipelined(any(RedisCallback.class));
+    }
+}
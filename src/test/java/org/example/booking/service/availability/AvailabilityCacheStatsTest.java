@@ -0,0 +1,117 @@
+package org.example.booking.service.availability;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.config.AvailabilityCacheProperties;
+import org.example.booking.service.UnitAvailabilityService;
+import org.example.booking.service.availability.AvailabilityCacheStats.Report;
+import org.example.booking.service.availability.AvailabilityCacheStats.Sample;
+import org.example.booking.service.support.BookingObservations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AvailabilityCacheStatsTest {
+
+    private static final String PREFIX = "booking-service:booked-unit-ids-by-date:";
+
+    @Mock
+    private AvailabilityCacheGenerations generations;
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private AvailabilityCacheStats availabilityCacheStats;
+
+    @BeforeEach
+    void setUp() {
+        AvailabilityCacheProperties properties = new AvailabilityCacheProperties();
+        properties.setStatsBatchSize(2);
+        properties.setStatsPause(Duration.ZERO);
+        meterRegistry = new SimpleMeterRegistry();
+        availabilityCacheStats = new AvailabilityCacheStats(properties, generations, stringRedisTemplate, meterRegistry);
+        when(generations.current()).thenReturn(0L);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void whenSampling_shouldMeasureKeysInBatchesAndPublishGauges() {
+        // Given
+        LocalDate today = LocalDate.now();
+        String pastKey = PREFIX + today.minusDays(3);
+        String todayKey = PREFIX + today;
+        String futureKey = PREFIX + today.plusDays(30);
+        Cursor<String> cursor = mock(Cursor.class);
+        when(cursor.hasNext()).thenReturn(true, true, true, false);
+        when(cursor.next()).thenReturn(pastKey, todayKey, futureKey);
+        when(stringRedisTemplate.scan(any(ScanOptions.class))).thenReturn(cursor);
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(pastKey, todayKey))))
+                .thenReturn(List.of(4L, 300L, 10L, 700L));
+        when(stringRedisTemplate.execute(any(RedisScript.class), eq(List.of(futureKey))))
+                .thenReturn(List.of(1L, 100L));
+
+        // When
+        Sample sample = availabilityCacheStats.sample();
+
+        // Then
+        assertEquals(3, sample.dateKeys());
+        assertEquals(15, sample.bookedNights());
+        assertEquals(10, sample.maxUnitsPerDate());
+        assertEquals(1100, sample.memoryBytes());
+        assertEquals(1, sample.pastDateKeys());
+        assertEquals(today.minusDays(3), sample.oldestDate());
+        assertEquals(today.plusDays(30), sample.newestDate());
+        verify(stringRedisTemplate, times(2)).execute(any(RedisScript.class), any(List.class));
+        verify(cursor).close();
+        assertEquals(3, meterRegistry.get("booking.availability.cache.date.keys").gauge().value());
+        assertEquals(1100, meterRegistry.get("booking.availability.cache.memory").gauge().value());
+    }
+
+    @Test
+    void whenNotSampledYet_shouldReportOperationsWithoutSample() {
+        // Given
+        meterRegistry.timer(BookingObservations.STEP_METRIC,
+                "operation", "availability", "step", "sismember-pipeline", "outcome", "success")
+                .record(4, TimeUnit.MILLISECONDS);
+        meterRegistry.timer(BookingObservations.STEP_METRIC,
+                "operation", "availability", "step", "sismember-pipeline", "outcome", "error")
+                .record(10, TimeUnit.MILLISECONDS);
+        meterRegistry.summary(UnitAvailabilityService.PIPELINE_METRIC, "operation", "is-unit-available").record(3);
+
+        // When
+        Report report = availabilityCacheStats.report();
+
+        // Then
+        assertNull(report.sample());
+        assertEquals(2, report.latency().get("sismember-pipeline").count());
+        assertEquals(7, report.latency().get("sismember-pipeline").meanMillis(), 0.001);
+        assertEquals(10, report.latency().get("sismember-pipeline").maxMillis(), 0.001);
+        assertEquals(3, report.pipelines().get("is-unit-available").maxCommands(), 0.001);
+        assertTrue(Double.isNaN(meterRegistry.get("booking.availability.cache.date.keys").gauge().value()));
+    }
+}
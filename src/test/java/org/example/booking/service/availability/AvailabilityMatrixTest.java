@@ -0,0 +1,59 @@
+package org.example.booking.service.availability;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityMatrixTest {
+
+    @Test
+    void whenTransposing_shouldPackOneRowPerUnitWithFirstNightAsHighBit() {
+        // Given: 9 nights of 2 units; unit 0 is booked on nights 1 and 8, unit 1 on night 0
+        List<Object> columns = new ArrayList<>();
+        for (int night = 0; night < 9; night++) {
+            columns.add(List.of(night == 1 || night == 8, night == 0));
+        }
+
+        // When
+        byte[] rows = AvailabilityMatrix.transpose(columns, 2);
+
+        // Then
+        assertEquals(2, AvailabilityMatrix.rowBytes(9));
+        assertArrayEquals(new byte[]{(byte) 0b1011_1111, 0, (byte) 0b0111_1111, (byte) 0b1000_0000}, rows);
+    }
+
+    @Test
+    void whenTransposing_withMissingColumn_shouldTreatNightAsAvailable() {
+        // When
+        byte[] rows = AvailabilityMatrix.transpose(Arrays.asList(null, Collections.emptyList()), 1);
+
+        // Then
+        assertArrayEquals(new byte[]{(byte) 0b1100_0000}, rows);
+    }
+
+    @Test
+    void whenGzipping_shouldRoundTrip() throws IOException {
+        // Given
+        byte[] rows = new byte[1000];
+        Arrays.fill(rows, (byte) 0xFF);
+
+        // When
+        byte[] compressed = AvailabilityMatrix.gzip(rows);
+
+        // Then
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(compressed))) {
+            assertArrayEquals(rows, gzip.readAllBytes());
+        }
+        assertTrue(compressed.length < rows.length);
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.booking.service.availability;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.BitSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilitySnapshotTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void whenWrittenAndRead_shouldReturnSameBookedUnitsAndWatermark() throws IOException {
+        // Given
+        Path path = directory.resolve("availability.snapshot");
+        Instant watermark = Instant.parse("2026-01-01T10:00:00Z");
+        LocalDate firstDate = LocalDate.of(2026, 1, 10);
+        TreeMap<LocalDate, BitSet> bookedUnitIdsByDate = new TreeMap<>();
+        bookedUnitIdsByDate.put(firstDate, bitSet(1, 63, 64, 200));
+        bookedUnitIdsByDate.put(firstDate.plusDays(3), bitSet(7));
+
+        // When
+        AvailabilitySnapshot.write(path, watermark, bookedUnitIdsByDate);
+        AvailabilitySnapshot snapshot = AvailabilitySnapshot.read(path);
+
+        // Then
+        Map<LocalDate, List<Long>> read = new LinkedHashMap<>();
+        snapshot.forEachDate(read::put);
+        assertEquals(watermark, snapshot.watermark());
+        assertEquals(Map.of(
+                firstDate, List.of(1L, 63L, 64L, 200L),
+                firstDate.plusDays(3), List.of(7L)), read);
+        assertTrue(Files.notExists(directory.resolve("availability.snapshot.tmp")));
+    }
+
+    @Test
+    void whenEmpty_shouldReadNoDates() throws IOException {
+        // Given
+        Path path = directory.resolve("availability.snapshot");
+
+        // When
+        AvailabilitySnapshot.write(path, Instant.EPOCH, new TreeMap<>());
+        AvailabilitySnapshot snapshot = AvailabilitySnapshot.read(path);
+
+        // Then
+        snapshot.forEachDate((date, unitIds) -> {
+            throw new AssertionError("Unexpected date " + date);
+        });
+    }
+
+    @Test
+    void whenFileIsNotASnapshot_shouldThrow() throws IOException {
+        // Given
+        Path path = Files.writeString(directory.resolve("availability.snapshot"), "not a snapshot at all, really");
+
+        // When & Then
+        assertThrows(IOException.class, () -> AvailabilitySnapshot.read(path));
+    }
+
+    private static BitSet bitSet(int... unitIds) {
+        BitSet bitSet = new BitSet();
+        for (int unitId : unitIds) {
+            bitSet.set(unitId);
+        }
+        return bitSet;
+    }
+}
@@ -0,0 +1,225 @@
+package org.example.booking.service.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.booking.dto.BookingCreateRequest;
+import org.example.booking.dto.PaymentDto;
+import org.example.booking.exception.BookingException;
+import org.example.booking.exception.InvalidRequestException;
+import org.example.booking.service.support.ClientContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class IdempotencyServiceTest {
+
+    @Mock
+    private StringRedisTemplate stringRedisTemplate;
+
+    @Mock
+    private ValueOperations<String, String> valueOperations;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    private IdempotencyService idempotencyService;
+    private AtomicInteger executions;
+    private PaymentDto payment;
+
+    @BeforeEach
+    void setUp() {
+        given(stringRedisTemplate.opsForValue()).willReturn(valueOperations);
+        var properties = new IdempotencyProperties();
+        properties.setWaitTimeout(Duration.ofMillis(200));
+        properties.setPollInterval(Duration.ofMillis(10));
+        idempotencyService = new IdempotencyService(properties, stringRedisTemplate, objectMapper);
+
+        executions = new AtomicInteger();
+        payment = new PaymentDto(5L, 1L, "SUCCESSFUL", new BigDecimal("150.00"), Instant.parse("2025-01-01T00:00:00Z"));
+    }
+
+    @Test
+    void whenNoIdempotencyKey_shouldExecuteWithoutRedis() {
+        // When
+        ResponseEntity<PaymentDto> response = pay(null, 1L);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        verifyNoInteractions(stringRedisTemplate);
+    }
+
+    @Test
+    void whenFirstRequest_shouldClaimKeyAndStoreResponse() {
+        // Given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+
+        // When
+        pay("key-1", 1L);
+
+        // Then
+        assertEquals(1, executions.get());
+        Object[] args = completeArgs();
+        assertEquals(String.valueOf(Duration.ofHours(24).toMillis()), args[2]);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), eq(List.of("booking-service:idempotency:pay-booking:key-1")),
+                any(Object[].class));
+    }
+
+    @Test
+    void whenClientAddressChanges_shouldStillFindKey() {
+        // Given
+        String storedRecord = completeFirstRequest("key-1", 1L);
+        given(valueOperations.get("booking-service:idempotency:pay-booking:key-1")).willReturn(storedRecord);
+        ClientContext.setClientId("10.0.0.2");
+
+        // When
+        ResponseEntity<PaymentDto> replayed;
+        try {
+            replayed = pay("key-1", 1L);
+        } finally {
+            ClientContext.clear();
+        }
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+    }
+
+    @Test
+    void whenCompleting_shouldOnlyReplaceOwnClaim() {
+        // Given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+
+        // When
+        pay("key-1", 1L);
+
+        // Then
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(anyString(), claim.capture(), any(Duration.class));
+        assertEquals(claim.getValue(), completeArgs()[0]);
+        verify(valueOperations, never()).set(anyString(), anyString(), any(Duration.class));
+    }
+
+    @Test
+    void whenDuplicateAfterCompletion_shouldReplayStoredResponse() {
+        // Given
+        String storedRecord = completeFirstRequest("key-1", 1L);
+        given(valueOperations.get(anyString())).willReturn(storedRecord);
+
+        // When
+        ResponseEntity<PaymentDto> replayed = pay("key-1", 1L);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.OK, replayed.getStatusCode());
+        assertEquals("true", replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        assertEquals(payment, replayed.getBody());
+    }
+
+    @Test
+    void whenDuplicateWhileInProgress_shouldWaitForStoredResponse() throws Exception {
+        // Given
+        String storedRecord = completeFirstRequest("key-1", 1L);
+        String inProgress = objectMapper.writeValueAsString(
+                IdempotencyRecord.inProgress(objectMapper.readValue(storedRecord, IdempotencyRecord.class).fingerprint(), "other"));
+        given(valueOperations.get(anyString())).willReturn(inProgress, inProgress, storedRecord);
+
+        // When
+        ResponseEntity<PaymentDto> replayed = pay("key-1", 1L);
+
+        // Then
+        assertEquals(1, executions.get());
+        assertEquals(payment, replayed.getBody());
+    }
+
+    @Test
+    void whenOriginalNeverCompletes_shouldGiveUpWithConflict() throws Exception {
+        // Given
+        String storedRecord = completeFirstRequest("key-1", 1L);
+        String inProgress = objectMapper.writeValueAsString(
+                IdempotencyRecord.inProgress(objectMapper.readValue(storedRecord, IdempotencyRecord.class).fingerprint(), "other"));
+        given(valueOperations.get(anyString())).willReturn(inProgress);
+
+        // When & Then
+        assertThrows(BookingException.class, () -> pay("key-1", 1L));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void whenKeyReusedForDifferentRequest_shouldReject() {
+        // Given
+        String storedRecord = completeFirstRequest("key-1", 1L);
+        given(valueOperations.get(anyString())).willReturn(storedRecord);
+
+        // When & Then
+        assertThrows(InvalidRequestException.class, () -> pay("key-1", 2L));
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void whenActionFails_shouldReleaseKey() {
+        // Given
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+        var request = new BookingCreateRequest(1L, 1L, LocalDate.now(), LocalDate.now().plusDays(1));
+
+        // When & Then
+        assertThrows(BookingException.class, () -> idempotencyService.execute(
+                "key-1", "create-booking", request, PaymentDto.class, () -> {
+                    throw new BookingException("Unit not available");
+                }));
+        ArgumentCaptor<String> claim = ArgumentCaptor.forClass(String.class);
+        verify(valueOperations).setIfAbsent(anyString(), claim.capture(), any(Duration.class));
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), anyList(), args.capture());
+        assertArrayEquals(new Object[]{claim.getValue()}, args.getValue());
+        verify(stringRedisTemplate, never()).delete(anyString());
+    }
+
+    private String completeFirstRequest(String key, Long bookingId) {
+        given(valueOperations.setIfAbsent(anyString(), anyString(), any(Duration.class))).willReturn(true);
+        pay(key, bookingId);
+        return (String) completeArgs()[1];
+    }
+
+    private Object[] completeArgs() {
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(stringRedisTemplate).execute(any(RedisScript.class), anyList(), args.capture());
+        return args.getValue();
+    }
+
+    private ResponseEntity<PaymentDto> pay(String key, Long bookingId) {
+        return idempotencyService.execute(key, "pay-booking", bookingId, PaymentDto.class, () -> {
+            executions.incrementAndGet();
+            return ResponseEntity.ok(payment);
+        });
+    }
+}
@@ -0,0 +1,125 @@
+package org.example.booking.service.profiling;
+
+import io.micrometer.observation.ObservationRegistry;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.RecordingState;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.example.booking.service.profiling.FlightRecorderService.RecordingOptions;
+import org.example.booking.service.support.BookingObservations;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FlightRecorderServiceTest {
+
+    private FlightRecorderProperties properties;
+    private FlightRecorderService flightRecorderService;
+
+    @BeforeEach
+    void setUp() {
+        properties = new FlightRecorderProperties();
+        flightRecorderService = new FlightRecorderService(properties);
+    }
+
+    @Test
+    void whenLocksAndSocketIoRequested_shouldEnableThemAboveThresholds() {
+        // When
+        Map<String, String> settings = flightRecorderService.settingsFor(
+                new RecordingOptions(null, "default", false, true, true, false));
+
+        // Then
+        assertEquals("true", settings.get("jdk.JavaMonitorEnter#enabled"));
+        assertEquals("10 ms", settings.get("jdk.ThreadPark#threshold"));
+        assertEquals("true", settings.get("jdk.SocketRead#enabled"));
+        assertEquals("false", settings.get(BookingOperationEvent.NAME + "#enabled"));
+    }
+
+    @Test
+    void whenBuildingSettings_shouldNeverRecordEnvironmentSystemPropertiesOrArguments() {
+        // When
+        Map<String, String> settings = flightRecorderService.settingsFor(
+                new RecordingOptions(null, "profile", true, true, true, true));
+
+        // Then
+        assertEquals("false", settings.get("jdk.InitialEnvironmentVariable#enabled"));
+        assertEquals("false", settings.get("jdk.InitialSystemProperty#enabled"));
+        assertEquals("false", settings.get("jdk.JVMInformation#enabled"));
+    }
+
+    @Test
+    void whenSettingsUnknown_shouldRejectRequest() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> flightRecorderService.record(
+                new RecordingOptions(Duration.ofSeconds(1), "no-such-settings", false, false, false, true)));
+    }
+
+    @Test
+    void whenDurationAboveMaximum_shouldRejectRequest() {
+        // Given
+        properties.setMaxDuration(Duration.ofSeconds(10));
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> flightRecorderService.record(
+                new RecordingOptions(Duration.ofSeconds(11), null, false, false, false, true)));
+    }
+
+    @Test
+    void whenRecordingWithBookingEvents_shouldContainObservedOperationsAndSteps() throws Exception {
+        // Given
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new FlightRecorderObservationHandler());
+        BookingObservations bookingObservations = new BookingObservations(observationRegistry);
+        CompletableFuture<Path> recording = CompletableFuture.supplyAsync(() -> {
+            try {
+                return flightRecorderService.record(
+                        new RecordingOptions(Duration.ofSeconds(1), "default", false, false, false, true));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        awaitRunningRecording();
+
+        // When
+        bookingObservations.operation("create-booking",
+                () -> bookingObservations.step("create-booking", "unit-lock", () -> { }));
+        assertThrows(IllegalStateException.class, () -> flightRecorderService.record(
+                new RecordingOptions(Duration.ofSeconds(1), "default", false, false, false, true)));
+        Path file = recording.get(10, TimeUnit.SECONDS);
+
+        // Then
+        try {
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(BookingOperationEvent.NAME)
+                    && "create-booking".equals(event.getString("operation"))
+                    && "success".equals(event.getString("outcome"))));
+            assertTrue(events.stream().anyMatch(event -> event.getEventType().getName().equals(BookingStepEvent.NAME)
+                    && "unit-lock".equals(event.getString("step"))));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void awaitRunningRecording() throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            if (FlightRecorder.isInitialized() && FlightRecorder.getFlightRecorder().getRecordings().stream()
+                    .anyMatch(recording -> recording.getState() == RecordingState.RUNNING)) {
+                return;
+            }
+            Thread.sleep(20);
+        }
+        throw new AssertionError("Flight recording did not start");
+    }
+}
@@ -0,0 +1,124 @@
+package org.example.booking.service.startup;
+
+import org.example.booking.model.BookingStatus;
+import org.example.booking.service.startup.ScaleDataset.BookingRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScaleDatasetTest {
+
+    private static final LocalDate ANCHOR_DATE = LocalDate.of(2026, 6, 1);
+    private static final Duration CANCELLATION_PERIOD = Duration.ofMinutes(15);
+
+    @Test
+    void whenGenerated_withSameSeed_shouldProduceSameRows() {
+        // Given
+        ScaleDataset first = dataset(properties(7));
+        ScaleDataset second = dataset(properties(7));
+
+        // When & Then
+        assertEquals(first.unit(12), second.unit(12));
+        assertEquals(first.user(5), second.user(5));
+        assertEquals(first.bookingsOfUnit(12), second.bookingsOfUnit(12));
+    }
+
+    @Test
+    void whenGenerated_withDifferentSeed_shouldProduceDifferentRows() {
+        // Given
+        ScaleDataset first = dataset(properties(7));
+        ScaleDataset second = dataset(properties(8));
+
+        // When & Then
+        assertNotEquals(first.bookingsOfUnit(3), second.bookingsOfUnit(3));
+    }
+
+    @Test
+    void whenBookingsDoNotDivideEvenly_shouldGiveRemainderToFirstUnits() {
+        // Given
+        ScaleDataProperties properties = properties(1);
+        properties.setUnits(10);
+        properties.setBookings(43);
+        ScaleDataset dataset = dataset(properties);
+
+        // When & Then
+        assertEquals(43, dataset.bookings());
+        assertEquals(5, dataset.bookingsOfUnit(0).size());
+        assertEquals(4, dataset.bookingsOfUnit(9).size());
+        assertEquals(15, dataset.bookingsBefore(3));
+        assertEquals(15, dataset.bookingsOfUnit(3).getFirst().index());
+    }
+
+    @Test
+    void whenBookingsOfUnit_shouldNotOverlapAndStayWithinCalendar() {
+        // Given
+        ScaleDataset dataset = dataset(properties(3));
+
+        // When
+        List<BookingRow> bookings = dataset.bookingsOfUnit(4);
+
+        // Then
+        LocalDate previousCheckOut = ANCHOR_DATE.minusDays(365);
+        for (BookingRow booking : bookings) {
+            assertFalse(booking.checkInDate().isBefore(previousCheckOut));
+            assertTrue(booking.checkOutDate().isAfter(booking.checkInDate()));
+            previousCheckOut = booking.checkOutDate();
+        }
+        assertFalse(previousCheckOut.isAfter(ANCHOR_DATE.plusDays(365)));
+    }
+
+    @Test
+    void whenBookingsGenerated_shouldOnlyKeepFutureBookingsPending() {
+        // Given
+        ScaleDataset dataset = dataset(properties(11));
+
+        // When & Then
+        for (long unit = 0; unit < 50; unit++) {
+            for (BookingRow booking : dataset.bookingsOfUnit(unit)) {
+                if (booking.status() == BookingStatus.PENDING) {
+                    assertTrue(booking.checkInDate().isAfter(ANCHOR_DATE));
+                    assertNull(booking.updatedAt());
+                } else {
+                    assertTrue(booking.updatedAt().isAfter(booking.createdAt()));
+                }
+                assertEquals(new BigDecimal("1.00"), booking.totalCost());
+            }
+        }
+    }
+
+    @Test
+    void whenTooManyBookingsPerUnit_shouldThrow() {
+        // Given
+        ScaleDataProperties properties = properties(1);
+        properties.setUnits(1);
+        properties.setBookings(800);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> dataset(properties));
+    }
+
+    private static ScaleDataProperties properties(long seed) {
+        ScaleDataProperties properties = new ScaleDataProperties();
+        properties.setSeed(seed);
+        properties.setUnits(100);
+        properties.setUsers(20);
+        properties.setBookings(2000);
+        return properties;
+    }
+
+    private static ScaleDataset dataset(ScaleDataProperties properties) {
+        UnaryOperator<BigDecimal> totalCost = baseCost -> new BigDecimal("1.00");
+        return new ScaleDataset(properties, ANCHOR_DATE, CANCELLATION_PERIOD, totalCost);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.booking.service.startup;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StartupTaskGraphTest {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void whenTasksAreIndependent_shouldRunThemInParallel() throws Exception {
+        // Given
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Runnable waitForOther = () -> {
+            bothStarted.countDown();
+            await(bothStarted);
+        };
+
+        // When
+        CompletableFuture<Void> result = new StartupTaskGraph()
+                .add("first", waitForOther)
+                .add("second", waitForOther)
+                .run(executor);
+
+        // Then
+        result.get(5, TimeUnit.SECONDS);
+        assertEquals(0, bothStarted.getCount());
+    }
+
+    @Test
+    void whenTaskHasDependency_shouldRunItAfterDependency() throws Exception {
+        // Given
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // When
+        new StartupTaskGraph()
+                .add("generate-data", () -> executed.add("generate-data"))
+                .add("availability-cache", () -> executed.add("availability-cache"), "generate-data")
+                .run(executor)
+                .get(5, TimeUnit.SECONDS);
+
+        // Then
+        assertEquals(List.of("generate-data", "availability-cache"), executed);
+    }
+
+    @Test
+    void whenDependencyFails_shouldSkipDependentTaskAndFail() {
+        // Given
+        List<String> executed = new CopyOnWriteArrayList<>();
+
+        // When
+        CompletableFuture<Void> result = new StartupTaskGraph()
+                .add("generate-data", () -> {
+                    throw new IllegalStateException("boom");
+                })
+                .add("availability-cache", () -> executed.add("availability-cache"), "generate-data")
+                .run(executor);
+
+        // Then
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(IllegalStateException.class, exception.getCause());
+        assertTrue(executed.isEmpty());
+    }
+
+    @Test
+    void whenDependencyIsUnknown_shouldThrow() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new StartupTaskGraph().add("availability-cache", () -> { }, "generate-data"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Tasks did not run in parallel");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
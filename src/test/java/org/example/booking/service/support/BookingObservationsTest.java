@@ -0,0 +1,65 @@
+package org.example.booking.service.support;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.observation.DefaultMeterObservationHandler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.ObservationRegistry;
+import org.example.booking.exception.BookingException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingObservationsTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BookingObservations bookingObservations;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+        observationRegistry.observationConfig().observationHandler(new DefaultMeterObservationHandler(meterRegistry));
+        bookingObservations = new BookingObservations(observationRegistry);
+    }
+
+    @Test
+    void whenStepSucceeds_shouldRecordTimerTaggedWithStepAndSuccess() {
+        // When
+        String result = bookingObservations.step("create-booking", "insert", () -> "saved");
+
+        // Then
+        assertEquals("saved", result);
+        Timer timer = meterRegistry.find(BookingObservations.STEP_METRIC)
+                .tags("operation", "create-booking", "step", "insert", "outcome", "success")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(1, timer.count());
+    }
+
+    @Test
+    void whenOperationFailsWithConflict_shouldRethrowAndRecordConflictOutcome() {
+        // When & Then
+        assertThrows(BookingException.class, () -> bookingObservations.operation("create-booking", () -> {
+            throw new BookingException("taken");
+        }));
+        assertNotNull(meterRegistry.find(BookingObservations.OPERATION_METRIC)
+                .tags("operation", "create-booking", "outcome", "conflict", "error", "BookingException")
+                .timer());
+        assertNull(meterRegistry.find(BookingObservations.OPERATION_METRIC).tags("outcome", "success").timer());
+    }
+
+    @Test
+    void whenStepRunsInsideOperation_shouldRecordBoth() {
+        // When
+        bookingObservations.operation("cancel-booking",
+                () -> bookingObservations.step("cancel-booking", "event-log", () -> { }));
+
+        // Then
+        assertEquals(1, meterRegistry.get(BookingObservations.OPERATION_METRIC).tag("outcome", "success").timer().count());
+        assertEquals(1, meterRegistry.get(BookingObservations.STEP_METRIC).tag("step", "event-log").timer().count());
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.booking.service.support;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.booking.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RequestCoalescerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestCoalescer requestCoalescer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        requestCoalescer = new RequestCoalescer(meterRegistry);
+    }
+
+    @Test
+    void whenConcurrentIdenticalRequests_shouldShareOneComputation() throws Exception {
+        // Given
+        int callers = 8;
+        AtomicInteger computations = new AtomicInteger();
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+
+        try {
+            // When
+            List<Future<Integer>> results = new ArrayList<>();
+            results.add(executor.submit(() -> requestCoalescer.execute("op", "key", () -> {
+                leaderStarted.countDown();
+                await(release);
+                return computations.incrementAndGet();
+            })));
+            assertTrue(leaderStarted.await(5, TimeUnit.SECONDS));
+            for (int i = 1; i < callers; i++) {
+                results.add(executor.submit(() -> requestCoalescer.execute("op", "key", computations::incrementAndGet)));
+            }
+            awaitFollowers(callers - 1);
+            release.countDown();
+
+            // Then
+            for (Future<Integer> result : results) {
+                assertEquals(1, result.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, computations.get());
+            assertEquals(1, meterRegistry.get("booking.coalescing.requests").tag("role", "leader").counter().count());
+            assertEquals(callers - 1, meterRegistry.get("booking.coalescing.requests").tag("role", "follower").counter().count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void whenSequentialRequests_shouldRecompute() {
+        // Given
+        AtomicInteger computations = new AtomicInteger();
+
+        // When
+        requestCoalescer.execute("op", "key", computations::incrementAndGet);
+        int second = requestCoalescer.execute("op", "key", computations::incrementAndGet);
+
+        // Then
+        assertEquals(2, second);
+    }
+
+    @Test
+    void whenComputationFails_shouldPropagateOriginalException() {
+        assertThrows(InvalidRequestException.class, () -> requestCoalescer.execute("op", "key", () -> {
+            throw new InvalidRequestException("boom");
+        }));
+    }
+
+    private void awaitFollowers(int followers) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            var counter = meterRegistry.find("booking.coalescing.requests").tag("role", "follower").counter();
+            if (counter != null && counter.count() >= followers) {
+                return;
+            }
+            Thread.sleep(5);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}